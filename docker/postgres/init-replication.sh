@@ -0,0 +1,9 @@
+#!/bin/sh
+# Runs once when the db container initializes its data directory: a login the replica can stream WAL with
+set -e
+
+psql -v ON_ERROR_STOP=1 --username "$POSTGRES_USER" --dbname "$POSTGRES_DB" <<-EOSQL
+    CREATE ROLE replicator WITH REPLICATION LOGIN PASSWORD '$REPLICATION_PASSWORD';
+EOSQL
+
+echo "host replication replicator all md5" >> "$PGDATA/pg_hba.conf"
@@ -0,0 +1,16 @@
+#!/bin/sh
+# Hot standby of the db service: cloned with pg_basebackup on first start, then kept in sync by streaming
+set -e
+
+if [ ! -s "$PGDATA/PG_VERSION" ]; then
+    until PGPASSWORD="$REPLICATION_PASSWORD" pg_basebackup --host=db --username=replicator \
+            --pgdata="$PGDATA" --wal-method=stream --write-recovery-conf; do
+        echo "Waiting for the primary to accept replication connections..."
+        rm -rf "${PGDATA:?}"/*
+        sleep 2
+    done
+    chown -R postgres:postgres "$PGDATA"
+    chmod 700 "$PGDATA"
+fi
+
+exec docker-entrypoint.sh postgres
@@ -1,6 +1,9 @@
 package com.dona_samsung_web_project.samsung_web_be;
 
+import com.dona_samsung_web_project.samsung_web_be.importer.ImportCommandLineRunner;
+
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.lang.NonNull;
@@ -11,7 +14,12 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class SamsungWebBeApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(SamsungWebBeApplication.class, args);
+        SpringApplication application = new SpringApplication(SamsungWebBeApplication.class);
+        if (ImportCommandLineRunner.isImport(args)) {
+            application.setWebApplicationType(WebApplicationType.NONE);
+            System.exit(SpringApplication.exit(application.run(args)));
+        }
+        application.run(args);
     }
 
     @Bean
@@ -0,0 +1,72 @@
+package com.dona_samsung_web_project.samsung_web_be.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.util.List;
+
+import org.hibernate.Hibernate;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String BOOKS = "books";
+    public static final String MEMBERS = "members";
+
+    // Bounded, TTL-evicting entity caches in front of the repositories' findById (authors use the Hibernate
+    // second-level cache instead, see Author). Puts and evictions inside a transaction wait for its commit, so
+    // a read running concurrently with the write cannot cache the row the write is replacing.
+    @Bean
+    public CacheManager cacheManager(@Value("${spring.cache.caffeine.spec}") String spec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            @NonNull
+            protected org.springframework.cache.Cache adaptCaffeineCache(@NonNull String name,
+                    @NonNull Cache<Object, Object> cache) {
+                return new EntityCopyingCache(name, cache);
+            }
+        };
+        cacheManager.setCacheSpecification(spec);
+        cacheManager.setCacheNames(List.of(BOOKS, MEMBERS));
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    // Services mutate the entities they load, so the cache stores and hands out shallow copies
+    static class EntityCopyingCache extends CaffeineCache {
+
+        EntityCopyingCache(String name, Cache<Object, Object> cache) {
+            super(name, cache, false);
+        }
+
+        @Override
+        protected Object toStoreValue(Object userValue) {
+            return super.toStoreValue(copy(userValue));
+        }
+
+        @Override
+        protected Object fromStoreValue(Object storeValue) {
+            return copy(super.fromStoreValue(storeValue));
+        }
+
+        private static Object copy(Object value) {
+            if (value == null) {
+                return null;
+            }
+            Object entity = Hibernate.unproxy(value);
+            Object copy = BeanUtils.instantiateClass(entity.getClass());
+            BeanUtils.copyProperties(entity, copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.dona_samsung_web_project.samsung_web_be.config;
+
+import com.dona_samsung_web_project.samsung_web_be.model.Author;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+// Hit ratios of the second-level cache regions and the query cache, next to the hit/miss counters Spring Boot
+// already publishes from the Hibernate statistics (/actuator/metrics/hibernate.second.level.cache.hit.ratio)
+@Component
+public class HibernateCacheMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public HibernateCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // Query regions only appear once a query used them
+        Set<String> regions = new TreeSet<>(Set.of(statistics.getSecondLevelCacheRegionNames()));
+        regions.add(Author.QUERY_CACHE_REGION);
+        for (String region : regions) {
+            Gauge.builder("hibernate.second.level.cache.hit.ratio", statistics, s -> regionHitRatio(s, region))
+                    .tag("region", region)
+                    .description("Share of second-level cache lookups served from the cache")
+                    .register(registry);
+        }
+        Gauge.builder("hibernate.cache.query.hit.ratio", statistics,
+                        s -> ratio(s.getQueryCacheHitCount(), s.getQueryCacheMissCount()))
+                .description("Share of cacheable query executions served from the query cache")
+                .register(registry);
+    }
+
+    private static double regionHitRatio(Statistics statistics, String region) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        return regionStatistics == null ? Double.NaN
+                : ratio(regionStatistics.getHitCount(), regionStatistics.getMissCount());
+    }
+
+    private static double ratio(long hits, long misses) {
+        long lookups = hits + misses;
+        return lookups == 0 ? Double.NaN : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,38 @@
+package com.dona_samsung_web_project.samsung_web_be.config;
+
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.jpa.SpecHints;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Read-only transactions may run on a replica up to max-lag behind. What they load must not be put in the
+// second-level and query caches, or a lagging replica would bring back a row the primary has just changed (and
+// its writer evicted) for the whole TTL of the region. They bypass the caches altogether: a cacheable query
+// that misses is put in the query cache even when the session only gets from it.
+public class ReplicaAwareTransactionManager extends JpaTransactionManager {
+
+    private final boolean hasReplicas;
+
+    public ReplicaAwareTransactionManager(EntityManagerFactory entityManagerFactory, boolean hasReplicas) {
+        super(entityManagerFactory);
+        this.hasReplicas = hasReplicas;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        EntityManagerHolder holder =
+                (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+        // Set on every transaction, an open-in-view session outlives the read-only one
+        boolean bypass = hasReplicas && definition.isReadOnly();
+        holder.getEntityManager().setProperty(SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE,
+                bypass ? CacheRetrieveMode.BYPASS : CacheRetrieveMode.USE);
+        holder.getEntityManager().setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE,
+                bypass ? CacheStoreMode.BYPASS : CacheStoreMode.USE);
+    }
+}
@@ -0,0 +1,154 @@
+package com.dona_samsung_web_project.samsung_web_be.config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Sends read-only transactions to a replica that is reachable and not too far behind, everything else to the
+// primary. Must sit behind a LazyConnectionDataSourceProxy: the transaction manager takes its connection before
+// the read-only flag of the transaction is visible here.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    private static final String PRIMARY_LSN_SQL = "SELECT CAST(pg_current_wal_lsn() AS text)";
+
+    // Replay delay of a PostgreSQL standby in seconds, 0 once it has replayed up to the WAL position the primary
+    // reported just before. Comparing with what the standby itself received would report 0 forever once
+    // streaming stops, and the last replay timestamp alone grows while the primary is idle.
+    private static final String LAG_SQL = """
+            SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_replay_lsn() >= CAST(? AS pg_lsn) THEN 0
+                   ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END
+            """;
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+    // Replicas that passed the last check, none until the first check has run
+    private volatile List<String> usable = List.of();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag) {
+        this.primary = primary;
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.maxLag = maxLag;
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        List<String> candidates = usable;
+        if (candidates.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    // Probe every replica, the unreachable and lagging ones get no reads until a later check passes
+    public void checkReplicas() {
+        String primaryLsn;
+        try {
+            primaryLsn = currentLsn(primary);
+        } catch (SQLException e) {
+            if (!usable.isEmpty()) {
+                log.warn("Could not read the WAL position of the primary, no reads go to replicas: {}",
+                        e.getMessage());
+            }
+            usable = List.of();
+            return;
+        }
+        List<String> passed = new ArrayList<>();
+        replicas.forEach((name, replica) -> {
+            Duration lag;
+            try {
+                lag = lag(replica, primaryLsn);
+            } catch (SQLException e) {
+                if (usable.contains(name)) {
+                    log.warn("Replica {} is unreachable, reads go to the primary: {}", name, e.getMessage());
+                }
+                return;
+            }
+            if (lag == null || lag.compareTo(maxLag) > 0) {
+                if (usable.contains(name)) {
+                    log.warn("Replica {} is {} behind (max {}), reads go to the primary", name, lag, maxLag);
+                }
+                return;
+            }
+            if (!usable.contains(name)) {
+                log.info("Replica {} is in sync, serving read-only transactions", name);
+            }
+            passed.add(name);
+        });
+        usable = List.copyOf(passed);
+    }
+
+    // Null on other databases, they have no replication lag to report
+    private static String currentLsn(DataSource primary) throws SQLException {
+        try (Connection connection = primary.getConnection()) {
+            if (!isPostgreSql(connection)) {
+                return null;
+            }
+            try (Statement statement = connection.createStatement();
+                    ResultSet result = statement.executeQuery(PRIMARY_LSN_SQL)) {
+                result.next();
+                return result.getString(1);
+            }
+        }
+    }
+
+    // Being reachable is enough when there is no WAL position to compare with (tests)
+    private static Duration lag(DataSource replica, String primaryLsn) throws SQLException {
+        try (Connection connection = replica.getConnection()) {
+            if (primaryLsn == null || !isPostgreSql(connection)) {
+                return Duration.ZERO;
+            }
+            try (PreparedStatement statement = connection.prepareStatement(LAG_SQL)) {
+                statement.setString(1, primaryLsn);
+                try (ResultSet result = statement.executeQuery()) {
+                    result.next();
+                    double seconds = result.getDouble(1);
+                    return result.wasNull() ? null : Duration.ofMillis(Math.round(seconds * 1000));
+                }
+            }
+        }
+    }
+
+    private static boolean isPostgreSql(Connection connection) throws SQLException {
+        return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.dona_samsung_web_project.samsung_web_be.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Moves the id sequences past the ids written while the tables used IDENTITY columns (PostgreSQL only).
+// Runs before the web server accepts requests, once the schema is in place.
+@Component
+public class SequenceInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(SequenceInitializer.class);
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "authors", "authors_seq",
+            "books", "books_seq",
+            "members", "members_seq",
+            "borrowed_books", "borrowed_books_seq");
+
+    // With the pooled optimizer the next block starts right after the value set here
+    private static final String ADVANCE_SQL = """
+            SELECT setval('%2$s', (SELECT MAX(id) FROM %1$s))
+            WHERE (SELECT MAX(id) FROM %1$s) >= (SELECT last_value FROM %2$s)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    // The EntityManagerFactory is only injected so the schema is created or updated first
+    public SequenceInitializer(JdbcTemplate jdbcTemplate, DatabasePlatform databasePlatform,
+            EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        if (!databasePlatform.isPostgreSql()) {
+            return;
+        }
+        SEQUENCES.forEach((table, sequence) -> {
+            try {
+                if (!jdbcTemplate.queryForList(ADVANCE_SQL.formatted(table, sequence)).isEmpty()) {
+                    log.info("Sequence {} moved past the existing ids of {}", sequence, table);
+                }
+            } catch (DataAccessException e) {
+                log.warn("Could not advance sequence {}: {}", sequence, e.getMostSpecificCause().getMessage());
+            }
+        });
+    }
+}
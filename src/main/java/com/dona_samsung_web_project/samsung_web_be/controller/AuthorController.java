@@ -1,8 +1,15 @@
 package com.dona_samsung_web_project.samsung_web_be.controller;
 
+import com.dona_samsung_web_project.samsung_web_be.exporter.ExportFormat;
+import com.dona_samsung_web_project.samsung_web_be.exporter.ExportService;
 import com.dona_samsung_web_project.samsung_web_be.model.Author;
+import com.dona_samsung_web_project.samsung_web_be.model.response.CommonResponse;
+import com.dona_samsung_web_project.samsung_web_be.model.response.CursorResponse;
 import com.dona_samsung_web_project.samsung_web_be.model.response.PagingResponse;
+import com.dona_samsung_web_project.samsung_web_be.model.response.SliceResponse;
 import com.dona_samsung_web_project.samsung_web_be.model.response.SuccessResponse;
+import com.dona_samsung_web_project.samsung_web_be.pagination.KeysetCursor;
+import com.dona_samsung_web_project.samsung_web_be.pagination.SortableFields;
 import com.dona_samsung_web_project.samsung_web_be.service.AuthorService;
 
 import org.modelmapper.ModelMapper;
@@ -13,20 +20,31 @@ import org.modelmapper.convention.MatchingStrategies;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/authors")
 public class AuthorController {
 
     private final AuthorService authorService;
+    private final KeysetCursor keysetCursor;
+    private final ExportService exportService;
     private final ModelMapper modelMapper = new ModelMapper();
 
-    public AuthorController(AuthorService authorService) {
+    public AuthorController(AuthorService authorService, KeysetCursor keysetCursor,
+            ExportService exportService) {
         this.authorService = authorService;
+        this.keysetCursor = keysetCursor;
+        this.exportService = exportService;
     }
 
     // Create or update an author
@@ -41,24 +59,41 @@ public class AuthorController {
                         savedAuthor, "Success create author"));
     }
 
-    // Get all authors with pagination
+    // Get all authors with pagination, or keyset pagination when a cursor is given (after= for the first page)
     @GetMapping
-    public ResponseEntity<PagingResponse<Author>> getAllAuthors(
+    public ResponseEntity<? extends CommonResponse> getAllAuthors(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Boolean withCount) {
+
+        if (after != null) {
+            Sort sort = SortableFields.AUTHORS.sort(sortBy, sortDir);
+            Window<Author> authors = authorService.scrollAuthors(keysetCursor.decode(after, Author.class), sort, size);
+            Long count = Boolean.TRUE.equals(withCount) ? authorService.countAuthors() : null;
+            return ResponseEntity.status(HttpStatus.OK)
+                    .body(new CursorResponse<>(
+                            authors.getContent(), keysetCursor.next(authors), count, "Success get author list"));
+        }
 
         if (page != -1 && size != -1) {
             Pageable pageable = PageRequest.of(page, size,
-                    sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending());
+                    SortableFields.AUTHORS.sort(sortBy, sortDir));
+            if (Boolean.FALSE.equals(withCount)) {
+                Slice<Author> authors = authorService.sliceAuthors(pageable);
+                return ResponseEntity.status(HttpStatus.OK)
+                        .body(new SliceResponse<>(
+                                authors, "Success get author list"));
+            }
             Page<Author> authors = authorService.getAllAuthors(pageable);
             return ResponseEntity.status(HttpStatus.OK)
                     .body(new PagingResponse<>(
                             authors, "Success get author list"));
         } else {
             Pageable unpaged = Pageable.unpaged(
-                    sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending());
+                    SortableFields.AUTHORS.sort(sortBy, sortDir));
             Page<Author> authors = authorService.getAllAuthors(unpaged);
             return ResponseEntity.status(HttpStatus.OK)
                     .body(new PagingResponse<>(
@@ -66,6 +101,17 @@ public class AuthorController {
         }
     }
 
+    // Export every author as CSV or NDJSON
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAuthors(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromLabel(format);
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("authors." + exportFormat.getLabel()).build().toString())
+                .body(exportService.exportAuthors(exportFormat));
+    }
+
     // Get author by id
     @GetMapping("/{id}")
     public ResponseEntity<SuccessResponse<Author>> getAuthorById(@PathVariable Long id) {
@@ -97,16 +143,23 @@ public class AuthorController {
 
     // Search authors by name with pagination
     @GetMapping("/search")
-    public ResponseEntity<PagingResponse<Author>> searchAuthorsByName(
+    public ResponseEntity<? extends CommonResponse> searchAuthorsByName(
             @RequestParam String name,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) Boolean withCount) {
         Pageable pageable = PageRequest.of(
                 page,
                 size,
-                sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending());
+                SortableFields.AUTHORS.sort(sortBy, sortDir));
+        if (Boolean.FALSE.equals(withCount)) {
+            Slice<Author> authors = authorService.sliceAuthorsByName(name, pageable);
+            return ResponseEntity.status(HttpStatus.OK)
+                    .body(new SliceResponse<>(
+                            authors, "Success get author list"));
+        }
         Page<Author> authors = authorService.searchAuthorsByName(name, pageable);
         return ResponseEntity.status(HttpStatus.OK)
                 .body(new PagingResponse<>(
@@ -0,0 +1,37 @@
+package com.dona_samsung_web_project.samsung_web_be.controller;
+
+import com.dona_samsung_web_project.samsung_web_be.model.SearchResult;
+import com.dona_samsung_web_project.samsung_web_be.model.response.SuccessResponse;
+import com.dona_samsung_web_project.samsung_web_be.service.SearchService;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/autocomplete")
+public class AutocompleteController {
+
+    private final SearchService searchService;
+
+    public AutocompleteController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    // Suggest book titles, author names or member names starting with q, most borrowed first. At most
+    // autocomplete.max-suggestions are returned whatever the limit.
+    @GetMapping
+    public ResponseEntity<SuccessResponse<List<SearchResult>>> autocomplete(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int limit) {
+        List<SearchResult> suggestions = searchService.autocomplete(q, type, limit);
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(new SuccessResponse<>(suggestions, "Success autocomplete"));
+    }
+}
@@ -1,29 +1,52 @@
 package com.dona_samsung_web_project.samsung_web_be.controller;
 
 import com.dona_samsung_web_project.samsung_web_be.model.Book;
+import com.dona_samsung_web_project.samsung_web_be.exporter.ExportFormat;
+import com.dona_samsung_web_project.samsung_web_be.exporter.ExportService;
+import com.dona_samsung_web_project.samsung_web_be.index.TrendingWindow;
 import com.dona_samsung_web_project.samsung_web_be.model.BookStatus;
+import com.dona_samsung_web_project.samsung_web_be.model.TrendingItem;
+import com.dona_samsung_web_project.samsung_web_be.model.projection.BookListItem;
+import com.dona_samsung_web_project.samsung_web_be.model.response.CommonResponse;
+import com.dona_samsung_web_project.samsung_web_be.model.response.CursorResponse;
 import com.dona_samsung_web_project.samsung_web_be.model.response.PagingResponse;
+import com.dona_samsung_web_project.samsung_web_be.model.response.SliceResponse;
 import com.dona_samsung_web_project.samsung_web_be.model.response.SuccessResponse;
+import com.dona_samsung_web_project.samsung_web_be.pagination.KeysetCursor;
+import com.dona_samsung_web_project.samsung_web_be.pagination.SortableFields;
 import com.dona_samsung_web_project.samsung_web_be.service.BookService;
 
 import jakarta.validation.Valid;
 
+import java.util.List;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/books")
 public class BookController {
         private final BookService bookService;
+        private final KeysetCursor keysetCursor;
+        private final ExportService exportService;
 
-        public BookController(BookService bookService) {
+        public BookController(BookService bookService, KeysetCursor keysetCursor,
+                        ExportService exportService) {
                 this.bookService = bookService;
+                this.keysetCursor = keysetCursor;
+                this.exportService = exportService;
         }
 
         // Create a book with photo upload
@@ -36,34 +59,59 @@ public class BookController {
                                 .body(new SuccessResponse<>(savedBook, "Success create book with photo"));
         }
 
-        // Get all books with pagination
+        // Get all books with pagination, or keyset pagination when a cursor is given (after= for the first page)
         @GetMapping
-        public ResponseEntity<PagingResponse<Book>> getAllBooks(
+        public ResponseEntity<? extends CommonResponse> getAllBooks(
                         @RequestParam(defaultValue = "0") int page,
                         @RequestParam(defaultValue = "10") int size,
                         @RequestParam(defaultValue = "title") String sortBy,
-                        @RequestParam(defaultValue = "asc") String sortDir) {
+                        @RequestParam(defaultValue = "asc") String sortDir,
+                        @RequestParam(required = false) String after,
+                        @RequestParam(required = false) Boolean withCount) {
+                if (after != null) {
+                        Sort sort = SortableFields.BOOKS.sort(sortBy, sortDir);
+                        Window<BookListItem> books = bookService.scrollBooks(
+                                        keysetCursor.decode(after, Book.class), sort, size);
+                        Long count = Boolean.TRUE.equals(withCount) ? bookService.countBooks() : null;
+                        return ResponseEntity.status(HttpStatus.OK)
+                                        .body(new CursorResponse<>(books.getContent(), keysetCursor.next(books),
+                                                        count, "Success get book list"));
+                }
                 if (page != -1 && size != -1) {
                         Pageable pageable = PageRequest.of(
                                         page,
                                         size,
-                                        sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending()
-                                                        : Sort.by(sortBy).descending());
-                        Page<Book> books = bookService.getAllBooks(pageable);
+                                        SortableFields.BOOKS.sort(sortBy, sortDir));
+                        if (Boolean.FALSE.equals(withCount)) {
+                                Slice<BookListItem> books = bookService.sliceBooks(pageable);
+                                return ResponseEntity.status(HttpStatus.OK)
+                                                .body(new SliceResponse<>(books, "Success get book list"));
+                        }
+                        Page<BookListItem> books = bookService.getAllBooks(pageable);
                         return ResponseEntity.status(HttpStatus.OK)
                                         .body(new PagingResponse<>(
                                                         books, "Success get book list"));
                 } else {
                         Pageable unpaged = Pageable.unpaged(
-                                        sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending()
-                                                        : Sort.by(sortBy).descending());
-                        Page<Book> books = bookService.getAllBooks(unpaged);
+                                        SortableFields.BOOKS.sort(sortBy, sortDir));
+                        Page<BookListItem> books = bookService.getAllBooks(unpaged);
                         return ResponseEntity.status(HttpStatus.OK)
                                         .body(new PagingResponse<>(
                                                         books, "Success get all book"));
                 }
         }
 
+        // Export every book as CSV or NDJSON, streamed so memory use does not grow with the table
+        @GetMapping("/export")
+        public ResponseEntity<StreamingResponseBody> exportBooks(@RequestParam(defaultValue = "ndjson") String format) {
+                ExportFormat exportFormat = ExportFormat.fromLabel(format);
+                return ResponseEntity.status(HttpStatus.OK)
+                                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                                                .filename("books." + exportFormat.getLabel()).build().toString())
+                                .body(exportService.exportBooks(exportFormat));
+        }
+
         // Get book by id
         @GetMapping("/{id}")
         public ResponseEntity<SuccessResponse<Book>> getBookById(@PathVariable Long id) {
@@ -97,15 +145,20 @@ public class BookController {
 
         // Search books by title with pagination
         @GetMapping("/search-by-title")
-        public ResponseEntity<PagingResponse<Book>> searchBooksByTitle(
+        public ResponseEntity<? extends CommonResponse> searchBooksByTitle(
                         @RequestParam String title,
                         @RequestParam(defaultValue = "0") int page,
                         @RequestParam(defaultValue = "10") int size,
                         @RequestParam(defaultValue = "title") String sortBy,
-                        @RequestParam(defaultValue = "asc") String sortDir) {
+                        @RequestParam(defaultValue = "asc") String sortDir,
+                        @RequestParam(required = false) Boolean withCount) {
                 Pageable pageable = PageRequest.of(page, size,
-                                sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending()
-                                                : Sort.by(sortBy).descending());
+                                SortableFields.BOOKS.sort(sortBy, sortDir));
+                if (Boolean.FALSE.equals(withCount)) {
+                        Slice<Book> books = bookService.sliceBooksByTitle(title, pageable);
+                        return ResponseEntity.status(HttpStatus.OK)
+                                        .body(new SliceResponse<>(books, "Success get book list by title"));
+                }
                 Page<Book> books = bookService.searchBooksByTitle(title, pageable);
                 return ResponseEntity.status(HttpStatus.OK)
                                 .body(new PagingResponse<>(
@@ -114,15 +167,20 @@ public class BookController {
 
         // Search books by category with pagination
         @GetMapping("/search-by-category")
-        public ResponseEntity<PagingResponse<Book>> searchBooksByCategory(
+        public ResponseEntity<? extends CommonResponse> searchBooksByCategory(
                         @RequestParam String category,
                         @RequestParam(defaultValue = "0") int page,
                         @RequestParam(defaultValue = "10") int size,
                         @RequestParam(defaultValue = "title") String sortBy,
-                        @RequestParam(defaultValue = "asc") String sortDir) {
+                        @RequestParam(defaultValue = "asc") String sortDir,
+                        @RequestParam(required = false) Boolean withCount) {
                 Pageable pageable = PageRequest.of(page, size,
-                                sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending()
-                                                : Sort.by(sortBy).descending());
+                                SortableFields.BOOKS.sort(sortBy, sortDir));
+                if (Boolean.FALSE.equals(withCount)) {
+                        Slice<Book> books = bookService.sliceBooksByCategory(category, pageable);
+                        return ResponseEntity.status(HttpStatus.OK)
+                                        .body(new SliceResponse<>(books, "Success get book list by category"));
+                }
                 Page<Book> books = bookService.searchBooksByCategory(category, pageable);
                 return ResponseEntity.status(HttpStatus.OK)
                                 .body(new PagingResponse<>(
@@ -138,6 +196,16 @@ public class BookController {
                                 .body(new PagingResponse<>(books, "Success get top most borrowed books"));
         }
 
+        // Get the most borrowed books of the last 24h, 7d or 30d
+        @GetMapping("/trending")
+        public ResponseEntity<SuccessResponse<List<TrendingItem<Book>>>> getTrendingBooks(
+                        @RequestParam(defaultValue = "24h") String window,
+                        @RequestParam(defaultValue = "10") int topN) {
+                List<TrendingItem<Book>> books = bookService.getTrendingBooks(TrendingWindow.fromLabel(window), topN);
+                return ResponseEntity.status(HttpStatus.OK)
+                                .body(new SuccessResponse<>(books, "Success get trending books for " + window));
+        }
+
         @GetMapping("/newest")
         public ResponseEntity<PagingResponse<Book>> getNewestAvailableBooks(
                         @RequestParam(defaultValue = "0") int page,
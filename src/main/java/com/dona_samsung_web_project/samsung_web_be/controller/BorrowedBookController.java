@@ -1,31 +1,54 @@
 package com.dona_samsung_web_project.samsung_web_be.controller;
 
+import com.dona_samsung_web_project.samsung_web_be.exporter.ExportFormat;
+import com.dona_samsung_web_project.samsung_web_be.exporter.ExportService;
+import com.dona_samsung_web_project.samsung_web_be.model.BorrowBatchResult;
 import com.dona_samsung_web_project.samsung_web_be.model.BorrowedBook;
+import com.dona_samsung_web_project.samsung_web_be.model.BorrowedBookSearch;
+import com.dona_samsung_web_project.samsung_web_be.model.projection.BorrowedBookListItem;
+import com.dona_samsung_web_project.samsung_web_be.model.response.CommonResponse;
+import com.dona_samsung_web_project.samsung_web_be.model.response.CursorResponse;
 import com.dona_samsung_web_project.samsung_web_be.model.response.PagingResponse;
+import com.dona_samsung_web_project.samsung_web_be.model.response.SliceResponse;
 import com.dona_samsung_web_project.samsung_web_be.model.response.SuccessResponse;
+import com.dona_samsung_web_project.samsung_web_be.pagination.KeysetCursor;
+import com.dona_samsung_web_project.samsung_web_be.pagination.SortableFields;
 import com.dona_samsung_web_project.samsung_web_be.service.BorrowedBookService;
 
 import jakarta.validation.Valid;
 
+import java.util.List;
+
 import org.modelmapper.ModelMapper;
 import org.modelmapper.convention.MatchingStrategies;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/borrowed-books")
 public class BorrowedBookController {
 
         private final BorrowedBookService borrowedBookService;
+        private final KeysetCursor keysetCursor;
+        private final ExportService exportService;
         private final ModelMapper modelMapper = new ModelMapper();
 
-        public BorrowedBookController(BorrowedBookService borrowedBookService) {
+        public BorrowedBookController(BorrowedBookService borrowedBookService, KeysetCursor keysetCursor,
+                        ExportService exportService) {
                 this.borrowedBookService = borrowedBookService;
+                this.keysetCursor = keysetCursor;
+                this.exportService = exportService;
         }
 
         // Create or update a borrowed book
@@ -48,34 +71,83 @@ public class BorrowedBookController {
                                                 returned, "Book returned successfully"));
         }
 
-        // Get all borrowed books with pagination
+        // Borrow many books at once (circulation desk scans), with a result per item
+        @PostMapping("/batch")
+        public ResponseEntity<SuccessResponse<List<BorrowBatchResult>>> borrowBatch(
+                        @RequestBody List<BorrowedBook> borrowedBooks) {
+                List<BorrowBatchResult> results = borrowedBookService.borrowBatch(borrowedBooks);
+                long borrowed = results.stream().filter(BorrowBatchResult::isSuccess).count();
+                return ResponseEntity.status(HttpStatus.OK)
+                                .body(new SuccessResponse<>(results,
+                                                "Success borrow " + borrowed + " of " + results.size() + " books"));
+        }
+
+        // Return many borrowed books at once by their ids, with a result per item
+        @PutMapping("/return/batch")
+        public ResponseEntity<SuccessResponse<List<BorrowBatchResult>>> returnBatch(
+                        @RequestBody List<Long> borrowedBookIds) {
+                List<BorrowBatchResult> results = borrowedBookService.returnBatch(borrowedBookIds);
+                long returned = results.stream().filter(BorrowBatchResult::isSuccess).count();
+                return ResponseEntity.status(HttpStatus.OK)
+                                .body(new SuccessResponse<>(results,
+                                                "Success return " + returned + " of " + results.size() + " books"));
+        }
+
+        // Get all borrowed books with pagination, or keyset pagination when a cursor is given (after= for the first page)
         @GetMapping
-        public ResponseEntity<PagingResponse<BorrowedBook>> getAllBorrowedBooks(
+        public ResponseEntity<? extends CommonResponse> getAllBorrowedBooks(
                         @RequestParam(defaultValue = "0") int page,
                         @RequestParam(defaultValue = "10") int size,
                         @RequestParam(defaultValue = "createdAt") String sortBy,
-                        @RequestParam(defaultValue = "asc") String sortDir) {
+                        @RequestParam(defaultValue = "asc") String sortDir,
+                        @RequestParam(required = false) String after,
+                        @RequestParam(required = false) Boolean withCount) {
+                if (after != null) {
+                        Sort sort = SortableFields.BORROWED_BOOKS.sort(sortBy, sortDir);
+                        Window<BorrowedBookListItem> borrowedBooks = borrowedBookService.scrollBorrowedBooks(
+                                        keysetCursor.decode(after, BorrowedBook.class), sort, size);
+                        Long count = Boolean.TRUE.equals(withCount) ? borrowedBookService.countBorrowedBooks() : null;
+                        return ResponseEntity.status(HttpStatus.OK)
+                                        .body(new CursorResponse<>(borrowedBooks.getContent(),
+                                                        keysetCursor.next(borrowedBooks), count,
+                                                        "Success get borrowedBook list"));
+                }
                 if (page != -1 && size != -1) {
                         Pageable pageable = PageRequest.of(
                                         page,
                                         size,
-                                        sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending()
-                                                        : Sort.by(sortBy).descending());
-                        Page<BorrowedBook> borrowedBooks = borrowedBookService.getAllBorrowedBooks(pageable);
+                                        SortableFields.BORROWED_BOOKS.sort(sortBy, sortDir));
+                        if (Boolean.FALSE.equals(withCount)) {
+                                Slice<BorrowedBookListItem> borrowedBooks = borrowedBookService.sliceBorrowedBooks(pageable);
+                                return ResponseEntity.status(HttpStatus.OK)
+                                                .body(new SliceResponse<>(
+                                                                borrowedBooks, "Success get borrowedBook list"));
+                        }
+                        Page<BorrowedBookListItem> borrowedBooks = borrowedBookService.getAllBorrowedBooks(pageable);
                         return ResponseEntity.status(HttpStatus.OK)
                                         .body(new PagingResponse<>(
                                                         borrowedBooks, "Success get borrowedBook list"));
                 } else {
                         Pageable unpaged = Pageable.unpaged(
-                                        sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending()
-                                                        : Sort.by(sortBy).descending());
-                        Page<BorrowedBook> borrowedBooks = borrowedBookService.getAllBorrowedBooks(unpaged);
+                                        SortableFields.BORROWED_BOOKS.sort(sortBy, sortDir));
+                        Page<BorrowedBookListItem> borrowedBooks = borrowedBookService.getAllBorrowedBooks(unpaged);
                         return ResponseEntity.status(HttpStatus.OK)
                                         .body(new PagingResponse<>(
                                                         borrowedBooks, "Success get all borrowedBook"));
                 }
         }
 
+        // Export every borrowed book as CSV or NDJSON
+        @GetMapping("/export")
+        public ResponseEntity<StreamingResponseBody> exportBorrowedBooks(@RequestParam(defaultValue = "ndjson") String format) {
+                ExportFormat exportFormat = ExportFormat.fromLabel(format);
+                return ResponseEntity.status(HttpStatus.OK)
+                                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                                                .filename("borrowed-books." + exportFormat.getLabel()).build().toString())
+                                .body(exportService.exportBorrowedBooks(exportFormat));
+        }
+
         // Get borrowed book by id
         @GetMapping("/{id}")
         public ResponseEntity<SuccessResponse<BorrowedBook>> getBorrowedBookById(@PathVariable Long id) {
@@ -105,54 +177,111 @@ public class BorrowedBookController {
                                                 null, "Success delete borrowed book with id " + id));
         }
 
-        // Get borrowed books by member id with pagination
+        // Get borrowed books by member id with pagination, or keyset pagination when a cursor is given
         @GetMapping("/member/{memberId}")
-        public ResponseEntity<PagingResponse<BorrowedBook>> getBorrowedBooksByMemberId(
+        public ResponseEntity<? extends CommonResponse> getBorrowedBooksByMemberId(
                         @PathVariable Long memberId,
                         @RequestParam(defaultValue = "0") int page,
-                        @RequestParam(defaultValue = "10") int size) {
+                        @RequestParam(defaultValue = "10") int size,
+                        @RequestParam(required = false) String after,
+                        @RequestParam(required = false) Boolean withCount) {
+                if (after != null) {
+                        Window<BorrowedBookListItem> borrowedBooks = borrowedBookService.scrollBorrowedBooksByMemberId(
+                                        memberId, keysetCursor.decode(after, BorrowedBook.class),
+                                        Sort.by("id").ascending(), size);
+                        Long count = Boolean.TRUE.equals(withCount)
+                                        ? borrowedBookService.countBorrowedBooksByMemberId(memberId)
+                                        : null;
+                        return ResponseEntity.status(HttpStatus.OK)
+                                        .body(new CursorResponse<>(borrowedBooks.getContent(),
+                                                        keysetCursor.next(borrowedBooks), count,
+                                                        "Success get borrowed book list for member " + memberId));
+                }
                 Pageable pageable = PageRequest.of(page, size);
-                Page<BorrowedBook> borrowedBooks = borrowedBookService.getBorrowedBooksByMemberId(memberId, pageable);
+                if (Boolean.FALSE.equals(withCount)) {
+                        Slice<BorrowedBookListItem> borrowedBooks = borrowedBookService.sliceBorrowedBooksByMemberId(memberId,
+                                        pageable);
+                        return ResponseEntity.status(HttpStatus.OK)
+                                        .body(new SliceResponse<>(
+                                                        borrowedBooks,
+                                                        "Success get borrowed book list for member " + memberId));
+                }
+                Page<BorrowedBookListItem> borrowedBooks = borrowedBookService.getBorrowedBooksByMemberId(memberId, pageable);
                 return ResponseEntity.status(HttpStatus.OK)
                                 .body(new PagingResponse<>(
                                                 borrowedBooks,
                                                 "Success get borrowed book list for member " + memberId));
         }
 
-        // Get borrowed books by book id with pagination
+        // Get borrowed books by book id with pagination, or keyset pagination when a cursor is given
         @GetMapping("/book/{bookId}")
-        public ResponseEntity<PagingResponse<BorrowedBook>> getBorrowedBooksByBookId(
+        public ResponseEntity<? extends CommonResponse> getBorrowedBooksByBookId(
                         @PathVariable Long bookId,
                         @RequestParam(defaultValue = "0") int page,
                         @RequestParam(defaultValue = "10") int size,
                         @RequestParam(defaultValue = "createdAt") String sortBy,
-                        @RequestParam(defaultValue = "asc") String sortDir) {
+                        @RequestParam(defaultValue = "asc") String sortDir,
+                        @RequestParam(required = false) String after,
+                        @RequestParam(required = false) Boolean withCount) {
+                if (after != null) {
+                        Sort sort = SortableFields.BORROWED_BOOKS.sort(sortBy, sortDir);
+                        Window<BorrowedBookListItem> borrowedBooks = borrowedBookService.scrollBorrowedBooksByBookId(
+                                        bookId, keysetCursor.decode(after, BorrowedBook.class), sort, size);
+                        Long count = Boolean.TRUE.equals(withCount)
+                                        ? borrowedBookService.countBorrowedBooksByBookId(bookId)
+                                        : null;
+                        return ResponseEntity.status(HttpStatus.OK)
+                                        .body(new CursorResponse<>(borrowedBooks.getContent(),
+                                                        keysetCursor.next(borrowedBooks), count,
+                                                        "Success get borrowed book list for book " + bookId));
+                }
                 Pageable pageable = PageRequest.of(page, size,
-                                sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending()
-                                                : Sort.by(sortBy).descending());
-                Page<BorrowedBook> borrowedBooks = borrowedBookService.getBorrowedBooksByBookId(bookId, pageable);
+                                SortableFields.BORROWED_BOOKS.sort(sortBy, sortDir));
+                if (Boolean.FALSE.equals(withCount)) {
+                        Slice<BorrowedBookListItem> borrowedBooks = borrowedBookService.sliceBorrowedBooksByBookId(bookId,
+                                        pageable);
+                        return ResponseEntity.status(HttpStatus.OK)
+                                        .body(new SliceResponse<>(
+                                                        borrowedBooks, "Success get borrowed book list for book " + bookId));
+                }
+                Page<BorrowedBookListItem> borrowedBooks = borrowedBookService.getBorrowedBooksByBookId(bookId, pageable);
                 return ResponseEntity.status(HttpStatus.OK)
                                 .body(new PagingResponse<>(
                                                 borrowedBooks, "Success get borrowed book list for book " + bookId));
         }
 
-        // Search borrowed books by title or member name
+        // Search borrowed books; only the given criteria are applied, combined with OR (match=any) or AND (match=all)
         @GetMapping("/search")
-        public ResponseEntity<PagingResponse<BorrowedBook>> searchBorrowedBooks(
+        public ResponseEntity<? extends CommonResponse> searchBorrowedBooks(
                         @RequestParam(required = false) String bookTitle,
                         @RequestParam(required = false) String memberName,
+                        @RequestParam(required = false) Long bookId,
+                        @RequestParam(required = false) Long memberId,
                         @RequestParam(required = false) String borrowDate, // format: yyyy-MM-dd
+                        @RequestParam(required = false) String borrowedFrom,
+                        @RequestParam(required = false) String borrowedTo,
+                        @RequestParam(required = false) Boolean returned,
+                        @RequestParam(defaultValue = "any") String match,
                         @RequestParam(defaultValue = "0") int page,
                         @RequestParam(defaultValue = "10") int size,
                         @RequestParam(defaultValue = "createdAt") String sortBy,
-                        @RequestParam(defaultValue = "asc") String sortDir) {
+                        @RequestParam(defaultValue = "asc") String sortDir,
+                        @RequestParam(required = false) Boolean withCount) {
 
+                BorrowedBookSearch search = BorrowedBookSearch.of(bookTitle, memberName, bookId, memberId,
+                                borrowDate, borrowedFrom, borrowedTo, returned, match);
                 Pageable pageable = PageRequest.of(page, size,
-                                sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending()
-                                                : Sort.by(sortBy).descending());
+                                SortableFields.BORROWED_BOOKS.sort(sortBy, sortDir));
+
+                if (Boolean.FALSE.equals(withCount)) {
+                        Slice<BorrowedBookListItem> borrowedBooks = borrowedBookService.sliceSearchBorrowedBooks(
+                                        search, pageable);
+                        return ResponseEntity.status(HttpStatus.OK)
+                                        .body(new SliceResponse<>(
+                                                        borrowedBooks, "Success search borrowed books"));
+                }
 
-                Page<BorrowedBook> borrowedBooks = borrowedBookService.searchBorrowedBooks(
-                                bookTitle, memberName, borrowDate, pageable);
+                Page<BorrowedBookListItem> borrowedBooks = borrowedBookService.searchBorrowedBooks(search, pageable);
 
                 return ResponseEntity.status(HttpStatus.OK)
                                 .body(new PagingResponse<>(
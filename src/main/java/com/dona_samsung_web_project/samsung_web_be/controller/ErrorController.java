@@ -1,26 +1,34 @@
 package com.dona_samsung_web_project.samsung_web_be.controller;
 
 import com.dona_samsung_web_project.samsung_web_be.exception.*;
+import com.dona_samsung_web_project.samsung_web_be.model.Member;
 import com.dona_samsung_web_project.samsung_web_be.model.response.ErrorResponse;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 @RestControllerAdvice
 public class ErrorController {
 
+    private static final Map<String, String> UNIQUE_CONSTRAINTS = Map.of(
+            Member.EMAIL_CONSTRAINT, "Email already exists");
+
     @ExceptionHandler(RestTemplateException.class)
     ResponseEntity<ErrorResponse> restTemplateException(RestTemplateException exception, HttpServletRequest request) {
         return ResponseEntity
@@ -42,6 +50,28 @@ public class ErrorController {
                 .body(new ErrorResponse("X03", exception.getMessage()));
     }
 
+    // Named unique constraints are the duplicate check, so their violations read like EntityExistException.
+    // Any other violation (foreign key, NOT NULL, CHECK) is a request the data cannot take.
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(DataIntegrityViolationException exception, HttpServletRequest request) {
+        String constraint = exception.getMostSpecificCause().getMessage();
+        if (exception.getCause() instanceof org.hibernate.exception.ConstraintViolationException violation
+                && violation.getConstraintName() != null) {
+            constraint = violation.getConstraintName();
+        }
+        if (constraint != null) {
+            String name = constraint.toLowerCase(Locale.ROOT);
+            for (Map.Entry<String, String> unique : UNIQUE_CONSTRAINTS.entrySet()) {
+                if (name.contains(unique.getKey())) {
+                    return handleEntityExistViolationException(new EntityExistException(unique.getValue()), request);
+                }
+            }
+        }
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse("X04", "Data integrity violation"));
+    }
+
     @ExceptionHandler(ConstraintViolationException.class)
     ResponseEntity<ErrorResponse> handleConstraintViolationException(ConstraintViolationException exception, HttpServletRequest request) {
         Set<ConstraintViolation<?>> violation = exception.getConstraintViolations();
@@ -68,6 +98,27 @@ public class ErrorController {
                 .body(new ErrorResponse("X04", errors.toString()));
     }
 
+    // Constraints on request parameters, such as @Min on a limit, and on the elements of a request body list
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ErrorResponse> handleHandlerMethodValidation(
+            HandlerMethodValidationException exception, HttpServletRequest request
+    ) {
+        List<String> errors = new ArrayList<>();
+        exception.getParameterValidationResults().forEach(result -> result.getResolvableErrors().forEach(error -> {
+            String name = result.getMethodParameter().getParameterName();
+            if (result.getContainerIndex() != null) {
+                name += "[" + result.getContainerIndex() + "]";
+            }
+            if (error instanceof FieldError fieldError) {
+                name += "." + fieldError.getField();
+            }
+            errors.add(name + " " + error.getDefaultMessage());
+        }));
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse("X02", errors.toString()));
+    }
+
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<ErrorResponse> handleDataNotFoundException(
             NotFoundException exception, HttpServletRequest request
@@ -0,0 +1,118 @@
+package com.dona_samsung_web_project.samsung_web_be.controller;
+
+import com.dona_samsung_web_project.samsung_web_be.exception.NotFoundException;
+import com.dona_samsung_web_project.samsung_web_be.storage.LocalStorageService;
+import com.dona_samsung_web_project.samsung_web_be.storage.LocalStorageService.StoredFile;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+// Photos of the local storage (storage.type=local). The file goes to the socket through Tomcat's sendfile
+// (FileChannel.transferTo on the socket channel) when the connector supports it, otherwise through
+// FileChannel.transferTo on the response stream.
+@RestController
+@RequestMapping("/files")
+@ConditionalOnProperty(name = "storage.type", havingValue = "local")
+public class FileController {
+
+    // Request attributes of Tomcat's sendfile support (org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final LocalStorageService localStorageService;
+    private final String cacheControl;
+
+    public FileController(LocalStorageService localStorageService,
+            @Value("${storage.local.cache-max-age}") Duration cacheMaxAge) {
+        this.localStorageService = localStorageService;
+        // Stored files never change, a new photo gets a new id
+        this.cacheControl = CacheControl.maxAge(cacheMaxAge).cachePublic().immutable().getHeaderValue();
+    }
+
+    // Get a stored file, or a single byte range of it
+    @GetMapping("/{id}")
+    public void getFile(@PathVariable String id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        StoredFile file = localStorageService.find(id)
+                .orElseThrow(() -> new NotFoundException("File " + id + " not found"));
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        // Served from our origin: never sniffed into another type, and nothing in it may run or load
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader("Content-Security-Policy", "default-src 'none'");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Sets the ETag and answers If-None-Match with 304
+        if (new ServletWebRequest(request, response).checkNotModified(file.etag())) {
+            return;
+        }
+        response.setContentType(file.mediaType().toString());
+
+        long start = 0;
+        long end = file.size();
+        HttpRange range = requestedRange(request, file);
+        if (range != null) {
+            start = range.getRangeStart(file.size());
+            end = range.getRangeEnd(file.size()) + 1;
+            if (start >= end) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + file.size());
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + start + "-" + (end - 1) + "/" + file.size());
+        }
+        response.setContentLengthLong(end - start);
+        if (HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+
+        // Tomcat writes the file itself once this method returns
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.path().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            for (long position = start; position < end; ) {
+                position += channel.transferTo(position, end - position, out);
+            }
+        }
+    }
+
+    // The one range asked for, null for the whole file: no or malformed Range, an If-Range for another
+    // version, or several ranges (answered with the whole file rather than multipart/byteranges)
+    private static HttpRange requestedRange(HttpServletRequest request, StoredFile file) {
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range == null || (ifRange != null && !ifRange.equals(file.etag()))) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(range);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
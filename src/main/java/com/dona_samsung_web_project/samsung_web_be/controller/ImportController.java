@@ -0,0 +1,52 @@
+package com.dona_samsung_web_project.samsung_web_be.controller;
+
+import com.dona_samsung_web_project.samsung_web_be.importer.ImportFormat;
+import com.dona_samsung_web_project.samsung_web_be.importer.ImportJob;
+import com.dona_samsung_web_project.samsung_web_be.importer.ImportService;
+import com.dona_samsung_web_project.samsung_web_be.importer.ImportType;
+import com.dona_samsung_web_project.samsung_web_be.model.response.SuccessResponse;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/imports")
+public class ImportController {
+
+    private final ImportService importService;
+
+    public ImportController(ImportService importService) {
+        this.importService = importService;
+    }
+
+    // Start an import of authors, books or members; the request body is the raw CSV (with header) or NDJSON file
+    @PostMapping("/{type}")
+    public ResponseEntity<SuccessResponse<ImportJob>> startImport(
+            @PathVariable String type,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletRequest request) throws IOException {
+        ImportJob job = importService.submit(ImportType.fromLabel(type), ImportFormat.fromLabel(format),
+                request.getInputStream());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(new SuccessResponse<>(job, "Import started"));
+    }
+
+    // Progress and row errors of an import
+    @GetMapping("/{id}")
+    public ResponseEntity<SuccessResponse<ImportJob>> getImport(@PathVariable String id) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(new SuccessResponse<>(importService.getJob(id), "Success get import"));
+    }
+
+    @GetMapping
+    public ResponseEntity<SuccessResponse<List<ImportJob>>> getImports() {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(new SuccessResponse<>(importService.getJobs(), "Success get import list"));
+    }
+}
@@ -1,32 +1,57 @@
 package com.dona_samsung_web_project.samsung_web_be.controller;
 
+import com.dona_samsung_web_project.samsung_web_be.exporter.ExportFormat;
+import com.dona_samsung_web_project.samsung_web_be.exporter.ExportService;
+import com.dona_samsung_web_project.samsung_web_be.index.TrendingWindow;
 import com.dona_samsung_web_project.samsung_web_be.model.Member;
+import com.dona_samsung_web_project.samsung_web_be.model.TrendingItem;
+import com.dona_samsung_web_project.samsung_web_be.model.response.CommonResponse;
+import com.dona_samsung_web_project.samsung_web_be.model.response.CursorResponse;
 import com.dona_samsung_web_project.samsung_web_be.model.response.PagingResponse;
+import com.dona_samsung_web_project.samsung_web_be.model.response.SliceResponse;
 import com.dona_samsung_web_project.samsung_web_be.model.response.SuccessResponse;
+import com.dona_samsung_web_project.samsung_web_be.pagination.KeysetCursor;
+import com.dona_samsung_web_project.samsung_web_be.pagination.SortableFields;
 import com.dona_samsung_web_project.samsung_web_be.service.MemberService;
 
 import org.modelmapper.ModelMapper;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
 
 import org.modelmapper.convention.MatchingStrategies;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/members")
 public class MemberController {
 
+    private static final int MAX_BULK_SIZE = 1000;
+
     private final MemberService memberService;
+    private final KeysetCursor keysetCursor;
+    private final ExportService exportService;
     private final ModelMapper modelMapper = new ModelMapper();
 
-    public MemberController(MemberService memberService) {
+    public MemberController(MemberService memberService, KeysetCursor keysetCursor,
+            ExportService exportService) {
         this.memberService = memberService;
+        this.keysetCursor = keysetCursor;
+        this.exportService = exportService;
     }
 
     // Create or update an member
@@ -41,26 +66,52 @@ public class MemberController {
                         savedMember, "Success create member"));
     }
 
-    // Get all members with pagination
+    // Insert or update many members at once, matched by email. Every member is validated, like a single one.
+    @PostMapping("/bulk")
+    public ResponseEntity<SuccessResponse<Integer>> upsertMembers(
+            @RequestBody @Size(max = MAX_BULK_SIZE) List<@Valid Member> members) {
+        int upserted = memberService.upsertMembers(members);
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(new SuccessResponse<>(upserted, "Success upsert " + upserted + " members"));
+    }
+
+    // Get all members with pagination, or keyset pagination when a cursor is given (after= for the first page)
     @GetMapping
-    public ResponseEntity<PagingResponse<Member>> getAllMembers(
+    public ResponseEntity<? extends CommonResponse> getAllMembers(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Boolean withCount) {
+
+        if (after != null) {
+            Sort sort = SortableFields.MEMBERS.sort(sortBy, sortDir);
+            Window<Member> members = memberService.scrollMembers(keysetCursor.decode(after, Member.class), sort, size);
+            Long count = Boolean.TRUE.equals(withCount) ? memberService.countMembers() : null;
+            return ResponseEntity.status(HttpStatus.OK)
+                    .body(new CursorResponse<>(
+                            members.getContent(), keysetCursor.next(members), count, "Success get member list"));
+        }
 
         if (page != -1 && size != -1) {
             Pageable pageable = PageRequest.of(
                     page,
                     size,
-                    sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending());
+                    SortableFields.MEMBERS.sort(sortBy, sortDir));
+            if (Boolean.FALSE.equals(withCount)) {
+                Slice<Member> members = memberService.sliceMembers(pageable);
+                return ResponseEntity.status(HttpStatus.OK)
+                        .body(new SliceResponse<>(
+                                members, "Success get member list"));
+            }
             Page<Member> members = memberService.getAllMembers(pageable);
             return ResponseEntity.status(HttpStatus.OK)
                     .body(new PagingResponse<>(
                             members, "Success get member list"));
         } else {
             Pageable unpaged = Pageable.unpaged(
-                    sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending());
+                    SortableFields.MEMBERS.sort(sortBy, sortDir));
             Page<Member> members = memberService.getAllMembers(unpaged);
             return ResponseEntity.status(HttpStatus.OK)
                     .body(new PagingResponse<>(
@@ -68,6 +119,17 @@ public class MemberController {
         }
     }
 
+    // Export every member as CSV or NDJSON
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportMembers(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromLabel(format);
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("members." + exportFormat.getLabel()).build().toString())
+                .body(exportService.exportMembers(exportFormat));
+    }
+
     // Get member by id
     @GetMapping("/{id}")
     public ResponseEntity<SuccessResponse<Member>> getMemberById(@PathVariable Long id) {
@@ -99,14 +161,21 @@ public class MemberController {
 
     // Search members by name with pagination
     @GetMapping("/search")
-    public ResponseEntity<PagingResponse<Member>> searchMembersByName(
+    public ResponseEntity<? extends CommonResponse> searchMembersByName(
             @RequestParam String name,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) Boolean withCount) {
         Pageable pageable = PageRequest.of(page, size,
-                sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending());
+                SortableFields.MEMBERS.sort(sortBy, sortDir));
+        if (Boolean.FALSE.equals(withCount)) {
+            Slice<Member> members = memberService.sliceMembersByName(name, pageable);
+            return ResponseEntity.status(HttpStatus.OK)
+                    .body(new SliceResponse<>(
+                            members, "Success get member list"));
+        }
         Page<Member> members = memberService.searchMembersByName(name, pageable);
         return ResponseEntity.status(HttpStatus.OK)
                 .body(new PagingResponse<>(
@@ -121,4 +190,14 @@ public class MemberController {
         return ResponseEntity.status(HttpStatus.OK)
                 .body(new PagingResponse<>(members, "Success get top members by borrowed books"));
     }
+
+    // Get the members who borrowed the most in the last 24h, 7d or 30d
+    @GetMapping("/trending")
+    public ResponseEntity<SuccessResponse<List<TrendingItem<Member>>>> getTrendingMembers(
+            @RequestParam(defaultValue = "24h") String window,
+            @RequestParam(defaultValue = "5") int topN) {
+        List<TrendingItem<Member>> members = memberService.getTrendingMembers(TrendingWindow.fromLabel(window), topN);
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(new SuccessResponse<>(members, "Success get trending members for " + window));
+    }
 }
@@ -0,0 +1,35 @@
+package com.dona_samsung_web_project.samsung_web_be.controller;
+
+import com.dona_samsung_web_project.samsung_web_be.model.SearchResult;
+import com.dona_samsung_web_project.samsung_web_be.model.response.SuccessResponse;
+import com.dona_samsung_web_project.samsung_web_be.service.SearchService;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/search")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    // Search books, authors and members in one request, best matches first
+    @GetMapping
+    public ResponseEntity<SuccessResponse<List<SearchResult>>> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int limit) {
+        List<SearchResult> results = searchService.search(q, limit);
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(new SuccessResponse<>(results, "Success search"));
+    }
+}
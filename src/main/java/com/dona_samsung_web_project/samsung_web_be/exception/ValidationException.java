@@ -14,7 +14,16 @@ public class ValidationException extends RuntimeException {
         this.errors = errors;
     }
 
+    // A request value rejected outside of bean validation
+    public ValidationException(String message) {
+        super(message);
+        this.errors = null;
+    }
+
     public String getMessage() {
+        if (errors == null) {
+            return super.getMessage();
+        }
         List<String> messages = new ArrayList<>();
         for (ObjectError error : errors.getAllErrors()) {
             if (error instanceof FieldError) {
@@ -0,0 +1,33 @@
+package com.dona_samsung_web_project.samsung_web_be.exporter;
+
+import com.dona_samsung_web_project.samsung_web_be.exception.ValidationException;
+
+public enum ExportFormat {
+    CSV("csv", "text/csv"),
+    NDJSON("ndjson", "application/x-ndjson");
+
+    private final String label;
+    private final String mediaType;
+
+    ExportFormat(String label, String mediaType) {
+        this.label = label;
+        this.mediaType = mediaType;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public static ExportFormat fromLabel(String label) {
+        for (ExportFormat format : values()) {
+            if (format.label.equalsIgnoreCase(label)) {
+                return format;
+            }
+        }
+        throw new ValidationException("Export format must be csv or ndjson");
+    }
+}
@@ -0,0 +1,41 @@
+package com.dona_samsung_web_project.samsung_web_be.exporter;
+
+import com.dona_samsung_web_project.samsung_web_be.repository.ExportRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+// Whole-table exports streamed from a database cursor straight into the response
+@Service
+public class ExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    private final ExportRepository exportRepository;
+
+    public ExportService(ExportRepository exportRepository) {
+        this.exportRepository = exportRepository;
+    }
+
+    public StreamingResponseBody exportAuthors(ExportFormat format) {
+        return out -> log.info("Exported {} authors as {}",
+                exportRepository.streamAuthors(new ResultSetStreamWriter(out, format)), format.getLabel());
+    }
+
+    public StreamingResponseBody exportBooks(ExportFormat format) {
+        return out -> log.info("Exported {} books as {}",
+                exportRepository.streamBooks(new ResultSetStreamWriter(out, format)), format.getLabel());
+    }
+
+    public StreamingResponseBody exportMembers(ExportFormat format) {
+        return out -> log.info("Exported {} members as {}",
+                exportRepository.streamMembers(new ResultSetStreamWriter(out, format)), format.getLabel());
+    }
+
+    public StreamingResponseBody exportBorrowedBooks(ExportFormat format) {
+        return out -> log.info("Exported {} borrowed books as {}",
+                exportRepository.streamBorrowedBooks(new ResultSetStreamWriter(out, format)), format.getLabel());
+    }
+}
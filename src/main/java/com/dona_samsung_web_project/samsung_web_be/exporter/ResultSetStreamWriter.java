@@ -0,0 +1,97 @@
+package com.dona_samsung_web_project.samsung_web_be.exporter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+// Writes each row to the output as soon as it is read, nothing but the current row is held in memory
+class ResultSetStreamWriter implements ResultSetExtractor<Long> {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final CsvMapper CSV = new CsvMapper();
+
+    private final OutputStream out;
+    private final ExportFormat format;
+
+    ResultSetStreamWriter(OutputStream out, ExportFormat format) {
+        this.out = out;
+        this.format = format;
+    }
+
+    @Override
+    public Long extractData(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        String[] columns = new String[metaData.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = metaData.getColumnLabel(i + 1);
+        }
+
+        long rows = 0;
+        try (JsonGenerator generator = createGenerator(columns)) {
+            while (rs.next()) {
+                generator.writeStartObject();
+                for (int i = 0; i < columns.length; i++) {
+                    generator.writeFieldName(columns[i]);
+                    writeValue(generator, rs.getObject(i + 1));
+                }
+                generator.writeEndObject();
+                if (format == ExportFormat.NDJSON) {
+                    generator.writeRaw('\n');
+                }
+                rows++;
+            }
+        } catch (IOException e) {
+            // Usually the client went away, the transaction is rolled back and the cursor closed
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+
+    private JsonGenerator createGenerator(String[] columns) throws IOException {
+        if (format == ExportFormat.CSV) {
+            CsvSchema.Builder schema = CsvSchema.builder().setUseHeader(true);
+            for (String column : columns) {
+                schema.addColumn(column);
+            }
+            JsonGenerator generator = CSV.getFactory().createGenerator(out);
+            generator.setSchema(schema.build());
+            return generator;
+        }
+        JsonGenerator generator = JSON.createGenerator(out);
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+
+    // Same representation as the JSON API: ISO dates and timestamps, enums as their name
+    private static void writeValue(JsonGenerator generator, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short) {
+            generator.writeNumber(((Number) value).longValue());
+        } else if (value instanceof BigDecimal decimal) {
+            generator.writeNumber(decimal);
+        } else if (value instanceof Number number) {
+            generator.writeNumber(number.doubleValue());
+        } else if (value instanceof Boolean bool) {
+            generator.writeBoolean(bool);
+        } else if (value instanceof Timestamp timestamp) {
+            generator.writeString(timestamp.toLocalDateTime().toString());
+        } else if (value instanceof java.sql.Date date) {
+            generator.writeString(date.toLocalDate().toString());
+        } else {
+            generator.writeString(value.toString());
+        }
+    }
+}
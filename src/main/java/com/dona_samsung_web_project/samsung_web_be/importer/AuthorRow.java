@@ -0,0 +1,7 @@
+package com.dona_samsung_web_project.samsung_web_be.importer;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record AuthorRow(String name, String description) {
+}
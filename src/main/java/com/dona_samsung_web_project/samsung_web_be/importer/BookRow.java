@@ -0,0 +1,14 @@
+package com.dona_samsung_web_project.samsung_web_be.importer;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+// The author is referenced by name and resolved against the existing authors
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record BookRow(
+        String title,
+        String description,
+        String category,
+        @JsonAlias("publishing_year") Integer publishingYear,
+        @JsonAlias({ "authorName", "author_name" }) String author) {
+}
@@ -0,0 +1,66 @@
+package com.dona_samsung_web_project.samsung_web_be.importer;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.stereotype.Component;
+
+// Command line mode: --import.type=books --import.file=books.csv [--import.format=csv] imports the file and exits.
+// The application then starts without the web server and main exits with the code reported here.
+@Component
+public class ImportCommandLineRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportCommandLineRunner.class);
+
+    private final ImportService importService;
+    private volatile int exitCode;
+
+    public ImportCommandLineRunner(ImportService importService) {
+        this.importService = importService;
+    }
+
+    public static boolean isImport(String... args) {
+        return new DefaultApplicationArguments(args).containsOption("import.file");
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption("import.file")) {
+            return;
+        }
+        Path file = Path.of(single(args, "import.file"));
+        if (!Files.isReadable(file)) {
+            throw new IllegalArgumentException("Import file " + file + " is not readable");
+        }
+        ImportType type = ImportType.fromLabel(single(args, "import.type"));
+        ImportFormat format = args.containsOption("import.format")
+                ? ImportFormat.fromLabel(single(args, "import.format"))
+                : ImportFormat.fromFileName(file.getFileName().toString());
+
+        ImportJob job = importService.run(type, format, file);
+        for (ImportJob.RowError error : job.getErrors()) {
+            log.warn("Line {}: {}", error.row(), error.message());
+        }
+        log.info("Imported {} of {} {} rows from {}, {} failed", job.getImported(), job.getProcessed(),
+                type.getLabel(), file, job.getFailed());
+        exitCode = job.getStatus() == ImportJob.Status.COMPLETED ? 0 : 1;
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    private static String single(ApplicationArguments args, String name) {
+        if (args.getOptionValues(name) == null || args.getOptionValues(name).size() != 1) {
+            throw new IllegalArgumentException("Pass exactly one --" + name + "=...");
+        }
+        return args.getOptionValues(name).get(0);
+    }
+}
@@ -0,0 +1,41 @@
+package com.dona_samsung_web_project.samsung_web_be.importer;
+
+import com.dona_samsung_web_project.samsung_web_be.exception.ValidationException;
+
+import java.util.Locale;
+
+public enum ImportFormat {
+    CSV("csv"),
+    NDJSON("ndjson");
+
+    private final String label;
+
+    ImportFormat(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public static ImportFormat fromLabel(String label) {
+        for (ImportFormat format : values()) {
+            if (format.label.equalsIgnoreCase(label)) {
+                return format;
+            }
+        }
+        throw new ValidationException("Import format must be csv or ndjson");
+    }
+
+    // .jsonl files are newline-delimited JSON as well
+    public static ImportFormat fromFileName(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        throw new ValidationException("Cannot infer the import format of " + fileName + ", pass csv or ndjson");
+    }
+}
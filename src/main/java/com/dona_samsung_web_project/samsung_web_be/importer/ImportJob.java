@@ -0,0 +1,129 @@
+package com.dona_samsung_web_project.samsung_web_be.importer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Progress of one import, updated by the import thread and read by GET /imports/{id}
+public class ImportJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    public record RowError(long row, String message) {
+    }
+
+    // Only the first errors are kept, the failed counter still covers every rejected row
+    static final int MAX_ERRORS = 1000;
+
+    private final String id;
+    private final ImportType type;
+    private final ImportFormat format;
+    private final long sizeBytes;
+    private final AtomicLong readBytes = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<RowError> errors = new ArrayList<>();
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private volatile Status status = Status.QUEUED;
+    private volatile String message;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    ImportJob(String id, ImportType type, ImportFormat format, long sizeBytes) {
+        this.id = id;
+        this.type = type;
+        this.format = format;
+        this.sizeBytes = sizeBytes;
+    }
+
+    void start() {
+        startedAt = LocalDateTime.now();
+        status = Status.RUNNING;
+    }
+
+    void complete() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    void fail(String message) {
+        this.message = message;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    void bytesRead(long bytes) {
+        readBytes.addAndGet(bytes);
+    }
+
+    void rowRead() {
+        processed.incrementAndGet();
+    }
+
+    void rowsImported(long rows) {
+        imported.addAndGet(rows);
+    }
+
+    void rowFailed(long row, String message) {
+        failed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(new RowError(row, message));
+            }
+        }
+    }
+
+    boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    // Getters
+    public String getId() {
+        return id;
+    }
+    public ImportType getType() {
+        return type;
+    }
+    public ImportFormat getFormat() {
+        return format;
+    }
+    public Status getStatus() {
+        return status;
+    }
+    public String getMessage() {
+        return message;
+    }
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+    public long getReadBytes() {
+        return Math.min(readBytes.get(), sizeBytes);
+    }
+    public long getProcessed() {
+        return processed.get();
+    }
+    public long getImported() {
+        return imported.get();
+    }
+    public long getFailed() {
+        return failed.get();
+    }
+    public List<RowError> getErrors() {
+        synchronized (errors) {
+            return new ArrayList<>(errors);
+        }
+    }
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+}
@@ -0,0 +1,346 @@
+package com.dona_samsung_web_project.samsung_web_be.importer;
+
+import com.dona_samsung_web_project.samsung_web_be.exception.NotFoundException;
+import com.dona_samsung_web_project.samsung_web_be.model.Author;
+import com.dona_samsung_web_project.samsung_web_be.model.Book;
+import com.dona_samsung_web_project.samsung_web_be.model.Member;
+import com.dona_samsung_web_project.samsung_web_be.repository.AuthorRepository;
+import com.dona_samsung_web_project.samsung_web_be.service.AuthorService;
+import com.dona_samsung_web_project.samsung_web_be.service.BookService;
+import com.dona_samsung_web_project.samsung_web_be.service.MemberService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import jakarta.annotation.PreDestroy;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+// Streams CSV/NDJSON files into the catalog in chunks, one background job per file
+@Service
+public class ImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportService.class);
+
+    // Finished jobs kept for GET /imports once more than this many are registered
+    private static final int MAX_FINISHED_JOBS = 100;
+
+    private final AuthorService authorService;
+    private final BookService bookService;
+    private final MemberService memberService;
+    private final AuthorRepository authorRepository;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper = CsvMapper.builder()
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .build();
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    private final int chunkSize;
+
+    public ImportService(AuthorService authorService, BookService bookService, MemberService memberService,
+            AuthorRepository authorRepository, ObjectMapper objectMapper,
+            @Value("${import.chunk-size}") int chunkSize,
+            @Value("${import.concurrency}") int concurrency) {
+        this.authorService = authorService;
+        this.bookService = bookService;
+        this.memberService = memberService;
+        this.authorRepository = authorRepository;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.executor = Executors.newFixedThreadPool(concurrency, Thread.ofPlatform().name("import-", 1).factory());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Spool the upload to a temporary file so the request returns before the rows are written
+    public ImportJob submit(ImportType type, ImportFormat format, InputStream body) throws IOException {
+        Path file = Files.createTempFile("import-", "." + format.getLabel());
+        try {
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        ImportJob job = register(type, format, Files.size(file));
+        executor.execute(() -> {
+            try {
+                execute(job, file);
+            } finally {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("Could not delete import file {}", file, e);
+                }
+            }
+        });
+        return job;
+    }
+
+    // Import a local file on the calling thread (command line mode)
+    public ImportJob run(ImportType type, ImportFormat format, Path file) throws IOException {
+        ImportJob job = register(type, format, Files.size(file));
+        execute(job, file);
+        return job;
+    }
+
+    public ImportJob getJob(String id) {
+        ImportJob job = jobs.get(id);
+        if (job == null) {
+            throw new NotFoundException("Import with id " + id + " not found");
+        }
+        return job;
+    }
+
+    public List<ImportJob> getJobs() {
+        List<ImportJob> all = new ArrayList<>(jobs.values());
+        all.sort(Comparator.comparing(ImportJob::getCreatedAt).reversed());
+        return all;
+    }
+
+    private ImportJob register(ImportType type, ImportFormat format, long sizeBytes) {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), type, format, sizeBytes);
+        jobs.put(job.getId(), job);
+        List<ImportJob> finished = new ArrayList<>(jobs.values().stream().filter(ImportJob::isFinished).toList());
+        if (finished.size() > MAX_FINISHED_JOBS) {
+            finished.sort(Comparator.comparing(ImportJob::getFinishedAt));
+            finished.subList(0, finished.size() - MAX_FINISHED_JOBS).forEach(old -> jobs.remove(old.getId()));
+        }
+        return job;
+    }
+
+    private void execute(ImportJob job, Path file) {
+        job.start();
+        log.info("Import {} of {} started ({} bytes)", job.getId(), job.getType().getLabel(), job.getSizeBytes());
+        try {
+            switch (job.getType()) {
+                case AUTHORS -> importAuthors(job, file);
+                case BOOKS -> importBooks(job, file);
+                case MEMBERS -> importMembers(job, file);
+            }
+            job.complete();
+            log.info("Import {} completed: {} imported, {} failed", job.getId(), job.getImported(), job.getFailed());
+        } catch (Exception e) {
+            job.fail(e.getMessage());
+            log.error("Import {} failed after {} rows", job.getId(), job.getProcessed(), e);
+        }
+    }
+
+    private void importAuthors(ImportJob job, Path file) throws IOException {
+        ChunkWriter<Author> writer = new ChunkWriter<>(job, authorService::saveAuthors, author -> {
+            author.setId(null);
+            return authorService.saveAuthors(List.of(author));
+        });
+        read(job, file, AuthorRow.class, (row, line) -> {
+            if (isBlank(row.name())) {
+                job.rowFailed(line, "Name is required");
+                return;
+            }
+            writer.add(line, new Author(row.name().trim(), row.description()));
+        });
+        writer.flush();
+    }
+
+    private void importBooks(ImportJob job, Path file) throws IOException {
+        // Name -> author, the oldest author wins when a name is shared
+        Map<String, Author> authors = new HashMap<>();
+        for (Author author : authorRepository.findAll(Sort.by("id"))) {
+            if (author.getName() != null) {
+                authors.putIfAbsent(authorKey(author.getName()), author);
+            }
+        }
+
+        ChunkWriter<Book> writer = new ChunkWriter<>(job, bookService::saveBooks, book -> {
+            book.setId(null);
+            return bookService.saveBooks(List.of(book));
+        });
+        read(job, file, BookRow.class, (row, line) -> {
+            if (isBlank(row.title()) || isBlank(row.category())) {
+                job.rowFailed(line, "Title and category are required");
+                return;
+            }
+            if (isBlank(row.author())) {
+                job.rowFailed(line, "Author is required");
+                return;
+            }
+            Author author = authors.get(authorKey(row.author()));
+            if (author == null) {
+                job.rowFailed(line, "Author '" + row.author().trim() + "' not found");
+                return;
+            }
+            writer.add(line, new Book(row.title().trim(), row.description(), row.category().trim(),
+                    row.publishingYear(), null, author));
+        });
+        writer.flush();
+    }
+
+    private void importMembers(ImportJob job, Path file) throws IOException {
+        ChunkWriter<Member> writer = new ChunkWriter<>(job, members -> {
+            memberService.upsertMembers(members);
+            return members;
+        }, member -> {
+            memberService.upsertMembers(List.of(member));
+            return List.of(member);
+        });
+        read(job, file, MemberRow.class, (row, line) -> {
+            if (isBlank(row.name()) || isBlank(row.email())) {
+                job.rowFailed(line, "Name and email are required");
+                return;
+            }
+            Member member = new Member();
+            member.setName(row.name().trim());
+            member.setEmail(row.email().trim());
+            member.setPhone(row.phone());
+            writer.add(line, member);
+        });
+        writer.flush();
+    }
+
+    // Hand every parsed row to the consumer with its line number, malformed rows are reported and skipped
+    private <T> void read(ImportJob job, Path file, Class<T> rowType, RowConsumer<T> consumer) throws IOException {
+        try (InputStream in = new CountingInputStream(Files.newInputStream(file), job::bytesRead)) {
+            if (job.getFormat() == ImportFormat.CSV) {
+                readCsv(job, in, rowType, consumer);
+            } else {
+                readNdjson(job, in, rowType, consumer);
+            }
+        }
+    }
+
+    private <T> void readCsv(ImportJob job, InputStream in, Class<T> rowType, RowConsumer<T> consumer)
+            throws IOException {
+        CsvSchema schema = CsvSchema.emptySchema().withHeader();
+        try (MappingIterator<T> rows = csvMapper.readerFor(rowType).with(schema).readValues(in)) {
+            while (true) {
+                T row;
+                long line;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    line = rows.getParser().currentLocation().getLineNr();
+                    row = rows.nextValue();
+                } catch (JsonProcessingException e) {
+                    job.rowRead();
+                    job.rowFailed(csvLine(e), e.getOriginalMessage());
+                    continue;
+                }
+                job.rowRead();
+                consumer.accept(row, line);
+            }
+        }
+    }
+
+    private <T> void readNdjson(ImportJob job, InputStream in, Class<T> rowType, RowConsumer<T> consumer)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        long line = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            job.rowRead();
+            T row;
+            try {
+                row = objectMapper.readValue(text, rowType);
+            } catch (JsonProcessingException e) {
+                job.rowFailed(line, e.getOriginalMessage());
+                continue;
+            }
+            consumer.accept(row, line);
+        }
+    }
+
+    private static long csvLine(JsonProcessingException e) {
+        return e.getLocation() == null ? 0 : e.getLocation().getLineNr();
+    }
+
+    private static String authorKey(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    @FunctionalInterface
+    private interface RowConsumer<T> {
+        void accept(T row, long line);
+    }
+
+    // Buffers rows and writes them a chunk at a time; a failing chunk is retried row by row to find the bad rows
+    private class ChunkWriter<T> {
+
+        private final ImportJob job;
+        private final Function<List<T>, List<T>> saveChunk;
+        private final Function<T, List<T>> saveOne;
+        private final List<T> rows = new ArrayList<>();
+        private final List<Long> lines = new ArrayList<>();
+
+        ChunkWriter(ImportJob job, Function<List<T>, List<T>> saveChunk, Function<T, List<T>> saveOne) {
+            this.job = job;
+            this.saveChunk = saveChunk;
+            this.saveOne = saveOne;
+        }
+
+        void add(long line, T row) {
+            rows.add(row);
+            lines.add(line);
+            if (rows.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (rows.isEmpty()) {
+                return;
+            }
+            try {
+                job.rowsImported(saveChunk.apply(new ArrayList<>(rows)).size());
+            } catch (DataAccessException e) {
+                for (int i = 0; i < rows.size(); i++) {
+                    try {
+                        job.rowsImported(saveOne.apply(rows.get(i)).size());
+                    } catch (DataAccessException rowError) {
+                        job.rowFailed(lines.get(i), rowError.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+            rows.clear();
+            lines.clear();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.dona_samsung_web_project.samsung_web_be.importer;
+
+import com.dona_samsung_web_project.samsung_web_be.exception.ValidationException;
+
+public enum ImportType {
+    AUTHORS("authors"),
+    BOOKS("books"),
+    MEMBERS("members");
+
+    private final String label;
+
+    ImportType(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public static ImportType fromLabel(String label) {
+        for (ImportType type : values()) {
+            if (type.label.equalsIgnoreCase(label)) {
+                return type;
+            }
+        }
+        throw new ValidationException("Import type must be one of authors, books or members");
+    }
+}
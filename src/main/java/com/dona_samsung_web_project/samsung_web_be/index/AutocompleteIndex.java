@@ -0,0 +1,171 @@
+package com.dona_samsung_web_project.samsung_web_be.index;
+
+import com.dona_samsung_web_project.samsung_web_be.model.Author;
+import com.dona_samsung_web_project.samsung_web_be.model.Book;
+import com.dona_samsung_web_project.samsung_web_be.model.Member;
+import com.dona_samsung_web_project.samsung_web_be.model.SearchResult;
+import com.dona_samsung_web_project.samsung_web_be.repository.AuthorRepository;
+import com.dona_samsung_web_project.samsung_web_be.repository.BookRepository;
+import com.dona_samsung_web_project.samsung_web_be.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// Typeahead over book titles, author names and member names, ranked by borrow counts.
+// An author is as popular as the sum of its books.
+@Component
+public class AutocompleteIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(AutocompleteIndex.class);
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final MemberRepository memberRepository;
+    private final int maxSuggestions;
+    private final PrefixIndex books;
+    private final PrefixIndex authors;
+    private final PrefixIndex members;
+    private final Map<Long, Long> bookAuthors = new HashMap<>();
+
+    public AutocompleteIndex(BookRepository bookRepository, AuthorRepository authorRepository,
+            MemberRepository memberRepository, @Value("${autocomplete.max-suggestions}") int maxSuggestions) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.memberRepository = memberRepository;
+        this.maxSuggestions = maxSuggestions;
+        this.books = new PrefixIndex(maxSuggestions);
+        this.authors = new PrefixIndex(maxSuggestions);
+        this.members = new PrefixIndex(maxSuggestions);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        books.clear();
+        authors.clear();
+        members.clear();
+        bookAuthors.clear();
+
+        Map<Long, Long> authorPopularity = new HashMap<>();
+        int bookCount = 0;
+        int authorCount = 0;
+        int memberCount = 0;
+        for (Book book : bookRepository.findAll()) {
+            bookCount++;
+            books.put(book.getId(), book.getTitle(), book.getBorrowCount());
+            if (book.getAuthor() != null) {
+                bookAuthors.put(book.getId(), book.getAuthor().getId());
+                authorPopularity.merge(book.getAuthor().getId(), book.getBorrowCount(), Long::sum);
+            }
+        }
+        for (Author author : authorRepository.findAll()) {
+            authorCount++;
+            authors.put(author.getId(), author.getName(), authorPopularity.getOrDefault(author.getId(), 0L));
+        }
+        for (Member member : memberRepository.findAll()) {
+            memberCount++;
+            members.put(member.getId(), member.getName(), member.getBorrowCount());
+        }
+        log.info("Autocomplete index built with {} books, {} authors and {} members",
+                bookCount, authorCount, memberCount);
+    }
+
+    // Add or replace a book after it has been saved, keeping the popularity already tracked.
+    // Its borrows move along when the author changes.
+    public synchronized void putBook(Book book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        Long current = books.popularity(book.getId());
+        long popularity = current == null ? book.getBorrowCount() : current;
+        books.put(book.getId(), book.getTitle(), popularity);
+        Long authorId = book.getAuthor() == null ? null : book.getAuthor().getId();
+        Long previousAuthorId = authorId == null ? bookAuthors.remove(book.getId())
+                : bookAuthors.put(book.getId(), authorId);
+        if (previousAuthorId != null && !previousAuthorId.equals(authorId)) {
+            authors.addPopularity(previousAuthorId, -popularity);
+            if (authorId != null) {
+                authors.addPopularity(authorId, popularity);
+            }
+        }
+    }
+
+    public synchronized void removeBook(Long id) {
+        Long popularity = books.popularity(id);
+        books.remove(id);
+        Long authorId = bookAuthors.remove(id);
+        if (authorId != null && popularity != null) {
+            authors.addPopularity(authorId, -popularity);
+        }
+    }
+
+    // Keeps the popularity an author already has
+    public synchronized void putAuthor(Author author) {
+        if (author == null || author.getId() == null) {
+            return;
+        }
+        Long popularity = authors.popularity(author.getId());
+        authors.put(author.getId(), author.getName(), popularity == null ? 0 : popularity);
+    }
+
+    public synchronized void removeAuthor(Long id) {
+        authors.remove(id);
+    }
+
+    public synchronized void putMember(Member member) {
+        if (member == null || member.getId() == null) {
+            return;
+        }
+        Long popularity = members.popularity(member.getId());
+        members.put(member.getId(), member.getName(), popularity == null ? member.getBorrowCount() : popularity);
+    }
+
+    public synchronized void removeMember(Long id) {
+        members.remove(id);
+    }
+
+    // Mirrors the borrow counter changes of a loan
+    public synchronized void addBookBorrows(Long bookId, long delta) {
+        books.addPopularity(bookId, delta);
+        Long authorId = bookAuthors.get(bookId);
+        if (authorId != null) {
+            authors.addPopularity(authorId, delta);
+        }
+    }
+
+    public synchronized void addMemberBorrows(Long memberId, long delta) {
+        members.addPopularity(memberId, delta);
+    }
+
+    // Suggestions for one type, or the most popular across all types when type is null
+    public List<SearchResult> suggest(String prefix, SearchResult.Type type, int limit) {
+        int size = Math.min(limit, maxSuggestions);
+        List<SearchResult> suggestions = new ArrayList<>();
+        if (type == null || type == SearchResult.Type.BOOK) {
+            books.top(prefix, size).forEach(entry -> suggestions.add(suggestion(SearchResult.Type.BOOK, entry)));
+        }
+        if (type == null || type == SearchResult.Type.AUTHOR) {
+            authors.top(prefix, size).forEach(entry -> suggestions.add(suggestion(SearchResult.Type.AUTHOR, entry)));
+        }
+        if (type == null || type == SearchResult.Type.MEMBER) {
+            members.top(prefix, size).forEach(entry -> suggestions.add(suggestion(SearchResult.Type.MEMBER, entry)));
+        }
+        if (type == null) {
+            suggestions.sort(Comparator.comparingDouble(SearchResult::getRank).reversed());
+        }
+        return suggestions.size() > size ? new ArrayList<>(suggestions.subList(0, size)) : suggestions;
+    }
+
+    private static SearchResult suggestion(SearchResult.Type type, PrefixIndex.Entry entry) {
+        return new SearchResult(type, entry.id(), entry.text(), null, entry.popularity());
+    }
+}
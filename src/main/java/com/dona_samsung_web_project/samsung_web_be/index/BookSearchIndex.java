@@ -0,0 +1,186 @@
+package com.dona_samsung_web_project.samsung_web_be.index;
+
+import com.dona_samsung_web_project.samsung_web_be.model.Author;
+import com.dona_samsung_web_project.samsung_web_be.model.Book;
+import com.dona_samsung_web_project.samsung_web_be.repository.BookRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+// In-memory trigram index over book title and category, kept in sync by the service write paths.
+// Books are stored as private copies that are never modified once indexed, so matches can be sorted and
+// served after the read lock is released.
+@Component
+public class BookSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(BookSearchIndex.class);
+
+    private static final Map<String, Comparator<Book>> SORTABLE = Map.of(
+            "id", nullsLast(Book::getId),
+            "title", nullsLast(book -> book.getTitle() == null ? null : book.getTitle().toLowerCase()),
+            "category", nullsLast(book -> book.getCategory() == null ? null : book.getCategory().toLowerCase()),
+            "publishingYear", nullsLast(Book::getPublishingYear),
+            "status", nullsLast(Book::getStatus),
+            "createdAt", nullsLast(Book::getCreatedAt),
+            "updatedAt", nullsLast(Book::getUpdatedAt));
+
+    private final BookRepository bookRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Book> books = new HashMap<>();
+    private final TrigramIndex titles = new TrigramIndex();
+    private final TrigramIndex categories = new TrigramIndex();
+    private volatile boolean ready;
+
+    public BookSearchIndex(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    // Load every book once the application is up
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            books.clear();
+            titles.clear();
+            categories.clear();
+            for (Book book : bookRepository.findAll()) {
+                put(book);
+            }
+            ready = true;
+            log.info("Book search index built with {} books", books.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Add or replace a book after it has been saved
+    public void index(Book book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            put(book);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            books.remove(id);
+            titles.remove(id);
+            categories.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Refresh the author embedded in every indexed book of that author
+    public void updateAuthor(Author author) {
+        lock.writeLock().lock();
+        try {
+            for (Book book : List.copyOf(books.values())) {
+                if (book.getAuthor() != null && author.getId().equals(book.getAuthor().getId())) {
+                    Book updated = copy(book);
+                    updated.setAuthor(author);
+                    books.put(updated.getId(), updated);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Empty when the index is not built yet or the sort is not supported, callers then use the database
+    public Optional<Page<Book>> searchByTitle(String title, Pageable pageable) {
+        return search(titles, title, pageable);
+    }
+
+    public Optional<Page<Book>> searchByCategory(String category, Pageable pageable) {
+        return search(categories, category, pageable);
+    }
+
+    private Optional<Page<Book>> search(TrigramIndex field, String query, Pageable pageable) {
+        if (!ready || query == null) {
+            return Optional.empty();
+        }
+        Comparator<Book> comparator = comparator(pageable.getSort());
+        if (comparator == null) {
+            return Optional.empty();
+        }
+
+        List<Book> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Set<Long> ids = field.search(query);
+            for (Long id : ids) {
+                matches.add(books.get(id));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(comparator);
+
+        if (pageable.isUnpaged()) {
+            return Optional.of(new PageImpl<>(matches, pageable, matches.size()));
+        }
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return Optional.of(new PageImpl<>(new ArrayList<>(matches.subList(from, to)), pageable, matches.size()));
+    }
+
+    private void put(Book book) {
+        books.put(book.getId(), copy(book));
+        titles.put(book.getId(), book.getTitle());
+        categories.put(book.getId(), book.getCategory());
+    }
+
+    // Shallow copy, callers keep modifying the entity they indexed
+    private static Book copy(Book book) {
+        Book copy = new Book();
+        BeanUtils.copyProperties(book, copy);
+        return copy;
+    }
+
+    // Comparator equivalent to the requested Sort, with id as the final tie-breaker
+    private static Comparator<Book> comparator(Sort sort) {
+        Comparator<Book> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Book> next = SORTABLE.get(order.getProperty());
+            if (next == null) {
+                return null;
+            }
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        Comparator<Book> byId = SORTABLE.get("id");
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+
+    private static <U extends Comparable<? super U>> Comparator<Book> nullsLast(Function<Book, U> key) {
+        return Comparator.comparing(key, Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+}
@@ -0,0 +1,192 @@
+package com.dona_samsung_web_project.samsung_web_be.index;
+
+import com.dona_samsung_web_project.samsung_web_be.model.Author;
+import com.dona_samsung_web_project.samsung_web_be.model.Book;
+import com.dona_samsung_web_project.samsung_web_be.model.BookStatus;
+import com.dona_samsung_web_project.samsung_web_be.model.projection.BookStatusView;
+import com.dona_samsung_web_project.samsung_web_be.repository.BookRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+// Newest books per status (createdAt desc, id desc), kept in sync by the service write paths.
+// Serves the first pages of /books/newest, deeper pages go to the database. Holds its own copies of the books,
+// never modified once stored, and hands out copies of them.
+@Component
+public class NewestBooksBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(NewestBooksBuffer.class);
+
+    private static final Comparator<Book> NEWEST_FIRST = Comparator
+            .comparing(Book::getCreatedAt, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()))
+            .thenComparing(Book::getId, Comparator.reverseOrder());
+
+    private final BookRepository bookRepository;
+    private final int capacity;
+    private final Map<BookStatus, List<Book>> newest = new EnumMap<>(BookStatus.class);
+    private final Map<BookStatus, Long> counts = new EnumMap<>(BookStatus.class);
+    private final Map<Long, BookStatus> statuses = new HashMap<>();
+    // Statuses whose list lost an entry that has to be reloaded from the database
+    private final Set<BookStatus> stale = EnumSet.noneOf(BookStatus.class);
+    private long version;
+    private boolean ready;
+
+    public NewestBooksBuffer(BookRepository bookRepository, @Value("${newest-books.capacity}") int capacity) {
+        this.bookRepository = bookRepository;
+        this.capacity = capacity;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        statuses.clear();
+        for (BookStatusView view : bookRepository.findAllStatuses()) {
+            statuses.put(view.getId(), view.getStatus());
+        }
+        for (BookStatus status : BookStatus.values()) {
+            counts.put(status, 0L);
+            newest.put(status, load(status));
+        }
+        statuses.values().forEach(status -> counts.merge(status, 1L, Long::sum));
+        stale.clear();
+        version++;
+        ready = true;
+        log.info("Newest books buffer built for {} books", statuses.size());
+    }
+
+    // Add or move a book after it has been saved
+    public synchronized void put(Book saved) {
+        if (!ready || saved == null || saved.getId() == null || saved.getStatus() == null) {
+            return;
+        }
+        Book book = copy(saved);
+        version++;
+        BookStatus previous = statuses.put(book.getId(), book.getStatus());
+        // Same status: the book keeps its place (createdAt does not change), only its entry is refreshed
+        if (previous == book.getStatus()) {
+            newest.get(previous).replaceAll(entry -> entry.getId().equals(book.getId()) ? book : entry);
+            return;
+        }
+        if (previous != null) {
+            detach(previous, book.getId());
+        }
+        counts.merge(book.getStatus(), 1L, Long::sum);
+        if (stale.contains(book.getStatus())) {
+            return;
+        }
+
+        // A list shorter than the capacity holds every book of its status, a full one only the newest
+        List<Book> books = newest.get(book.getStatus());
+        int position = Collections.binarySearch(books, book, NEWEST_FIRST);
+        int insertAt = position >= 0 ? position : -position - 1;
+        if (insertAt < capacity) {
+            books.add(insertAt, book);
+            if (books.size() > capacity) {
+                books.remove(books.size() - 1);
+            }
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        if (!ready) {
+            return;
+        }
+        version++;
+        BookStatus previous = statuses.remove(id);
+        if (previous != null) {
+            detach(previous, id);
+        }
+    }
+
+    // Refresh the author embedded in every buffered book of that author
+    public synchronized void updateAuthor(Author author) {
+        for (List<Book> books : newest.values()) {
+            books.replaceAll(book -> {
+                if (book.getAuthor() == null || !author.getId().equals(book.getAuthor().getId())) {
+                    return book;
+                }
+                Book updated = copy(book);
+                updated.setAuthor(author);
+                return updated;
+            });
+        }
+    }
+
+    // Empty when the buffer is not built yet or the page reaches past it, callers then use the database
+    public Optional<Page<Book>> newest(BookStatus status, Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getOffset() + pageable.getPageSize() > capacity) {
+            return Optional.empty();
+        }
+        long loadedAt;
+        synchronized (this) {
+            if (!ready) {
+                return Optional.empty();
+            }
+            if (!stale.contains(status)) {
+                return Optional.of(page(status, pageable));
+            }
+            loadedAt = version;
+        }
+
+        // Reload outside the lock, keep it only if no write happened meanwhile
+        List<Book> books = load(status);
+        synchronized (this) {
+            if (version != loadedAt) {
+                return Optional.empty();
+            }
+            newest.put(status, books);
+            stale.remove(status);
+            return Optional.of(page(status, pageable));
+        }
+    }
+
+    private void detach(BookStatus status, Long id) {
+        long count = counts.merge(status, -1L, Long::sum);
+        List<Book> books = newest.get(status);
+        if (books.removeIf(book -> book.getId().equals(id)) && count > books.size()) {
+            stale.add(status);
+        }
+    }
+
+    private Page<Book> page(BookStatus status, Pageable pageable) {
+        List<Book> books = newest.get(status);
+        int from = (int) Math.min(pageable.getOffset(), books.size());
+        int to = Math.min(from + pageable.getPageSize(), books.size());
+        List<Book> content = books.subList(from, to).stream().map(NewestBooksBuffer::copy).toList();
+        return new PageImpl<>(content, pageable, counts.get(status));
+    }
+
+    // Copies, the entities loaded may still be attached to the caller's session
+    private List<Book> load(BookStatus status) {
+        return bookRepository.findByStatusOrderByCreatedAtDescIdDesc(status, PageRequest.of(0, capacity))
+                .stream().map(NewestBooksBuffer::copy).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    // Shallow, the author is shared and replaced rather than modified
+    private static Book copy(Book book) {
+        Book copy = new Book();
+        BeanUtils.copyProperties(book, copy);
+        return copy;
+    }
+}
@@ -0,0 +1,209 @@
+package com.dona_samsung_web_project.samsung_web_be.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Sorted prefix index over one text field, ranked by popularity. Every word start of the text is a key,
+// truncated to KEY_LENGTH chars so long titles cost a bounded number of bytes per word. Reads are lock-free,
+// writes are serialized by the caller.
+class PrefixIndex {
+
+    record Entry(long id, String text, String normalized, long popularity) {
+    }
+
+    private static final int KEY_LENGTH = 16;
+    private static final char SEPARATOR = '\u0000';
+    // Prefixes this short match a large part of the index, their best entries are kept up to date on writes
+    private static final int SHORT_PREFIX = 2;
+    private static final Comparator<Entry> RANKING = Comparator.comparingLong(Entry::popularity).reversed()
+            .thenComparing(Entry::normalized).thenComparingLong(Entry::id);
+
+    private final ConcurrentSkipListMap<String, Entry> keys = new ConcurrentSkipListMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    // Best maxSuggestions entries per short prefix, as immutable lists swapped on every change
+    private final Map<String, List<Entry>> shortPrefixes = new ConcurrentHashMap<>();
+    private final int maxSuggestions;
+
+    PrefixIndex(int maxSuggestions) {
+        this.maxSuggestions = maxSuggestions;
+    }
+
+    void put(long id, String text, long popularity) {
+        if (text == null || text.isBlank()) {
+            remove(id);
+            return;
+        }
+        replace(entries.get(id), new Entry(id, text, normalize(text), popularity));
+    }
+
+    void remove(long id) {
+        Entry previous = entries.get(id);
+        if (previous != null) {
+            replace(previous, null);
+        }
+    }
+
+    void addPopularity(long id, long delta) {
+        Entry entry = entries.get(id);
+        if (entry != null) {
+            replace(entry, new Entry(id, entry.text(), entry.normalized(), entry.popularity() + delta));
+        }
+    }
+
+    Long popularity(long id) {
+        Entry entry = entries.get(id);
+        return entry == null ? null : entry.popularity();
+    }
+
+    void clear() {
+        keys.clear();
+        entries.clear();
+        shortPrefixes.clear();
+    }
+
+    // Entries with a word starting with the prefix, most popular first
+    List<Entry> top(String prefix, int limit) {
+        String needle = normalize(prefix);
+        if (needle.isEmpty()) {
+            return List.of();
+        }
+        List<Entry> ranking = needle.length() <= SHORT_PREFIX
+                ? shortPrefixes.getOrDefault(needle, List.of())
+                : rank(needle);
+        return ranking.subList(0, Math.min(limit, ranking.size()));
+    }
+
+    // Swap an entry for its new version (either may be null). Keys the new version shares with the old one are
+    // overwritten in place and only keys it lost are removed, so readers never miss an entry that stays.
+    private void replace(Entry previous, Entry entry) {
+        Set<String> stale = previous == null ? new HashSet<>() : new HashSet<>(keys(previous));
+        if (entry != null) {
+            entries.put(entry.id(), entry);
+            for (String key : keys(entry)) {
+                keys.put(key, entry);
+                stale.remove(key);
+            }
+        } else {
+            entries.remove(previous.id());
+        }
+        stale.forEach(keys::remove);
+
+        Set<String> prefixes = new HashSet<>();
+        if (previous != null) {
+            prefixes.addAll(shortPrefixes(previous));
+        }
+        if (entry != null) {
+            prefixes.addAll(shortPrefixes(entry));
+        }
+        for (String prefix : prefixes) {
+            updateShortPrefix(prefix, previous, entry != null && shortPrefixes(entry).contains(prefix) ? entry : null);
+        }
+    }
+
+    // Entries outside the list are only needed when an entry of a full list drops out or falls back, the
+    // prefix is then ranked again from the keys
+    private void updateShortPrefix(String prefix, Entry previous, Entry entry) {
+        List<Entry> current = shortPrefixes.getOrDefault(prefix, List.of());
+        boolean wasListed = previous != null && current.stream().anyMatch(listed -> listed.id() == previous.id());
+        List<Entry> ranking;
+        if (wasListed && current.size() >= maxSuggestions
+                && (entry == null || RANKING.compare(entry, previous) > 0)) {
+            ranking = rank(prefix);
+        } else {
+            ranking = new ArrayList<>(current);
+            if (previous != null) {
+                ranking.removeIf(listed -> listed.id() == previous.id());
+            }
+            if (entry != null) {
+                int position = Collections.binarySearch(ranking, entry, RANKING);
+                ranking.add(position >= 0 ? position : -position - 1, entry);
+            }
+            if (ranking.size() > maxSuggestions) {
+                ranking.subList(maxSuggestions, ranking.size()).clear();
+            }
+        }
+        if (ranking.isEmpty()) {
+            shortPrefixes.remove(prefix);
+        } else {
+            shortPrefixes.put(prefix, List.copyOf(ranking));
+        }
+    }
+
+    private List<Entry> rank(String needle) {
+        String from = needle.length() > KEY_LENGTH ? needle.substring(0, KEY_LENGTH) : needle;
+        // Min-heap on the ranking order keeps only the best maxSuggestions entries
+        PriorityQueue<Entry> best = new PriorityQueue<>(RANKING.reversed());
+        Set<Long> seen = new HashSet<>();
+        for (Entry entry : keys.subMap(from, true, from + Character.MAX_VALUE, true).values()) {
+            if (!seen.add(entry.id()) || !matches(entry, needle)) {
+                continue;
+            }
+            best.add(entry);
+            if (best.size() > maxSuggestions) {
+                best.poll();
+            }
+        }
+        List<Entry> ranking = new ArrayList<>(best);
+        ranking.sort(RANKING);
+        return ranking;
+    }
+
+    // Keys are truncated, so longer prefixes are checked against the text
+    private static boolean matches(Entry entry, String needle) {
+        if (needle.length() <= KEY_LENGTH) {
+            return true;
+        }
+        String text = entry.normalized();
+        for (int start : wordStarts(text)) {
+            if (text.startsWith(needle, start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> keys(Entry entry) {
+        String text = entry.normalized();
+        List<String> keys = new ArrayList<>();
+        for (int start : wordStarts(text)) {
+            keys.add(text.substring(start, Math.min(text.length(), start + KEY_LENGTH)) + SEPARATOR + entry.id());
+        }
+        return keys;
+    }
+
+    // Word starts of up to SHORT_PREFIX chars, the prefixes the entry is listed under
+    private static Set<String> shortPrefixes(Entry entry) {
+        String text = entry.normalized();
+        Set<String> prefixes = new HashSet<>();
+        for (int start : wordStarts(text)) {
+            for (int length = 1; length <= SHORT_PREFIX && start + length <= text.length(); length++) {
+                prefixes.add(text.substring(start, start + length));
+            }
+        }
+        return prefixes;
+    }
+
+    private static List<Integer> wordStarts(String text) {
+        List<Integer> starts = new ArrayList<>();
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isLetterOrDigit(text.charAt(i)) && (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)))) {
+                starts.add(i);
+            }
+        }
+        return starts;
+    }
+
+    private static String normalize(String text) {
+        return text.strip().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,53 @@
+package com.dona_samsung_web_project.samsung_web_be.index;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+// Space-Saving heavy-hitter summary: at most `capacity` counters, counts overestimate by at most the
+// smallest counter. Counters are also kept ordered by count, so the smallest is found in O(log capacity)
+// when a new key has to take one over. Not thread-safe, callers guard it.
+class SpaceSaving {
+
+    private static final Comparator<Counter> SMALLEST_FIRST =
+            Comparator.comparingLong(Counter::count).thenComparingLong(Counter::key);
+
+    private final int capacity;
+    private final Map<Long, Counter> counters = new HashMap<>();
+    private final TreeSet<Counter> byCount = new TreeSet<>(SMALLEST_FIRST);
+
+    SpaceSaving(int capacity) {
+        this.capacity = capacity;
+    }
+
+    void offer(long key, long increment) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            byCount.remove(counter);
+            put(new Counter(key, counter.count() + increment));
+            return;
+        }
+        if (counters.size() < capacity) {
+            put(new Counter(key, increment));
+            return;
+        }
+
+        // Full: the new key takes over the smallest counter
+        Counter smallest = byCount.pollFirst();
+        counters.remove(smallest.key());
+        put(new Counter(key, smallest.count() + increment));
+    }
+
+    void addTo(Map<Long, Long> totals) {
+        counters.forEach((key, counter) -> totals.merge(key, counter.count(), Long::sum));
+    }
+
+    private void put(Counter counter) {
+        counters.put(counter.key(), counter);
+        byCount.add(counter);
+    }
+
+    private record Counter(long key, long count) {
+    }
+}
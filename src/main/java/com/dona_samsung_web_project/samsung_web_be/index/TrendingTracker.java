@@ -0,0 +1,184 @@
+package com.dona_samsung_web_project.samsung_web_be.index;
+
+import com.dona_samsung_web_project.samsung_web_be.model.projection.BorrowEvent;
+import com.dona_samsung_web_project.samsung_web_be.repository.BorrowedBookRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Rolling heavy-hitter sketches of borrow events for the trending books and members endpoints
+@Component
+public class TrendingTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingTracker.class);
+
+    private static final int HOURS = 24;
+    private static final int DAYS = 30;
+    private static final long SNAPSHOT_TTL_SECONDS = 5;
+
+    private final BorrowedBookRepository borrowedBookRepository;
+    private final int capacity;
+    private volatile Rolling books;
+    private volatile Rolling members;
+    // Borrows counted while a rebuild runs, replayed on the rebuilt sketches before they are swapped in
+    private List<Borrow> duringRebuild;
+
+    public TrendingTracker(BorrowedBookRepository borrowedBookRepository,
+            @Value("${trending.capacity}") int capacity) {
+        this.borrowedBookRepository = borrowedBookRepository;
+        this.capacity = capacity;
+        this.books = new Rolling(capacity);
+        this.members = new Rolling(capacity);
+    }
+
+    // Replay the last 30 days of loans from the database. A borrow committed while the query runs may be
+    // counted twice, never dropped.
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (this) {
+            duringRebuild = new ArrayList<>();
+        }
+        try {
+            Rolling rebuiltBooks = new Rolling(capacity);
+            Rolling rebuiltMembers = new Rolling(capacity);
+            List<BorrowEvent> events =
+                    borrowedBookRepository.findBorrowEventsSince(LocalDateTime.now().minusDays(DAYS));
+            for (BorrowEvent event : events) {
+                long at = epochSecond(event.getCreatedAt());
+                rebuiltBooks.add(event.getBookId(), at);
+                rebuiltMembers.add(event.getMemberId(), at);
+            }
+            synchronized (this) {
+                for (Borrow borrow : duringRebuild) {
+                    rebuiltBooks.add(borrow.bookId(), borrow.at());
+                    rebuiltMembers.add(borrow.memberId(), borrow.at());
+                }
+                books = rebuiltBooks;
+                members = rebuiltMembers;
+            }
+            log.info("Trending sketches rebuilt from {} borrow events", events.size());
+        } finally {
+            synchronized (this) {
+                duringRebuild = null;
+            }
+        }
+    }
+
+    // Counted once the surrounding transaction commits, so rolled back loans never show up
+    public void recordBorrow(Long bookId, Long memberId) {
+        long at = epochSecond(LocalDateTime.now());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(new Borrow(bookId, memberId, at));
+                }
+            });
+        } else {
+            add(new Borrow(bookId, memberId, at));
+        }
+    }
+
+    // Book ids with their approximate borrow count in the window, most borrowed first
+    public List<Map.Entry<Long, Long>> topBooks(TrendingWindow window, int topN) {
+        return books.top(window, topN, epochSecond(LocalDateTime.now()));
+    }
+
+    public List<Map.Entry<Long, Long>> topMembers(TrendingWindow window, int topN) {
+        return members.top(window, topN, epochSecond(LocalDateTime.now()));
+    }
+
+    private synchronized void add(Borrow borrow) {
+        books.add(borrow.bookId(), borrow.at());
+        members.add(borrow.memberId(), borrow.at());
+        if (duringRebuild != null) {
+            duringRebuild.add(borrow);
+        }
+    }
+
+    private static long epochSecond(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    // Ring of hourly sketches (24h window) and daily sketches (7d and 30d windows)
+    private static final class Rolling {
+
+        private final int capacity;
+        private final SpaceSaving[] hours = new SpaceSaving[HOURS];
+        private final long[] hourEpochs = new long[HOURS];
+        private final SpaceSaving[] days = new SpaceSaving[DAYS];
+        private final long[] dayEpochs = new long[DAYS];
+        private final Map<TrendingWindow, Snapshot> snapshots = new EnumMap<>(TrendingWindow.class);
+
+        Rolling(int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized void add(long key, long epochSecond) {
+            add(hours, hourEpochs, epochSecond / 3600, key);
+            add(days, dayEpochs, epochSecond / 86400, key);
+        }
+
+        private void add(SpaceSaving[] ring, long[] epochs, long epoch, long key) {
+            int slot = (int) (epoch % ring.length);
+            if (ring[slot] == null || epochs[slot] < epoch) {
+                ring[slot] = new SpaceSaving(capacity);
+                epochs[slot] = epoch;
+            } else if (epochs[slot] > epoch) {
+                // Older than the window this slot now covers
+                return;
+            }
+            ring[slot].offer(key, 1);
+        }
+
+        synchronized List<Map.Entry<Long, Long>> top(TrendingWindow window, int topN, long nowSecond) {
+            Snapshot snapshot = snapshots.get(window);
+            if (snapshot == null || nowSecond - snapshot.computedAt >= SNAPSHOT_TTL_SECONDS) {
+                snapshot = new Snapshot(merge(window, nowSecond), nowSecond);
+                snapshots.put(window, snapshot);
+            }
+            return snapshot.ranking.subList(0, Math.min(topN, snapshot.ranking.size()));
+        }
+
+        private List<Map.Entry<Long, Long>> merge(TrendingWindow window, long nowSecond) {
+            Map<Long, Long> totals = new HashMap<>();
+            switch (window) {
+                case LAST_24_HOURS -> addRecent(hours, hourEpochs, nowSecond / 3600, HOURS, totals);
+                case LAST_7_DAYS -> addRecent(days, dayEpochs, nowSecond / 86400, 7, totals);
+                case LAST_30_DAYS -> addRecent(days, dayEpochs, nowSecond / 86400, DAYS, totals);
+            }
+            List<Map.Entry<Long, Long>> ranking = new ArrayList<>(totals.entrySet());
+            ranking.sort(Map.Entry.<Long, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+            return List.copyOf(ranking.subList(0, Math.min(capacity, ranking.size())));
+        }
+
+        private static void addRecent(SpaceSaving[] ring, long[] epochs, long current, int span,
+                Map<Long, Long> totals) {
+            for (int slot = 0; slot < ring.length; slot++) {
+                if (ring[slot] != null && epochs[slot] > current - span && epochs[slot] <= current) {
+                    ring[slot].addTo(totals);
+                }
+            }
+        }
+    }
+
+    private record Snapshot(List<Map.Entry<Long, Long>> ranking, long computedAt) {
+    }
+
+    private record Borrow(long bookId, long memberId, long at) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.dona_samsung_web_project.samsung_web_be.index;
+
+import com.dona_samsung_web_project.samsung_web_be.exception.ValidationException;
+
+public enum TrendingWindow {
+    LAST_24_HOURS("24h"),
+    LAST_7_DAYS("7d"),
+    LAST_30_DAYS("30d");
+
+    private final String label;
+
+    TrendingWindow(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public static TrendingWindow fromLabel(String label) {
+        for (TrendingWindow window : values()) {
+            if (window.label.equalsIgnoreCase(label)) {
+                return window;
+            }
+        }
+        throw new ValidationException("Window must be one of 24h, 7d or 30d");
+    }
+}
@@ -0,0 +1,94 @@
+package com.dona_samsung_web_project.samsung_web_be.index;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Inverted trigram index over a single text field. Not thread-safe, callers guard it.
+class TrigramIndex {
+
+    private static final int GRAM = 3;
+
+    private final Map<Long, String> texts = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+
+    void put(Long id, String text) {
+        remove(id);
+        if (text == null) {
+            return;
+        }
+        String normalized = normalize(text);
+        texts.put(id, normalized);
+        for (String gram : grams(normalized)) {
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+        }
+    }
+
+    void remove(Long id) {
+        String previous = texts.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : grams(previous)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    void clear() {
+        texts.clear();
+        postings.clear();
+    }
+
+    // Ids whose text contains the query (case-insensitive), same semantics as LIKE %query%
+    Set<Long> search(String query) {
+        String needle = normalize(query);
+        Set<Long> result = new HashSet<>();
+        if (needle.length() < GRAM) {
+            // Too short to use the postings, scan the texts
+            texts.forEach((id, text) -> {
+                if (text.contains(needle)) {
+                    result.add(id);
+                }
+            });
+            return result;
+        }
+
+        // Start from the rarest gram, then verify candidates against the full text
+        Set<Long> candidates = null;
+        for (String gram : grams(needle)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return result;
+            }
+            if (candidates == null || ids.size() < candidates.size()) {
+                candidates = ids;
+            }
+        }
+        for (Long id : candidates) {
+            if (texts.get(id).contains(needle)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+}
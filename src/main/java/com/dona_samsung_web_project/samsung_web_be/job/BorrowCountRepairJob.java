@@ -0,0 +1,43 @@
+package com.dona_samsung_web_project.samsung_web_be.job;
+
+import com.dona_samsung_web_project.samsung_web_be.index.AutocompleteIndex;
+import com.dona_samsung_web_project.samsung_web_be.repository.BookRepository;
+import com.dona_samsung_web_project.samsung_web_be.repository.MemberRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Rebuilds the denormalized borrow counters from the borrowed_books ledger
+@Component
+public class BorrowCountRepairJob {
+
+    private static final Logger log = LoggerFactory.getLogger(BorrowCountRepairJob.class);
+
+    private final BookRepository bookRepository;
+    private final MemberRepository memberRepository;
+    private final AutocompleteIndex autocompleteIndex;
+
+    public BorrowCountRepairJob(BookRepository bookRepository, MemberRepository memberRepository,
+            AutocompleteIndex autocompleteIndex) {
+        this.bookRepository = bookRepository;
+        this.memberRepository = memberRepository;
+        this.autocompleteIndex = autocompleteIndex;
+    }
+
+    // Runs on startup (backfills a freshly added column) and then on the configured schedule
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${borrow-count.repair.cron}")
+    public void repair() {
+        int books = bookRepository.rebuildBorrowCounts();
+        int members = memberRepository.rebuildBorrowCounts();
+        if (books > 0 || members > 0) {
+            log.warn("Borrow counters repaired: {} books, {} members were out of sync", books, members);
+            // Suggestions are ranked by these counters
+            autocompleteIndex.rebuild();
+        }
+    }
+}
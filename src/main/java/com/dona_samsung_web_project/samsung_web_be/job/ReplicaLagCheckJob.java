@@ -0,0 +1,24 @@
+package com.dona_samsung_web_project.samsung_web_be.job;
+
+import com.dona_samsung_web_project.samsung_web_be.config.ReplicaRoutingDataSource;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Re-checks reachability and replication lag of the read replicas, reads fall back to the primary in between
+@Component
+public class ReplicaLagCheckJob {
+
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    public ReplicaLagCheckJob(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        this.replicaRoutingDataSource = replicaRoutingDataSource;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.check-interval}")
+    public void check() {
+        if (replicaRoutingDataSource.hasReplicas()) {
+            replicaRoutingDataSource.checkReplicas();
+        }
+    }
+}
@@ -3,12 +3,27 @@ package com.dona_samsung_web_project.samsung_web_be.model;
 import java.time.LocalDateTime;
 import jakarta.persistence.*;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+// Authors are read on every book load and almost never written, so they live in the second-level cache.
+// Misses for the authors of a page of books are loaded together.
 @Entity
-@Table(name = "authors")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Author.CACHE_REGION)
+@BatchSize(size = 50)
+@Table(name = "authors", indexes = {
+        @Index(name = "idx_authors_name", columnList = "name"),
+        @Index(name = "idx_authors_created_at", columnList = "createdAt") })
 public class Author {
 
+    public static final String CACHE_REGION = "authors";
+    public static final String QUERY_CACHE_REGION = "author-queries";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "authors_seq")
+    @SequenceGenerator(name = "authors_seq", sequenceName = "authors_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name", nullable = false, length = 250)
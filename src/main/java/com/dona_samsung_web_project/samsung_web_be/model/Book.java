@@ -1,14 +1,27 @@
 package com.dona_samsung_web_project.samsung_web_be.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_borrow_count", columnList = "borrow_count DESC, id"),
+        @Index(name = "idx_books_status_created_at", columnList = "status, createdAt DESC, id DESC"),
+        @Index(name = "idx_books_author_id", columnList = "author_id"),
+        @Index(name = "idx_books_title", columnList = "title"),
+        @Index(name = "idx_books_created_at", columnList = "createdAt") })
 public class Book {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "title", nullable = false, length = 250)
@@ -23,10 +36,34 @@ public class Book {
     @Column(name = "publishing_year")
     private Integer publishingYear;
 
-    @Column(name = "photo_path", length = 500)
+    // The photo columns are written on insert and then only by the conditional updates of the photo upload,
+    // so saving a stale copy of the book never undoes a finished upload
+    @Column(name = "photo_path", length = 500, updatable = false)
     private String photoPath;
 
+    // Null for books that never had a photo, PENDING while photoPath still shows the previous one
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "photo_status", length = 20, updatable = false)
+    private PhotoStatus photoStatus;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Embedded
+    private PhotoVariants photoVariants;
+
+    // Spool file name of the upload in flight, a finished upload only lands if it is still this one
+    @JsonIgnore
+    @Column(name = "pending_photo", length = 300, updatable = false)
+    private String pendingPhoto;
+
+    // SHA-256 of the photo, the StoredPhoto it holds a reference on. Null for photos uploaded before dedup.
+    @JsonIgnore
+    @Column(name = "photo_hash", length = 64, updatable = false)
+    private String photoHash;
+
+    // Loaded by id rather than joined, so it is served from the author cache
     @ManyToOne
+    @Fetch(FetchMode.SELECT)
     @JoinColumn(name = "author_id", nullable = false)
     private Author author;
 
@@ -34,6 +71,12 @@ public class Book {
     @Column(name = "status", nullable = false)
     private BookStatus status = BookStatus.AVAILABLE;
 
+    // Number of loans, maintained by BorrowedBookService through atomic increments only
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    @Column(name = "borrow_count", nullable = false, updatable = false)
+    private long borrowCount;
+
     @Column(name = "createdAt", updatable = false)
     private LocalDateTime createdAt;
 
@@ -80,6 +123,30 @@ public class Book {
     public void setPhotoPath(String photoPath) {
         this.photoPath = photoPath;
     }
+    public PhotoStatus getPhotoStatus() {
+        return photoStatus;
+    }
+    public void setPhotoStatus(PhotoStatus photoStatus) {
+        this.photoStatus = photoStatus;
+    }
+    public PhotoVariants getPhotoVariants() {
+        return photoVariants;
+    }
+    public void setPhotoVariants(PhotoVariants photoVariants) {
+        this.photoVariants = photoVariants;
+    }
+    public String getPendingPhoto() {
+        return pendingPhoto;
+    }
+    public void setPendingPhoto(String pendingPhoto) {
+        this.pendingPhoto = pendingPhoto;
+    }
+    public String getPhotoHash() {
+        return photoHash;
+    }
+    public void setPhotoHash(String photoHash) {
+        this.photoHash = photoHash;
+    }
     public Author getAuthor() {
         return author;
     }
@@ -92,6 +159,12 @@ public class Book {
     public void setStatus(BookStatus status) {
         this.status = status;
     }
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+    public void setBorrowCount(long borrowCount) {
+        this.borrowCount = borrowCount;
+    }
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -138,8 +211,10 @@ public class Book {
                 ", category='" + category + '\'' +
                 ", publishingYear=" + publishingYear +
                 ", photoPath='" + photoPath + '\'' +
+                ", photoStatus=" + photoStatus +
                 ", author=" + author.getName() +
                 ", status=" + status +
+                ", borrowCount=" + borrowCount +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
                 ", deletedAt=" + deletedAt +
@@ -156,6 +231,7 @@ public class Book {
         this.description = description;
         this.publishingYear = publishingYear;
         this.photoPath = photoPath;
+        this.photoStatus = photoPath == null ? null : PhotoStatus.UPLOADED;
         this.author = author;
         this.status = BookStatus.AVAILABLE;
         this.createdAt = LocalDateTime.now();
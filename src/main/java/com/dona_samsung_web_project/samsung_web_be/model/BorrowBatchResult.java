@@ -0,0 +1,64 @@
+package com.dona_samsung_web_project.samsung_web_be.model;
+
+// Outcome of one item of a batch borrow or batch return, in request order
+public class BorrowBatchResult {
+
+    private int index;
+    private Long borrowedBookId;
+    private Long bookId;
+    private Long memberId;
+    private boolean success;
+    private String message;
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+    public void setIndex(int index) {
+        this.index = index;
+    }
+    public Long getBorrowedBookId() {
+        return borrowedBookId;
+    }
+    public void setBorrowedBookId(Long borrowedBookId) {
+        this.borrowedBookId = borrowedBookId;
+    }
+    public Long getBookId() {
+        return bookId;
+    }
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+    public Long getMemberId() {
+        return memberId;
+    }
+    public void setMemberId(Long memberId) {
+        this.memberId = memberId;
+    }
+    public boolean isSuccess() {
+        return success;
+    }
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+    public String getMessage() {
+        return message;
+    }
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    // Default constructor
+    public BorrowBatchResult() {}
+
+    // Constructor with parameters
+    public BorrowBatchResult(int index, Long borrowedBookId, Long bookId, Long memberId, boolean success,
+            String message) {
+        this.index = index;
+        this.borrowedBookId = borrowedBookId;
+        this.bookId = bookId;
+        this.memberId = memberId;
+        this.success = success;
+        this.message = message;
+    }
+}
@@ -5,11 +5,16 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "borrowed_books")
+@Table(name = "borrowed_books", indexes = {
+        @Index(name = "idx_borrowed_books_borrow_date", columnList = "borrow_date"),
+        @Index(name = "idx_borrowed_books_book_id", columnList = "book_id"),
+        @Index(name = "idx_borrowed_books_member_id", columnList = "member_id"),
+        @Index(name = "idx_borrowed_books_created_at", columnList = "createdAt") })
 public class BorrowedBook {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "borrowed_books_seq")
+    @SequenceGenerator(name = "borrowed_books_seq", sequenceName = "borrowed_books_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -0,0 +1,55 @@
+package com.dona_samsung_web_project.samsung_web_be.model;
+
+import com.dona_samsung_web_project.samsung_web_be.exception.ValidationException;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+// Criteria of the borrowed book search; null fields are left out of the query.
+// matchAll combines the given criteria with AND, otherwise with OR.
+public record BorrowedBookSearch(
+        String bookTitle,
+        String memberName,
+        Long bookId,
+        Long memberId,
+        LocalDate borrowDate,
+        LocalDate borrowedFrom,
+        LocalDate borrowedTo,
+        Boolean returned,
+        boolean matchAll) {
+
+    // Build from request parameters: blank strings count as absent, dates are yyyy-MM-dd, match is all or any
+    public static BorrowedBookSearch of(String bookTitle, String memberName, Long bookId, Long memberId,
+            String borrowDate, String borrowedFrom, String borrowedTo, Boolean returned, String match) {
+        boolean matchAll;
+        if (match == null || match.equalsIgnoreCase("any")) {
+            matchAll = false;
+        } else if (match.equalsIgnoreCase("all")) {
+            matchAll = true;
+        } else {
+            throw new ValidationException("Match must be all or any");
+        }
+        LocalDate from = date("borrowedFrom", borrowedFrom);
+        LocalDate to = date("borrowedTo", borrowedTo);
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ValidationException("borrowedFrom must not be after borrowedTo");
+        }
+        return new BorrowedBookSearch(text(bookTitle), text(memberName), bookId, memberId,
+                date("borrowDate", borrowDate), from, to, returned, matchAll);
+    }
+
+    private static String text(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static LocalDate date(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new ValidationException(name + " must be a date like 2024-01-31");
+        }
+    }
+}
@@ -2,24 +2,50 @@ package com.dona_samsung_web_project.samsung_web_be.model;
 
 import java.time.LocalDateTime;
 import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
-@Table(name = "members")
+@Table(name = "members",
+        uniqueConstraints = @UniqueConstraint(name = Member.EMAIL_CONSTRAINT, columnNames = "email"),
+        indexes = {
+                @Index(name = "idx_members_borrow_count", columnList = "borrow_count DESC, id"),
+                @Index(name = "idx_members_name", columnList = "name"),
+                @Index(name = "idx_members_created_at", columnList = "createdAt") })
 public class Member {
 
+    // Writes rely on this constraint instead of checking the email first
+    public static final String EMAIL_CONSTRAINT = "uk_members_email";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "members_seq")
+    @SequenceGenerator(name = "members_seq", sequenceName = "members_seq", allocationSize = 50)
     private Long id;
 
+    @NotBlank
+    @Size(max = 250)
     @Column(name = "name", nullable = false, length = 250)
     private String name;
 
-    @Column(name = "email", nullable = false, unique = true, length = 250)
+    @NotBlank
+    @Size(max = 250)
+    @Column(name = "email", nullable = false, length = 250)
     private String email;
 
+    @Size(max = 20)
     @Column(name = "phone", length = 20)
     private String phone;
 
+    // Number of loans, maintained by BorrowedBookService through atomic increments only
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    @Column(name = "borrow_count", nullable = false, updatable = false)
+    private long borrowCount;
+
     @Column(name = "createdAt", updatable = false)
     private LocalDateTime createdAt;
 
@@ -54,6 +80,12 @@ public class Member {
     public void setPhone(String phone) {
         this.phone = phone;
     }
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+    public void setBorrowCount(long borrowCount) {
+        this.borrowCount = borrowCount;
+    }
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -98,6 +130,7 @@ public class Member {
                 ", name='" + name + '\'' +
                 ", email='" + email + '\'' +
                 ", phone='" + phone + '\'' +
+                ", borrowCount=" + borrowCount +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
                 ", deletedAt=" + deletedAt +
@@ -0,0 +1,8 @@
+package com.dona_samsung_web_project.samsung_web_be.model;
+
+// Upload state of a book's photo: spooled and waiting for the storage, stored, or given up after the retries
+public enum PhotoStatus {
+    PENDING,
+    UPLOADED,
+    FAILED
+}
@@ -0,0 +1,64 @@
+package com.dona_samsung_web_project.samsung_web_be.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// URLs of the resized copies of a book's photo (see storage.PhotoVariant), null until they are generated.
+// photoPath stays the original upload. Only written by the variant updates, never by saving the owner.
+@Embeddable
+public class PhotoVariants {
+
+    @Column(name = "photo_thumbnail_path", length = 500, updatable = false)
+    private String thumbnail;
+
+    @Column(name = "photo_card_path", length = 500, updatable = false)
+    private String card;
+
+    @Column(name = "photo_full_path", length = 500, updatable = false)
+    private String full;
+
+    public PhotoVariants() {}
+
+    public PhotoVariants(String thumbnail, String card, String full) {
+        this.thumbnail = thumbnail;
+        this.card = card;
+        this.full = full;
+    }
+
+    // Null when none of the variants exist, so list rows read like the entity
+    public static PhotoVariants of(String thumbnail, String card, String full) {
+        return thumbnail == null && card == null && full == null ? null : new PhotoVariants(thumbnail, card, full);
+    }
+
+    public String getThumbnail() {
+        return thumbnail;
+    }
+    public void setThumbnail(String thumbnail) {
+        this.thumbnail = thumbnail;
+    }
+    public String getCard() {
+        return card;
+    }
+    public void setCard(String card) {
+        this.card = card;
+    }
+    public String getFull() {
+        return full;
+    }
+    public void setFull(String full) {
+        this.full = full;
+    }
+
+    public List<String> urls() {
+        List<String> urls = new ArrayList<>();
+        for (String url : new String[] { thumbnail, card, full }) {
+            if (url != null) {
+                urls.add(url);
+            }
+        }
+        return urls;
+    }
+}
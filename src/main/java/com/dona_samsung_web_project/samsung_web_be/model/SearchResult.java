@@ -0,0 +1,60 @@
+package com.dona_samsung_web_project.samsung_web_be.model;
+
+public class SearchResult {
+
+    public enum Type {
+        BOOK,
+        AUTHOR,
+        MEMBER
+    }
+
+    private Type type;
+    private Long id;
+    private String title;
+    private String subtitle;
+    private double rank;
+
+    // Getters and Setters
+    public Type getType() {
+        return type;
+    }
+    public void setType(Type type) {
+        this.type = type;
+    }
+    public Long getId() {
+        return id;
+    }
+    public void setId(Long id) {
+        this.id = id;
+    }
+    public String getTitle() {
+        return title;
+    }
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    public String getSubtitle() {
+        return subtitle;
+    }
+    public void setSubtitle(String subtitle) {
+        this.subtitle = subtitle;
+    }
+    public double getRank() {
+        return rank;
+    }
+    public void setRank(double rank) {
+        this.rank = rank;
+    }
+
+    // Default constructor
+    public SearchResult() {}
+
+    // Constructor with parameters
+    public SearchResult(Type type, Long id, String title, String subtitle, double rank) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.subtitle = subtitle;
+        this.rank = rank;
+    }
+}
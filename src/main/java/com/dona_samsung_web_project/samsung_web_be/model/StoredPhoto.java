@@ -0,0 +1,80 @@
+package com.dona_samsung_web_project.samsung_web_be.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// A photo object in the storage, keyed by the SHA-256 of its content and shared by every book with that photo.
+// refCount is the number of books using it, the object is deleted from the storage once it drops to 0.
+@Entity
+@Table(name = "stored_photos")
+public class StoredPhoto {
+
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "photo_path", nullable = false, length = 500)
+    private String photoPath;
+
+    @Embedded
+    private PhotoVariants variants;
+
+    // What the storage deletes the objects by, null for rows stored before the ids were kept
+    @Column(name = "photo_file_id", length = 300)
+    private String photoFileId;
+
+    @Embedded
+    @AttributeOverride(name = "thumbnail", column = @Column(name = "thumbnail_file_id", length = 300, updatable = false))
+    @AttributeOverride(name = "card", column = @Column(name = "card_file_id", length = 300, updatable = false))
+    @AttributeOverride(name = "full", column = @Column(name = "full_file_id", length = 300, updatable = false))
+    private PhotoVariants variantFileIds;
+
+    @Column(name = "ref_count", nullable = false)
+    private long refCount;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public String getContentHash() {
+        return contentHash;
+    }
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+    public String getPhotoPath() {
+        return photoPath;
+    }
+    public void setPhotoPath(String photoPath) {
+        this.photoPath = photoPath;
+    }
+    public PhotoVariants getVariants() {
+        return variants;
+    }
+    public void setVariants(PhotoVariants variants) {
+        this.variants = variants;
+    }
+    public String getPhotoFileId() {
+        return photoFileId;
+    }
+    public void setPhotoFileId(String photoFileId) {
+        this.photoFileId = photoFileId;
+    }
+    public PhotoVariants getVariantFileIds() {
+        return variantFileIds;
+    }
+    public void setVariantFileIds(PhotoVariants variantFileIds) {
+        this.variantFileIds = variantFileIds;
+    }
+    public long getRefCount() {
+        return refCount;
+    }
+    public void setRefCount(long refCount) {
+        this.refCount = refCount;
+    }
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,30 @@
+package com.dona_samsung_web_project.samsung_web_be.model;
+
+public class TrendingItem<T> {
+
+    private T item;
+    private long borrowCount;
+
+    // Getters and Setters
+    public T getItem() {
+        return item;
+    }
+    public void setItem(T item) {
+        this.item = item;
+    }
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+    public void setBorrowCount(long borrowCount) {
+        this.borrowCount = borrowCount;
+    }
+
+    // Default constructor
+    public TrendingItem() {}
+
+    // Constructor with parameters
+    public TrendingItem(T item, long borrowCount) {
+        this.item = item;
+        this.borrowCount = borrowCount;
+    }
+}
@@ -0,0 +1,38 @@
+package com.dona_samsung_web_project.samsung_web_be.model.projection;
+
+import com.dona_samsung_web_project.samsung_web_be.model.Book;
+import com.dona_samsung_web_project.samsung_web_be.model.BookStatus;
+import com.dona_samsung_web_project.samsung_web_be.model.PhotoVariants;
+
+import java.time.LocalDateTime;
+
+// Row of the book list: the columns the list shows and the author's id and name, read in one joined query
+public record BookListItem(
+        Long id,
+        String title,
+        String category,
+        Integer publishingYear,
+        String photoPath,
+        PhotoVariants photoVariants,
+        BookStatus status,
+        long borrowCount,
+        LocalDateTime createdAt,
+        AuthorItem author) {
+
+    public record AuthorItem(Long id, String name) {
+    }
+
+    // Flat form for JPQL constructor expressions
+    public BookListItem(Long id, String title, String category, Integer publishingYear, String photoPath,
+            String thumbnailPath, String cardPath, String fullPath, BookStatus status, long borrowCount,
+            LocalDateTime createdAt, Long authorId, String authorName) {
+        this(id, title, category, publishingYear, photoPath, PhotoVariants.of(thumbnailPath, cardPath, fullPath),
+                status, borrowCount, createdAt, new AuthorItem(authorId, authorName));
+    }
+
+    public static BookListItem from(Book book) {
+        return new BookListItem(book.getId(), book.getTitle(), book.getCategory(), book.getPublishingYear(),
+                book.getPhotoPath(), book.getPhotoVariants(), book.getStatus(), book.getBorrowCount(),
+                book.getCreatedAt(), new AuthorItem(book.getAuthor().getId(), book.getAuthor().getName()));
+    }
+}
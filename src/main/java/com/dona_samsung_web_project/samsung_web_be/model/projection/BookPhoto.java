@@ -0,0 +1,12 @@
+package com.dona_samsung_web_project.samsung_web_be.model.projection;
+
+import com.dona_samsung_web_project.samsung_web_be.model.Book;
+import com.dona_samsung_web_project.samsung_web_be.model.PhotoVariants;
+
+// Photo columns of a book, what the book gives up when its photo is replaced or the book is deleted
+public record BookPhoto(String photoPath, String photoHash, PhotoVariants variants) {
+
+    public static BookPhoto of(Book book) {
+        return new BookPhoto(book.getPhotoPath(), book.getPhotoHash(), book.getPhotoVariants());
+    }
+}
@@ -0,0 +1,10 @@
+package com.dona_samsung_web_project.samsung_web_be.model.projection;
+
+import com.dona_samsung_web_project.samsung_web_be.model.BookStatus;
+
+// Id and status of a book, used to count books per status without loading them
+public interface BookStatusView {
+    Long getId();
+
+    BookStatus getStatus();
+}
@@ -0,0 +1,12 @@
+package com.dona_samsung_web_project.samsung_web_be.model.projection;
+
+import java.time.LocalDateTime;
+
+// Minimal view of a loan, used to replay borrow events
+public interface BorrowEvent {
+    Long getBookId();
+
+    Long getMemberId();
+
+    LocalDateTime getCreatedAt();
+}
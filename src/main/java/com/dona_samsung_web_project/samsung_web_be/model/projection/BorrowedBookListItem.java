@@ -0,0 +1,37 @@
+package com.dona_samsung_web_project.samsung_web_be.model.projection;
+
+import com.dona_samsung_web_project.samsung_web_be.model.BorrowedBook;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Row of the loan lists: the loan plus the book title and member name, instead of both full entity graphs
+public record BorrowedBookListItem(
+        Long id,
+        LocalDate borrowDate,
+        LocalDate returnDate,
+        LocalDateTime createdAt,
+        BookItem book,
+        MemberItem member) {
+
+    public record BookItem(Long id, String title, String photoPath) {
+    }
+
+    public record MemberItem(Long id, String name) {
+    }
+
+    // Flat form for JPQL constructor expressions
+    public BorrowedBookListItem(Long id, LocalDate borrowDate, LocalDate returnDate, LocalDateTime createdAt,
+            Long bookId, String bookTitle, String bookPhotoPath, Long memberId, String memberName) {
+        this(id, borrowDate, returnDate, createdAt, new BookItem(bookId, bookTitle, bookPhotoPath),
+                new MemberItem(memberId, memberName));
+    }
+
+    public static BorrowedBookListItem from(BorrowedBook borrowedBook) {
+        return new BorrowedBookListItem(borrowedBook.getId(), borrowedBook.getBorrowDate(),
+                borrowedBook.getReturnDate(), borrowedBook.getCreatedAt(),
+                borrowedBook.getBook().getId(), borrowedBook.getBook().getTitle(),
+                borrowedBook.getBook().getPhotoPath(),
+                borrowedBook.getMember().getId(), borrowedBook.getMember().getName());
+    }
+}
@@ -0,0 +1,64 @@
+package com.dona_samsung_web_project.samsung_web_be.model.response;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+
+public class CursorResponse<T> extends CommonResponse {
+    private List<T> data;
+    private Long count;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    public CursorResponse(List<T> data, String nextCursor, Long count, String message) {
+        super.setCode("00");
+        super.setMessage(message);
+        super.setStatus(HttpStatus.OK.name());
+        this.data = data;
+        this.count = count;
+        this.size = data.size();
+        this.hasNext = nextCursor != null;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getData() {
+        return data;
+    }
+
+    public void setData(List<T> data) {
+        this.data = data;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,55 @@
+package com.dona_samsung_web_project.samsung_web_be.model.response;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+
+public class SliceResponse<T> extends CommonResponse {
+    private List<T> data;
+    private int page;
+    private int size;
+    private boolean hasNext;
+
+    public SliceResponse(Slice<T> slice, String message) {
+        super.setCode("00");
+        super.setMessage(message);
+        super.setStatus(HttpStatus.OK.name());
+        this.data = slice.getContent();
+        this.page = slice.getNumber() + 1;
+        this.size = slice.getSize();
+        this.hasNext = slice.hasNext();
+    }
+
+    public List<T> getData() {
+        return data;
+    }
+
+    public void setData(List<T> data) {
+        this.data = data;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
@@ -0,0 +1,70 @@
+package com.dona_samsung_web_project.samsung_web_be.pagination;
+
+import com.dona_samsung_web_project.samsung_web_be.exception.ValidationException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+
+// Encodes keyset scroll positions as opaque, URL-safe cursors and back
+@Component
+public class KeysetCursor {
+
+    private final ObjectMapper objectMapper;
+
+    public KeysetCursor(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    // Cursor pointing after the last element of the window, null when there is nothing more
+    public String next(Window<?> window) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return null;
+        }
+        ScrollPosition position = window.positionAt(window.size() - 1);
+        if (!(position instanceof KeysetScrollPosition keyset)) {
+            throw new IllegalStateException("Window is not keyset based");
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(keyset.getKeys());
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode cursor", e);
+        }
+    }
+
+    // Blank cursor means the first page; key types are restored from the entity properties
+    public KeysetScrollPosition decode(String cursor, Class<?> entityType) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            JsonNode keys = objectMapper.readTree(Base64.getUrlDecoder().decode(cursor));
+            BeanWrapper entity = new BeanWrapperImpl(BeanUtils.instantiateClass(entityType));
+            entity.setAutoGrowNestedPaths(true);
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (Map.Entry<String, JsonNode> field : keys.properties()) {
+                Class<?> type = entity.getPropertyType(field.getKey());
+                if (type == null) {
+                    throw new ValidationException("Invalid cursor");
+                }
+                values.put(field.getKey(), objectMapper.treeToValue(field.getValue(), type));
+            }
+            return ScrollPosition.forward(values);
+        } catch (IOException | RuntimeException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.dona_samsung_web_project.samsung_web_be.pagination;
+
+import com.dona_samsung_web_project.samsung_web_be.exception.ValidationException;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+
+// sortBy values each list endpoint accepts. Every field has an index (see db/migration), so sorted pages
+// are read in index order instead of sorting the whole table.
+public enum SortableFields {
+    AUTHORS("id", "name", "createdAt"),
+    BOOKS("id", "title", "createdAt", "borrowCount"),
+    MEMBERS("id", "name", "createdAt", "borrowCount"),
+    BORROWED_BOOKS("id", "createdAt", "borrowDate");
+
+    private final List<String> fields;
+
+    SortableFields(String... fields) {
+        this.fields = List.of(fields);
+    }
+
+    public Sort sort(String sortBy, String sortDir) {
+        if (!fields.contains(sortBy)) {
+            throw new ValidationException("sortBy must be one of " + fields);
+        }
+        return sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
+    }
+}
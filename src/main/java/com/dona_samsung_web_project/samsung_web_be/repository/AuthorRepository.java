@@ -2,14 +2,48 @@ package com.dona_samsung_web_project.samsung_web_be.repository;
 
 import com.dona_samsung_web_project.samsung_web_be.model.Author;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+// findById is served by the second-level cache (see Author). The list and search results below are kept in
+// the query cache as author ids; Hibernate drops them whenever the authors table is written.
 @Repository
 public interface AuthorRepository extends JpaRepository<Author, Long> {
 
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Author.QUERY_CACHE_REGION) })
+    Page<Author> findAll(Pageable pageable);
+
+    // Keyset (seek) pagination over all authors, no OFFSET and no count
+    Window<Author> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    // Slice variants fetch size+1 rows to know if there is a next page and never run a count query
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Author.QUERY_CACHE_REGION) })
+    Slice<Author> findSliceBy(Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Author.QUERY_CACHE_REGION) })
+    Slice<Author> findSliceByNameContainingIgnoreCase(String name, Pageable pageable);
+
     // Custom query method for finding by name (case-insensitive)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Author.QUERY_CACHE_REGION) })
     Page<Author> findByNameContainingIgnoreCase(String name, Pageable pageable);
 }
@@ -0,0 +1,61 @@
+package com.dona_samsung_web_project.samsung_web_be.repository;
+
+import com.dona_samsung_web_project.samsung_web_be.config.CacheConfig;
+import com.dona_samsung_web_project.samsung_web_be.config.DatabasePlatform;
+import com.dona_samsung_web_project.samsung_web_be.model.PhotoVariants;
+import com.dona_samsung_web_project.samsung_web_be.model.projection.BookPhoto;
+
+import java.util.Optional;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public class BookPhotoRepository {
+
+    // The row is locked by the sub-select and the photo it held comes back from the same statement,
+    // no concurrent upload can land between reading the old photo and replacing it
+    private static final String POSTGRESQL_COMPLETE_SQL = """
+            UPDATE books b
+            SET photo_path = ?, photo_hash = ?, pending_photo = NULL, photo_status = 'UPLOADED',
+                photo_thumbnail_path = NULL, photo_card_path = NULL, photo_full_path = NULL
+            FROM (SELECT id, photo_path, photo_hash, photo_thumbnail_path, photo_card_path, photo_full_path
+                    FROM books WHERE id = ? AND pending_photo = ? FOR UPDATE) prev
+            WHERE b.id = prev.id
+            RETURNING prev.photo_path, prev.photo_hash, prev.photo_thumbnail_path, prev.photo_card_path,
+                prev.photo_full_path
+            """;
+
+    // H2 has no RETURNING, the replaced row is read from the OLD TABLE of the update
+    private static final String OLD_TABLE_COMPLETE_SQL = """
+            SELECT photo_path, photo_hash, photo_thumbnail_path, photo_card_path, photo_full_path
+            FROM OLD TABLE (
+                UPDATE books
+                SET photo_path = ?, photo_hash = ?, pending_photo = NULL, photo_status = 'UPLOADED',
+                    photo_thumbnail_path = NULL, photo_card_path = NULL, photo_full_path = NULL
+                WHERE id = ? AND pending_photo = ?)
+            """;
+
+    private static final RowMapper<BookPhoto> BOOK_PHOTO = (rs, rowNum) -> new BookPhoto(rs.getString(1),
+            rs.getString(2), PhotoVariants.of(rs.getString(3), rs.getString(4), rs.getString(5)));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    public BookPhotoRepository(JdbcTemplate jdbcTemplate, DatabasePlatform databasePlatform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+    }
+
+    // Land a finished photo upload and return the photo it replaced. Empty means a newer photo was submitted
+    // meanwhile or the book is gone. The variants of the previous photo are dropped, the new ones follow.
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#p0")
+    public Optional<BookPhoto> completePhotoUpload(Long id, String pendingPhoto, String photoPath, String photoHash) {
+        return jdbcTemplate.query(databasePlatform.isPostgreSql() ? POSTGRESQL_COMPLETE_SQL : OLD_TABLE_COMPLETE_SQL,
+                BOOK_PHOTO, photoPath, photoHash, id, pendingPhoto).stream().findFirst();
+    }
+}
@@ -1,30 +1,195 @@
 package com.dona_samsung_web_project.samsung_web_be.repository;
 
+import com.dona_samsung_web_project.samsung_web_be.config.CacheConfig;
 import com.dona_samsung_web_project.samsung_web_be.model.Book;
 import com.dona_samsung_web_project.samsung_web_be.model.BookStatus;
+import com.dona_samsung_web_project.samsung_web_be.model.PhotoStatus;
+import com.dona_samsung_web_project.samsung_web_be.model.projection.BookListItem;
+import com.dona_samsung_web_project.samsung_web_be.model.projection.BookStatusView;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
 
+    String LIST_ITEMS = "SELECT new com.dona_samsung_web_project.samsung_web_be.model.projection.BookListItem(b.id, b.title, b.category, b.publishingYear, "
+            + "b.photoPath, b.photoVariants.thumbnail, b.photoVariants.card, b.photoVariants.full, "
+            + "b.status, b.borrowCount, b.createdAt, a.id, a.name) FROM Book b JOIN b.author a";
+
+    // Read-through cache, evicted by every write below. Missing ids are not cached. Not read-only, so a miss
+    // is loaded from the primary and a lagging replica never puts an old row in the cache.
+    @Override
+    @Transactional
+    @Cacheable(cacheNames = CacheConfig.BOOKS, key = "#p0", unless = "#result == null")
+    Optional<Book> findById(Long id);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#p0.id", condition = "#p0.id != null")
+    <S extends Book> S save(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#p0")
+    void deleteById(Long id);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#p0.id")
+    void delete(Book entity);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#p0.id", condition = "#p0.id != null")
+    <S extends Book> S saveAndFlush(S entity);
+
+    // Bulk writes drop the whole cache rather than walking their arguments
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, allEntries = true)
+    <S extends Book> List<S> saveAll(Iterable<S> entities);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, allEntries = true)
+    <S extends Book> List<S> saveAllAndFlush(Iterable<S> entities);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, allEntries = true)
+    void deleteAllById(Iterable<? extends Long> ids);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, allEntries = true)
+    void deleteAll(Iterable<? extends Book> entities);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, allEntries = true)
+    void deleteAll();
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, allEntries = true)
+    void deleteAllInBatch(Iterable<Book> entities);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, allEntries = true)
+    void deleteAllByIdInBatch(Iterable<Long> ids);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, allEntries = true)
+    void deleteAllInBatch();
+
+    // Keyset (seek) pagination over all books, no OFFSET and no count. The author is joined, not selected per row.
+    @EntityGraph(attributePaths = "author")
+    Window<Book> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    // List rows with their author in a single query; the count does not need the join
+    @Query(value = LIST_ITEMS, countQuery = "SELECT COUNT(b) FROM Book b")
+    Page<BookListItem> findListItems(Pageable pageable);
+
+    // Slice variants fetch size+1 rows to know if there is a next page and never run a count query
+    @Query(LIST_ITEMS)
+    Slice<BookListItem> findListItemSlice(Pageable pageable);
+
+    Slice<Book> findSliceByCategoryContainingIgnoreCase(String category, Pageable pageable);
+
+    Slice<Book> findSliceByTitleContainingIgnoreCase(String title, Pageable pageable);
+
     // Find books by category (case-insensitive search)
     Page<Book> findByCategoryContainingIgnoreCase(String category, Pageable pageable);
 
     // Find books by title (case-insensitive search)
     Page<Book> findByTitleContainingIgnoreCase(String title, Pageable pageable);
 
-    @Query("""
-                SELECT b FROM Book b
-                LEFT JOIN BorrowedBook bb ON bb.book = b
-                GROUP BY b
-                ORDER BY COUNT(bb.id) DESC
-            """)
-    Page<Book> findTopBooksByBorrowedCount(Pageable pageable);
+    // Top-N leaderboard read straight from the borrow_count index
+    List<Book> findByOrderByBorrowCountDescIdAsc(Limit limit);
+
+    @Transactional
+    @Modifying
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#p0")
+    @Query("UPDATE Book b SET b.borrowCount = b.borrowCount + :delta WHERE b.id = :id")
+    int addBorrowCount(Long id, long delta);
+
+    // Recompute every counter from the borrowed_books ledger, returns the number of corrected rows
+    @Transactional
+    @Modifying
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, allEntries = true)
+    @Query(value = """
+                UPDATE books SET borrow_count =
+                    (SELECT COUNT(*) FROM borrowed_books bb WHERE bb.book_id = books.id)
+                WHERE borrow_count <> (SELECT COUNT(*) FROM borrowed_books bb WHERE bb.book_id = books.id)
+            """, nativeQuery = true)
+    int rebuildBorrowCounts();
+
+    // Books with their author in one query, for batch operations
+    @Query("SELECT b FROM Book b JOIN FETCH b.author WHERE b.id IN :ids")
+    List<Book> findAllWithAuthorByIdIn(Collection<Long> ids);
+
+    // Compare-and-set on the status, 0 means the book was not in the expected status (another request won).
+    // The persistence context is cleared so no stale copy of the book is read or flushed afterwards.
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#p0")
+    @Query("UPDATE Book b SET b.status = :status, b.updatedAt = :updatedAt WHERE b.id = :id AND b.status = :expected")
+    int updateStatusIf(Long id, BookStatus expected, BookStatus status, LocalDateTime updatedAt);
+
+    Page<Book> findByStatusOrderByCreatedAtDescIdDesc(BookStatus status, Pageable pageable);
+
+    @Query("SELECT b.id AS id, b.status AS status FROM Book b")
+    List<BookStatusView> findAllStatuses();
+
+    List<Book> findByPhotoStatus(PhotoStatus photoStatus);
+
+    // Point an existing book at a newly spooled photo, save leaves the photo columns alone
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#p0")
+    @Query("UPDATE Book b SET b.pendingPhoto = :pendingPhoto, "
+            + "b.photoStatus = com.dona_samsung_web_project.samsung_web_be.model.PhotoStatus.PENDING "
+            + "WHERE b.id = :id")
+    int startPhotoUpload(Long id, String pendingPhoto);
+
+    // Checked by the upload worker on the primary, a book saved a moment ago may not be on a replica yet
+    @Transactional
+    boolean existsByIdAndPendingPhoto(Long id, String pendingPhoto);
+
+    // Give up on a photo upload, the book keeps its previous photoPath
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#p0")
+    @Query("UPDATE Book b SET b.pendingPhoto = NULL, "
+            + "b.photoStatus = com.dona_samsung_web_project.samsung_web_be.model.PhotoStatus.FAILED "
+            + "WHERE b.id = :id AND b.pendingPhoto = :pendingPhoto")
+    int failPhotoUpload(Long id, String pendingPhoto);
+
+    // Attach the variants of a photo, 0 means the book has another photo by now or is gone
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#p0")
+    @Query("UPDATE Book b SET b.photoVariants.thumbnail = :thumbnail, b.photoVariants.card = :card, "
+            + "b.photoVariants.full = :full WHERE b.id = :id AND b.photoPath = :photoPath")
+    int updatePhotoVariants(Long id, String photoPath, String thumbnail, String card, String full);
+
+    // Attach the variants of a shared photo to every book holding it
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, allEntries = true)
+    @Query("UPDATE Book b SET b.photoVariants.thumbnail = :thumbnail, b.photoVariants.card = :card, "
+            + "b.photoVariants.full = :full WHERE b.photoHash = :photoHash")
+    int updatePhotoVariantsByHash(String photoHash, String thumbnail, String card, String full);
 
-    Page<Book> findByStatusOrderByCreatedAtDesc(BookStatus status, Pageable pageable);
+    @Query("SELECT b.id FROM Book b WHERE b.photoHash = :photoHash")
+    List<Long> findIdsByPhotoHash(String photoHash);
 }
@@ -0,0 +1,150 @@
+package com.dona_samsung_web_project.samsung_web_be.repository;
+
+import com.dona_samsung_web_project.samsung_web_be.config.CacheConfig;
+import com.dona_samsung_web_project.samsung_web_be.model.BorrowedBook;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+// JDBC batches for the circulation desk: one round trip per statement kind instead of one per item
+@Repository
+public class BorrowBatchRepository {
+
+    private static final String CLAIM_SQL =
+            "UPDATE books SET status = 'BORROWED', updated_at = ? WHERE id = ? AND status = 'AVAILABLE'";
+    private static final String RELEASE_SQL =
+            "UPDATE books SET status = 'AVAILABLE', updated_at = ? WHERE id = ? AND status = 'BORROWED'";
+    private static final String MARK_RETURNED_SQL =
+            "UPDATE borrowed_books SET return_date = ?, updated_at = ? WHERE id = ? AND return_date IS NULL";
+    private static final String ADD_BOOK_BORROWS_SQL =
+            "UPDATE books SET borrow_count = borrow_count + ? WHERE id = ?";
+    private static final String ADD_MEMBER_BORROWS_SQL =
+            "UPDATE members SET borrow_count = borrow_count + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheManager cacheManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public BorrowBatchRepository(JdbcTemplate jdbcTemplate, CacheManager cacheManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheManager = cacheManager;
+    }
+
+    // Claims every book that is still available, inserts a loan for it and counts the borrow. Returns the new
+    // loan ids in request order, null where the book was taken meanwhile.
+    @Transactional
+    public List<Long> borrowAll(List<BorrowedBook> loans, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        int[] claimed = jdbcTemplate.batchUpdate(CLAIM_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setTimestamp(1, timestamp);
+                ps.setLong(2, loans.get(i).getBook().getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return loans.size();
+            }
+        });
+
+        List<BorrowedBook> won = new ArrayList<>();
+        for (int i = 0; i < loans.size(); i++) {
+            if (claimed[i] != 0) {
+                won.add(loans.get(i));
+            }
+        }
+        // Sequence ids, so Hibernate sends these as JDBC batches of hibernate.jdbc.batch_size
+        for (BorrowedBook loan : won) {
+            entityManager.persist(loan);
+        }
+        entityManager.flush();
+
+        List<Long> ids = new ArrayList<>();
+        Map<Long, Long> bookDeltas = new HashMap<>();
+        Map<Long, Long> memberDeltas = new HashMap<>();
+        for (int i = 0; i < loans.size(); i++) {
+            if (claimed[i] == 0) {
+                ids.add(null);
+                continue;
+            }
+            ids.add(loans.get(i).getId());
+            bookDeltas.merge(loans.get(i).getBook().getId(), 1L, Long::sum);
+            memberDeltas.merge(loans.get(i).getMember().getId(), 1L, Long::sum);
+        }
+        addBorrowCounts(ADD_BOOK_BORROWS_SQL, bookDeltas);
+        addBorrowCounts(ADD_MEMBER_BORROWS_SQL, memberDeltas);
+        evict(CacheConfig.BOOKS, bookDeltas.keySet());
+        evict(CacheConfig.MEMBERS, memberDeltas.keySet());
+        return ids;
+    }
+
+    // Sets the return date on every loan still open and releases its book. Returns true per returned loan.
+    @Transactional
+    public boolean[] returnAll(List<BorrowedBook> loans, LocalDate returnDate, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        int[] returned = jdbcTemplate.batchUpdate(MARK_RETURNED_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setDate(1, Date.valueOf(returnDate));
+                ps.setTimestamp(2, timestamp);
+                ps.setLong(3, loans.get(i).getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return loans.size();
+            }
+        });
+
+        List<Long> bookIds = new ArrayList<>();
+        boolean[] success = new boolean[loans.size()];
+        for (int i = 0; i < loans.size(); i++) {
+            success[i] = returned[i] != 0;
+            if (success[i]) {
+                bookIds.add(loans.get(i).getBook().getId());
+            }
+        }
+        jdbcTemplate.batchUpdate(RELEASE_SQL, bookIds, bookIds.size(), (ps, bookId) -> {
+            ps.setTimestamp(1, timestamp);
+            ps.setLong(2, bookId);
+        });
+        evict(CacheConfig.BOOKS, bookIds);
+        return success;
+    }
+
+    // Adds the loan deltas to the denormalized borrow counters
+    private void addBorrowCounts(String sql, Map<Long, Long> deltas) {
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(deltas.entrySet());
+        jdbcTemplate.batchUpdate(sql, entries, entries.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getValue());
+            ps.setLong(2, entry.getKey());
+        });
+    }
+
+    private void evict(String cacheName, Iterable<Long> ids) {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(cacheName));
+        ids.forEach(cache::evict);
+    }
+}
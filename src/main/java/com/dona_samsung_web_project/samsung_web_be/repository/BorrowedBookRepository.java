@@ -1,22 +1,96 @@
 package com.dona_samsung_web_project.samsung_web_be.repository;
 
 import com.dona_samsung_web_project.samsung_web_be.model.BorrowedBook;
+import com.dona_samsung_web_project.samsung_web_be.model.projection.BorrowEvent;
+import com.dona_samsung_web_project.samsung_web_be.model.projection.BorrowedBookListItem;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
-public interface BorrowedBookRepository extends JpaRepository<BorrowedBook, Long> {
+// Searches go through JpaSpecificationExecutor with BorrowedBookSpecifications
+public interface BorrowedBookRepository extends JpaRepository<BorrowedBook, Long>,
+        JpaSpecificationExecutor<BorrowedBook> {
+
+    String LIST_ITEMS = "SELECT new com.dona_samsung_web_project.samsung_web_be.model.projection.BorrowedBookListItem(bb.id, bb.borrowDate, bb.returnDate, "
+            + "bb.createdAt, b.id, b.title, b.photoPath, m.id, m.name) "
+            + "FROM BorrowedBook bb JOIN bb.book b JOIN bb.member m";
+
+    // Keyset (seek) pagination over all borrowed books, no OFFSET and no count. Book and member are joined
+    // in the same query and the book's author is left out.
+    @EntityGraph(attributePaths = { "book", "member" })
+    Window<BorrowedBook> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    // List rows with the book title and member name in a single query; the counts do not need the joins
+    @Query(value = LIST_ITEMS, countQuery = "SELECT COUNT(bb) FROM BorrowedBook bb")
+    Page<BorrowedBookListItem> findListItems(Pageable pageable);
+
+    @Query(value = LIST_ITEMS + " WHERE bb.member.id = :memberId",
+            countQuery = "SELECT COUNT(bb) FROM BorrowedBook bb WHERE bb.member.id = :memberId")
+    Page<BorrowedBookListItem> findListItemsByMemberId(Long memberId, Pageable pageable);
+
+    @Query(value = LIST_ITEMS + " WHERE bb.book.id = :bookId",
+            countQuery = "SELECT COUNT(bb) FROM BorrowedBook bb WHERE bb.book.id = :bookId")
+    Page<BorrowedBookListItem> findListItemsByBookId(Long bookId, Pageable pageable);
+
+    // Slice variants fetch size+1 rows to know if there is a next page and never run a count query
+    @Query(LIST_ITEMS)
+    Slice<BorrowedBookListItem> findListItemSlice(Pageable pageable);
+
+    @Query(LIST_ITEMS + " WHERE bb.member.id = :memberId")
+    Slice<BorrowedBookListItem> findListItemSliceByMemberId(Long memberId, Pageable pageable);
+
+    @Query(LIST_ITEMS + " WHERE bb.book.id = :bookId")
+    Slice<BorrowedBookListItem> findListItemSliceByBookId(Long bookId, Pageable pageable);
+
+    @EntityGraph(attributePaths = { "book", "member" })
+    Window<BorrowedBook> findByMemberId(Long memberId, ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = { "book", "member" })
+    Window<BorrowedBook> findByBookId(Long bookId, ScrollPosition position, Sort sort, Limit limit);
+
+    long countByMemberId(Long memberId);
+
+    long countByBookId(Long bookId);
 
-    // Find borrowed books by member ID with pagination
-    Page<BorrowedBook> findByMemberId(Long memberId, Pageable pageable);
+    // Loans with their book, author and member in one query, for batch operations
+    @Query("""
+                SELECT bb FROM BorrowedBook bb JOIN FETCH bb.book b JOIN FETCH b.author JOIN FETCH bb.member
+                WHERE bb.id IN :ids
+            """)
+    List<BorrowedBook> findAllWithBookAndMemberByIdIn(Collection<Long> ids);
 
-    // Find borrowed books by book ID with pagination
-    Page<BorrowedBook> findByBookId(Long bookId, Pageable pageable);
+    // Sets the return date unless the loan was already returned, 0 means it was
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+                UPDATE BorrowedBook bb SET bb.returnDate = :returnDate, bb.updatedAt = :updatedAt
+                WHERE bb.id = :id AND bb.returnDate IS NULL
+            """)
+    int markReturned(Long id, LocalDate returnDate, LocalDateTime updatedAt);
 
-    // Find borrowed books by book title, member name, and borrow date with
-    // pagination
-    Page<BorrowedBook> findByBookTitleContainingIgnoreCaseOrMemberNameContainingIgnoreCaseOrBorrowDate(
-            String bookTitle, String memberName, java.time.LocalDate borrowDate, Pageable pageable);
+    // Borrow events since the given time, used to rebuild the trending sketches
+    @Query("""
+                SELECT bb.book.id AS bookId, bb.member.id AS memberId, bb.createdAt AS createdAt
+                FROM BorrowedBook bb
+                WHERE bb.createdAt >= :since
+            """)
+    List<BorrowEvent> findBorrowEventsSince(LocalDateTime since);
 }
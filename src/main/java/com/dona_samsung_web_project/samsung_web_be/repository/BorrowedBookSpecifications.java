@@ -0,0 +1,72 @@
+package com.dona_samsung_web_project.samsung_web_be.repository;
+
+import com.dona_samsung_web_project.samsung_web_be.model.BorrowedBook;
+import com.dona_samsung_web_project.samsung_web_be.model.BorrowedBookSearch;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.data.jpa.domain.Specification;
+
+public final class BorrowedBookSpecifications {
+
+    private BorrowedBookSpecifications() {
+    }
+
+    // Only the criteria that were given become predicates, so a date-only search filters (and counts)
+    // on borrow_date alone. Text matching uses upper(...) LIKE, the form the trigram indexes cover.
+    public static Specification<BorrowedBook> matching(BorrowedBookSearch search) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (search.bookTitle() != null) {
+                predicates.add(containsIgnoreCase(cb, root.get("book").get("title"), search.bookTitle()));
+            }
+            if (search.memberName() != null) {
+                predicates.add(containsIgnoreCase(cb, root.get("member").get("name"), search.memberName()));
+            }
+            if (search.bookId() != null) {
+                predicates.add(cb.equal(root.get("book").get("id"), search.bookId()));
+            }
+            if (search.memberId() != null) {
+                predicates.add(cb.equal(root.get("member").get("id"), search.memberId()));
+            }
+            if (search.borrowDate() != null) {
+                predicates.add(cb.equal(root.get("borrowDate"), search.borrowDate()));
+            }
+            if (search.borrowedFrom() != null || search.borrowedTo() != null) {
+                Expression<LocalDate> borrowDate = root.get("borrowDate");
+                if (search.borrowedFrom() == null) {
+                    predicates.add(cb.lessThanOrEqualTo(borrowDate, search.borrowedTo()));
+                } else if (search.borrowedTo() == null) {
+                    predicates.add(cb.greaterThanOrEqualTo(borrowDate, search.borrowedFrom()));
+                } else {
+                    predicates.add(cb.between(borrowDate, search.borrowedFrom(), search.borrowedTo()));
+                }
+            }
+            if (search.returned() != null) {
+                predicates.add(search.returned() ? cb.isNotNull(root.get("returnDate"))
+                        : cb.isNull(root.get("returnDate")));
+            }
+
+            if (predicates.isEmpty()) {
+                return null;
+            }
+            Predicate[] array = predicates.toArray(new Predicate[0]);
+            return search.matchAll() ? cb.and(array) : cb.or(array);
+        };
+    }
+
+    private static Predicate containsIgnoreCase(CriteriaBuilder cb, Expression<String> field, String value) {
+        String escaped = value.toUpperCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return cb.like(cb.upper(field), "%" + escaped + "%", '\\');
+    }
+}
@@ -0,0 +1,78 @@
+package com.dona_samsung_web_project.samsung_web_be.repository;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+// Whole-table reads for the export endpoints. The quoted aliases are the field names of the exported rows.
+@Repository
+public class ExportRepository {
+
+    private static final String AUTHORS_SQL = """
+            SELECT a.id AS "id", a.name AS "name", a.description AS "description",
+                   a.created_at AS "createdAt", a.updated_at AS "updatedAt"
+            FROM authors a
+            ORDER BY a.id
+            """;
+
+    private static final String BOOKS_SQL = """
+            SELECT b.id AS "id", b.title AS "title", b.description AS "description", b.category AS "category",
+                   b.publishing_year AS "publishingYear", b.photo_path AS "photoPath", b.status AS "status",
+                   b.borrow_count AS "borrowCount", b.author_id AS "authorId", a.name AS "authorName",
+                   b.created_at AS "createdAt", b.updated_at AS "updatedAt"
+            FROM books b
+            JOIN authors a ON a.id = b.author_id
+            ORDER BY b.id
+            """;
+
+    private static final String MEMBERS_SQL = """
+            SELECT m.id AS "id", m.name AS "name", m.email AS "email", m.phone AS "phone",
+                   m.borrow_count AS "borrowCount", m.created_at AS "createdAt", m.updated_at AS "updatedAt"
+            FROM members m
+            ORDER BY m.id
+            """;
+
+    private static final String BORROWED_BOOKS_SQL = """
+            SELECT bb.id AS "id", bb.book_id AS "bookId", b.title AS "bookTitle",
+                   bb.member_id AS "memberId", m.name AS "memberName",
+                   bb.borrow_date AS "borrowDate", bb.return_date AS "returnDate",
+                   bb.created_at AS "createdAt", bb.updated_at AS "updatedAt"
+            FROM borrowed_books bb
+            JOIN books b ON b.id = bb.book_id
+            JOIN members m ON m.id = bb.member_id
+            ORDER BY bb.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Own template so the fetch size only applies here. PostgreSQL only streams with a fetch size
+    // inside a transaction, otherwise the driver reads the whole result into memory.
+    public ExportRepository(DataSource dataSource, @Value("${export.fetch-size}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    @Transactional(readOnly = true)
+    public <T> T streamAuthors(ResultSetExtractor<T> extractor) {
+        return jdbcTemplate.query(AUTHORS_SQL, extractor);
+    }
+
+    @Transactional(readOnly = true)
+    public <T> T streamBooks(ResultSetExtractor<T> extractor) {
+        return jdbcTemplate.query(BOOKS_SQL, extractor);
+    }
+
+    @Transactional(readOnly = true)
+    public <T> T streamMembers(ResultSetExtractor<T> extractor) {
+        return jdbcTemplate.query(MEMBERS_SQL, extractor);
+    }
+
+    @Transactional(readOnly = true)
+    public <T> T streamBorrowedBooks(ResultSetExtractor<T> extractor) {
+        return jdbcTemplate.query(BORROWED_BOOKS_SQL, extractor);
+    }
+}
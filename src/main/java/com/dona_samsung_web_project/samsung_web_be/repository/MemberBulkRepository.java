@@ -0,0 +1,79 @@
+package com.dona_samsung_web_project.samsung_web_be.repository;
+
+import com.dona_samsung_web_project.samsung_web_be.config.CacheConfig;
+import com.dona_samsung_web_project.samsung_web_be.config.DatabasePlatform;
+import com.dona_samsung_web_project.samsung_web_be.model.Member;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public class MemberBulkRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    // Race-free upsert on the unique email index, the borrow counter and createdAt of existing rows are kept
+    private static final String POSTGRESQL_UPSERT_SQL = """
+            INSERT INTO members (id, name, email, phone, borrow_count, created_at, updated_at)
+            VALUES (?, ?, ?, ?, 0, ?, ?)
+            ON CONFLICT (email) DO UPDATE
+            SET name = EXCLUDED.name, phone = EXCLUDED.phone, updated_at = EXCLUDED.updated_at
+            """;
+
+    // Standard SQL for the other databases (H2 in tests)
+    private static final String MERGE_SQL = """
+            MERGE INTO members m
+            USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR(250)), CAST(? AS VARCHAR(250)),
+                    CAST(? AS VARCHAR(20)), CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP)))
+                v (id, name, email, phone, created_at, updated_at)
+            ON m.email = v.email
+            WHEN MATCHED THEN UPDATE SET name = v.name, phone = v.phone, updated_at = v.updated_at
+            WHEN NOT MATCHED THEN INSERT (id, name, email, phone, borrow_count, created_at, updated_at)
+                VALUES (v.id, v.name, v.email, v.phone, 0, v.created_at, v.updated_at)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public MemberBulkRepository(JdbcTemplate jdbcTemplate, DatabasePlatform databasePlatform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+    }
+
+    // Insert or update members by email in JDBC batches, returns the number of members written
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.MEMBERS, allEntries = true)
+    public int upsertByEmail(List<Member> members) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        // Ids come from the entity's pooled generator, one sequence call per block of 50 like a persist would.
+        // Rows that end up updating an existing member only leave a gap in the block.
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(Member.class).getGenerator();
+        jdbcTemplate.batchUpdate(databasePlatform.isPostgreSql() ? POSTGRESQL_UPSERT_SQL : MERGE_SQL, members,
+                BATCH_SIZE, (ps, member) -> {
+                    ps.setLong(1, (Long) generator.generate(session, member, null, EventType.INSERT));
+                    ps.setString(2, member.getName());
+                    ps.setString(3, member.getEmail());
+                    ps.setString(4, member.getPhone());
+                    ps.setTimestamp(5, now);
+                    ps.setTimestamp(6, now);
+                });
+        return members.size();
+    }
+}
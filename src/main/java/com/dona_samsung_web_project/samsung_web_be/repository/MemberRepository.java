@@ -1,28 +1,127 @@
 package com.dona_samsung_web_project.samsung_web_be.repository;
 
+import com.dona_samsung_web_project.samsung_web_be.config.CacheConfig;
 import com.dona_samsung_web_project.samsung_web_be.model.Member;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface MemberRepository extends JpaRepository<Member, Long> {
 
+    // Read-through cache, evicted by every write below. Missing ids are not cached. Not read-only, so a miss
+    // is loaded from the primary and a lagging replica never puts an old row in the cache.
+    @Override
+    @Transactional
+    @Cacheable(cacheNames = CacheConfig.MEMBERS, key = "#p0", unless = "#result == null")
+    Optional<Member> findById(Long id);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.MEMBERS, key = "#p0.id", condition = "#p0.id != null")
+    <S extends Member> S save(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.MEMBERS, key = "#p0")
+    void deleteById(Long id);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.MEMBERS, key = "#p0.id")
+    void delete(Member entity);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.MEMBERS, key = "#p0.id", condition = "#p0.id != null")
+    <S extends Member> S saveAndFlush(S entity);
+
+    // Bulk writes drop the whole cache rather than walking their arguments
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.MEMBERS, allEntries = true)
+    <S extends Member> List<S> saveAll(Iterable<S> entities);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.MEMBERS, allEntries = true)
+    <S extends Member> List<S> saveAllAndFlush(Iterable<S> entities);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.MEMBERS, allEntries = true)
+    void deleteAllById(Iterable<? extends Long> ids);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.MEMBERS, allEntries = true)
+    void deleteAll(Iterable<? extends Member> entities);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.MEMBERS, allEntries = true)
+    void deleteAll();
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.MEMBERS, allEntries = true)
+    void deleteAllInBatch(Iterable<Member> entities);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.MEMBERS, allEntries = true)
+    void deleteAllByIdInBatch(Iterable<Long> ids);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.MEMBERS, allEntries = true)
+    void deleteAllInBatch();
+
+    // Keyset (seek) pagination over all members, no OFFSET and no count
+    Window<Member> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    // Slice variants fetch size+1 rows to know if there is a next page and never run a count query
+    Slice<Member> findSliceBy(Pageable pageable);
+
+    Slice<Member> findSliceByNameContainingIgnoreCase(String name, Pageable pageable);
+
     // Custom query method for finding by name (case-insensitive)
     Page<Member> findByNameContainingIgnoreCase(String name, Pageable pageable);
 
-    boolean existsByEmail(String email);
-
-    Member findByEmail(String email);
+    List<Member> findByEmailIn(Collection<String> emails);
 
+    // Single-statement update, a duplicate email fails on the unique constraint
+    @Transactional
+    @Modifying
+    @CacheEvict(cacheNames = CacheConfig.MEMBERS, key = "#p0")
     @Query("""
-                SELECT m FROM Member m
-                LEFT JOIN BorrowedBook bb ON bb.member = m
-                GROUP BY m
-                ORDER BY COUNT(bb.id) DESC
+                UPDATE Member m SET m.name = :name, m.email = :email, m.phone = :phone, m.updatedAt = :updatedAt
+                WHERE m.id = :id
             """)
-    Page<Member> findTopMembersByBorrowedCount(Pageable pageable);
+    int updateDetails(Long id, String name, String email, String phone, LocalDateTime updatedAt);
+
+    // Top-N leaderboard read straight from the borrow_count index
+    List<Member> findByOrderByBorrowCountDescIdAsc(Limit limit);
+
+    @Transactional
+    @Modifying
+    @CacheEvict(cacheNames = CacheConfig.MEMBERS, key = "#p0")
+    @Query("UPDATE Member m SET m.borrowCount = m.borrowCount + :delta WHERE m.id = :id")
+    int addBorrowCount(Long id, long delta);
+
+    // Recompute every counter from the borrowed_books ledger, returns the number of corrected rows
+    @Transactional
+    @Modifying
+    @CacheEvict(cacheNames = CacheConfig.MEMBERS, allEntries = true)
+    @Query(value = """
+                UPDATE members SET borrow_count =
+                    (SELECT COUNT(*) FROM borrowed_books bb WHERE bb.member_id = members.id)
+                WHERE borrow_count <> (SELECT COUNT(*) FROM borrowed_books bb WHERE bb.member_id = members.id)
+            """, nativeQuery = true)
+    int rebuildBorrowCounts();
 }
@@ -0,0 +1,70 @@
+package com.dona_samsung_web_project.samsung_web_be.repository;
+
+import com.dona_samsung_web_project.samsung_web_be.config.DatabasePlatform;
+import com.dona_samsung_web_project.samsung_web_be.model.SearchResult;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class SearchRepository {
+
+    // Each branch is ranked and limited on its own index before the union is merged
+    private static final String SEARCH_SQL = """
+            SELECT * FROM (
+                (SELECT 'BOOK' AS type, b.id, b.title AS title, b.category AS subtitle,
+                        ts_rank(b.search_vector, q) + similarity(b.title, :query) AS rank
+                 FROM books b, websearch_to_tsquery('simple', :query) q
+                 WHERE b.search_vector @@ q OR upper(b.title) LIKE upper(:pattern) ESCAPE '\\'
+                 ORDER BY rank DESC LIMIT :limit)
+                UNION ALL
+                (SELECT 'AUTHOR' AS type, a.id, a.name AS title, a.description AS subtitle,
+                        ts_rank(a.search_vector, q) + similarity(a.name, :query) AS rank
+                 FROM authors a, websearch_to_tsquery('simple', :query) q
+                 WHERE a.search_vector @@ q OR upper(a.name) LIKE upper(:pattern) ESCAPE '\\'
+                 ORDER BY rank DESC LIMIT :limit)
+                UNION ALL
+                (SELECT 'MEMBER' AS type, m.id, m.name AS title, m.email AS subtitle,
+                        ts_rank(m.search_vector, q) + similarity(m.name, :query) AS rank
+                 FROM members m, websearch_to_tsquery('simple', :query) q
+                 WHERE m.search_vector @@ q OR upper(m.name) LIKE upper(:pattern) ESCAPE '\\'
+                 ORDER BY rank DESC LIMIT :limit)
+            ) results
+            ORDER BY rank DESC, type, id
+            LIMIT :limit
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    public SearchRepository(NamedParameterJdbcTemplate jdbcTemplate, DatabasePlatform databasePlatform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+    }
+
+    // Relevance-ranked books, authors and members in a single round trip
+    public List<SearchResult> search(String query, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("pattern", "%" + escapeLike(query) + "%")
+                .addValue("limit", limit);
+        return jdbcTemplate.query(SEARCH_SQL, params, (rs, rowNum) -> new SearchResult(
+                SearchResult.Type.valueOf(rs.getString("type")),
+                rs.getLong("id"),
+                rs.getString("title"),
+                rs.getString("subtitle"),
+                rs.getDouble("rank")));
+    }
+
+    // The tsvector columns and pg_trgm only exist on PostgreSQL
+    public boolean isFullTextSupported() {
+        return databasePlatform.isPostgreSql();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,91 @@
+package com.dona_samsung_web_project.samsung_web_be.repository;
+
+import com.dona_samsung_web_project.samsung_web_be.config.DatabasePlatform;
+import com.dona_samsung_web_project.samsung_web_be.model.PhotoVariants;
+import com.dona_samsung_web_project.samsung_web_be.model.StoredPhoto;
+
+import java.util.Optional;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// Registration and release of references on stored photos, each in one transaction on the primary. The last
+// release deletes the row before its transaction ends, so no reference can be taken on a photo being deleted.
+@Repository
+public class StoredPhotoRefRepository {
+
+    private static final String COLUMNS = "content_hash, photo_path, photo_file_id, photo_thumbnail_path, "
+            + "photo_card_path, photo_full_path, thumbnail_file_id, card_file_id, full_file_id, ref_count";
+
+    // A row already there, even one left at 0, takes the reference and keeps its objects
+    private static final String POSTGRESQL_REGISTER_SQL = """
+            INSERT INTO stored_photos AS p (content_hash, photo_path, photo_file_id, ref_count, created_at)
+            VALUES (?, ?, ?, 1, CURRENT_TIMESTAMP)
+            ON CONFLICT (content_hash) DO UPDATE SET ref_count = p.ref_count + 1
+            RETURNING %s
+            """.formatted(COLUMNS);
+
+    // Standard SQL for the other databases (H2 in tests), the row written is read from the FINAL TABLE
+    private static final String MERGE_REGISTER_SQL = """
+            SELECT %s FROM FINAL TABLE (
+                MERGE INTO stored_photos p
+                USING (VALUES (CAST(? AS VARCHAR(64)), CAST(? AS VARCHAR(500)), CAST(? AS VARCHAR(300))))
+                    v (content_hash, photo_path, photo_file_id)
+                ON p.content_hash = v.content_hash
+                WHEN MATCHED THEN UPDATE SET ref_count = p.ref_count + 1
+                WHEN NOT MATCHED THEN INSERT (content_hash, photo_path, photo_file_id, ref_count, created_at)
+                    VALUES (v.content_hash, v.photo_path, v.photo_file_id, 1, CURRENT_TIMESTAMP))
+            """.formatted(COLUMNS);
+
+    private static final String RELEASE_SQL =
+            "UPDATE stored_photos SET ref_count = ref_count - 1 WHERE content_hash = ? AND ref_count > 0";
+
+    private static final String POSTGRESQL_DELETE_SQL =
+            "DELETE FROM stored_photos WHERE content_hash = ? AND ref_count = 0 RETURNING " + COLUMNS;
+
+    private static final String OLD_TABLE_DELETE_SQL = "SELECT " + COLUMNS
+            + " FROM OLD TABLE (DELETE FROM stored_photos WHERE content_hash = ? AND ref_count = 0)";
+
+    private static final RowMapper<StoredPhoto> STORED_PHOTO = (rs, rowNum) -> {
+        StoredPhoto storedPhoto = new StoredPhoto();
+        storedPhoto.setContentHash(rs.getString("content_hash"));
+        storedPhoto.setPhotoPath(rs.getString("photo_path"));
+        storedPhoto.setPhotoFileId(rs.getString("photo_file_id"));
+        storedPhoto.setVariants(PhotoVariants.of(rs.getString("photo_thumbnail_path"),
+                rs.getString("photo_card_path"), rs.getString("photo_full_path")));
+        storedPhoto.setVariantFileIds(PhotoVariants.of(rs.getString("thumbnail_file_id"),
+                rs.getString("card_file_id"), rs.getString("full_file_id")));
+        storedPhoto.setRefCount(rs.getLong("ref_count"));
+        return storedPhoto;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    public StoredPhotoRefRepository(JdbcTemplate jdbcTemplate, DatabasePlatform databasePlatform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+    }
+
+    // Take the first reference on a freshly uploaded object, or one more on the row stored for the same content
+    // meanwhile. Returns the row holding the reference, its photoPath tells which object is kept.
+    @Transactional
+    public StoredPhoto register(String contentHash, String photoPath, String photoFileId) {
+        return jdbcTemplate.queryForObject(databasePlatform.isPostgreSql() ? POSTGRESQL_REGISTER_SQL
+                : MERGE_REGISTER_SQL, STORED_PHOTO, contentHash, photoPath, photoFileId);
+    }
+
+    // Drop a reference and return the row if it was the last one, its objects are then the caller's to delete.
+    // Its own transaction, also when called once the book's transaction has committed.
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<StoredPhoto> release(String contentHash) {
+        if (jdbcTemplate.update(RELEASE_SQL, contentHash) == 0) {
+            return Optional.empty();
+        }
+        return jdbcTemplate.query(databasePlatform.isPostgreSql() ? POSTGRESQL_DELETE_SQL : OLD_TABLE_DELETE_SQL,
+                STORED_PHOTO, contentHash).stream().findFirst();
+    }
+}
@@ -0,0 +1,36 @@
+package com.dona_samsung_web_project.samsung_web_be.repository;
+
+import com.dona_samsung_web_project.samsung_web_be.model.PhotoVariants;
+import com.dona_samsung_web_project.samsung_web_be.model.StoredPhoto;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+// Reference counts only change through acquire below and StoredPhotoRefRepository, which registers new objects
+// and deletes a row with its last reference
+@Repository
+public interface StoredPhotoRepository extends JpaRepository<StoredPhoto, String> {
+
+    // Read right after the row is written, so from the primary
+    @Override
+    @Transactional
+    Optional<StoredPhoto> findById(String contentHash);
+
+    // Take a reference on an existing object, 0 means there is none. A row left at 0 is taken over by the
+    // registration of the next upload instead.
+    @Transactional
+    @Modifying
+    @Query("UPDATE StoredPhoto p SET p.refCount = p.refCount + 1 WHERE p.contentHash = :contentHash AND p.refCount > 0")
+    int acquire(String contentHash);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE StoredPhoto p SET p.variants = :variants, p.variantFileIds = :variantFileIds "
+            + "WHERE p.contentHash = :contentHash")
+    int updateVariants(String contentHash, PhotoVariants variants, PhotoVariants variantFileIds);
+}
@@ -1,55 +1,131 @@
 package com.dona_samsung_web_project.samsung_web_be.service;
 
+import com.dona_samsung_web_project.samsung_web_be.config.CacheConfig;
 import com.dona_samsung_web_project.samsung_web_be.exception.NotFoundException;
+import com.dona_samsung_web_project.samsung_web_be.index.AutocompleteIndex;
+import com.dona_samsung_web_project.samsung_web_be.index.BookSearchIndex;
+import com.dona_samsung_web_project.samsung_web_be.index.NewestBooksBuffer;
 import com.dona_samsung_web_project.samsung_web_be.model.Author;
 import com.dona_samsung_web_project.samsung_web_be.repository.AuthorRepository;
 
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.validation.constraints.NotNull;
 
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class AuthorService {
 
     private final AuthorRepository authorRepository;
+    private final BookSearchIndex bookSearchIndex;
+    private final NewestBooksBuffer newestBooksBuffer;
+    private final AutocompleteIndex autocompleteIndex;
+    private final SessionFactory sessionFactory;
 
-    public AuthorService(AuthorRepository authorRepository) {
+    public AuthorService(AuthorRepository authorRepository, BookSearchIndex bookSearchIndex,
+            NewestBooksBuffer newestBooksBuffer, AutocompleteIndex autocompleteIndex,
+            EntityManagerFactory entityManagerFactory) {
         this.authorRepository = authorRepository;
+        this.bookSearchIndex = bookSearchIndex;
+        this.newestBooksBuffer = newestBooksBuffer;
+        this.autocompleteIndex = autocompleteIndex;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
     }
 
     // Save an author
     public Author saveAuthor(@NotNull Author author) {
-        return authorRepository.save(author);
+        Author savedAuthor = authorRepository.save(author);
+        autocompleteIndex.putAuthor(savedAuthor);
+        return savedAuthor;
+    }
+
+    // Insert many new authors in one transaction, the inserts go out in JDBC batches
+    public List<Author> saveAuthors(@NotNull List<Author> authors) {
+        List<Author> savedAuthors = authorRepository.saveAll(authors);
+        savedAuthors.forEach(autocompleteIndex::putAuthor);
+        return savedAuthors;
     }
 
 
+    // Cached books embed their author, so they are dropped as well
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, allEntries = true)
     public Author updateAuthor(@NotNull Long id, Author updatedData) {
         Author existing = getAuthorById(id);
         existing.setName(updatedData.getName());
         existing.setDescription(updatedData.getDescription());
-        return authorRepository.save(existing);
+        Author savedAuthor = authorRepository.save(existing);
+        evictFromSecondLevelCache(id);
+        bookSearchIndex.updateAuthor(savedAuthor);
+        newestBooksBuffer.updateAuthor(savedAuthor);
+        autocompleteIndex.putAuthor(savedAuthor);
+        return savedAuthor;
     }
    
     // Get all authors with pagination
+    @Transactional(readOnly = true)
     public Page<Author> getAllAuthors(@NotNull Pageable pageable) {
         return authorRepository.findAll(pageable);
     }
 
-    // Find author by id
+    // Get authors after a keyset position, without OFFSET
+    @Transactional(readOnly = true)
+    public Window<Author> scrollAuthors(@NotNull ScrollPosition position, @NotNull Sort sort, int size) {
+        return authorRepository.findAllBy(position, sort, Limit.of(size));
+    }
+
+    // Get a slice of authors without counting the whole table
+    @Transactional(readOnly = true)
+    public Slice<Author> sliceAuthors(@NotNull Pageable pageable) {
+        return authorRepository.findSliceBy(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public long countAuthors() {
+        return authorRepository.count();
+    }
+
+    // Find author by id, on the primary since the result goes into the second-level cache
+    @Transactional
     public Author getAuthorById(Long id) {
         return authorRepository.findById(id)
         .orElseThrow(() -> new NotFoundException("Author with id " + id + " not found"));
     }
 
     // Delete an author by id
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, allEntries = true)
     public void deleteAuthor(Long id) {
         authorRepository.deleteById(id);
+        evictFromSecondLevelCache(id);
+        autocompleteIndex.removeAuthor(id);
     }
 
     // Search authors by name with pagination
+    @Transactional(readOnly = true)
     public Page<Author> searchAuthorsByName(@NotNull String name, @NotNull Pageable pageable) {
         return authorRepository.findByNameContainingIgnoreCase(name, pageable);
     }
+
+    @Transactional(readOnly = true)
+    public Slice<Author> sliceAuthorsByName(@NotNull String name, @NotNull Pageable pageable) {
+        return authorRepository.findSliceByNameContainingIgnoreCase(name, pageable);
+    }
+
+    // Hibernate refreshes the cached entry on commit; evicting as well makes the next read go to the database,
+    // which also clears a copy that was already stale (row changed by another instance or by hand)
+    private void evictFromSecondLevelCache(Long id) {
+        sessionFactory.getCache().evictEntityData(Author.class, id);
+        sessionFactory.getCache().evictQueryRegion(Author.QUERY_CACHE_REGION);
+    }
 }
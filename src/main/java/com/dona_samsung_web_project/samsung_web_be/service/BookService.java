@@ -1,24 +1,43 @@
 package com.dona_samsung_web_project.samsung_web_be.service;
 
 import com.dona_samsung_web_project.samsung_web_be.exception.NotFoundException;
+import com.dona_samsung_web_project.samsung_web_be.exception.ValidationException;
+import com.dona_samsung_web_project.samsung_web_be.index.AutocompleteIndex;
+import com.dona_samsung_web_project.samsung_web_be.index.BookSearchIndex;
+import com.dona_samsung_web_project.samsung_web_be.index.NewestBooksBuffer;
+import com.dona_samsung_web_project.samsung_web_be.index.TrendingTracker;
+import com.dona_samsung_web_project.samsung_web_be.index.TrendingWindow;
 import com.dona_samsung_web_project.samsung_web_be.model.Author;
 import com.dona_samsung_web_project.samsung_web_be.model.Book;
+import com.dona_samsung_web_project.samsung_web_be.model.TrendingItem;
 import com.dona_samsung_web_project.samsung_web_be.model.BookStatus;
+import com.dona_samsung_web_project.samsung_web_be.model.PhotoStatus;
+import com.dona_samsung_web_project.samsung_web_be.model.projection.BookListItem;
+import com.dona_samsung_web_project.samsung_web_be.model.projection.BookPhoto;
 import com.dona_samsung_web_project.samsung_web_be.repository.AuthorRepository;
 import com.dona_samsung_web_project.samsung_web_be.repository.BookRepository;
-import com.dona_samsung_web_project.samsung_web_be.storage.ImageKitStorageService;
+import com.dona_samsung_web_project.samsung_web_be.storage.ImageType;
 
 import jakarta.validation.constraints.NotNull;
 
-import java.util.UUID;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 @Service
@@ -26,17 +45,26 @@ public class BookService {
 
     private final BookRepository bookRepository;
     private final AuthorRepository authorRepository;
-    private final ImageKitStorageService imageKitStorageService;
-    private final String imageKitFolder;
+    private final PhotoUploadService photoUploadService;
+    private final BookSearchIndex bookSearchIndex;
+    private final NewestBooksBuffer newestBooksBuffer;
+    private final AutocompleteIndex autocompleteIndex;
+    private final TrendingTracker trendingTracker;
 
     public BookService(BookRepository bookRepository,
             AuthorRepository authorRepository,
-            ImageKitStorageService imageKitStorageService,
-            @Value("samsung-web") String imageKitFolder) {
+            PhotoUploadService photoUploadService,
+            BookSearchIndex bookSearchIndex,
+            NewestBooksBuffer newestBooksBuffer,
+            AutocompleteIndex autocompleteIndex,
+            TrendingTracker trendingTracker) {
         this.bookRepository = bookRepository;
         this.authorRepository = authorRepository;
-        this.imageKitStorageService = imageKitStorageService;
-        this.imageKitFolder = imageKitFolder;
+        this.photoUploadService = photoUploadService;
+        this.bookSearchIndex = bookSearchIndex;
+        this.newestBooksBuffer = newestBooksBuffer;
+        this.autocompleteIndex = autocompleteIndex;
+        this.trendingTracker = trendingTracker;
     }
 
     // Save a book (create or update)
@@ -49,34 +77,41 @@ public class BookService {
                 .orElseThrow(() -> new NotFoundException("Author not found"));
         book.setAuthor(author);
 
-        // Handle photo upload/update
+        // The photo, createdAt and borrowCount are not part of the request and save does not write them on an
+        // update, the returned book (also the one the in-memory views get) shows the stored ones. A new photo
+        // replaces the stored one once uploaded.
+        Book existingBook = book.getId() == null ? null : bookRepository.findById(book.getId()).orElse(null);
+        if (existingBook != null) {
+            book.setCreatedAt(existingBook.getCreatedAt());
+            book.setBorrowCount(existingBook.getBorrowCount());
+            book.setPhotoPath(existingBook.getPhotoPath());
+            book.setPhotoStatus(existingBook.getPhotoStatus());
+            book.setPhotoVariants(existingBook.getPhotoVariants());
+            book.setPendingPhoto(existingBook.getPendingPhoto());
+            book.setPhotoHash(existingBook.getPhotoHash());
+        }
+        String photoHash = null;
         if (photo != null && !photo.isEmpty()) {
-            // Validate file is image
-            String contentType = photo.getContentType();
-            if (contentType == null || !contentType.startsWith("image/")) {
-                throw new IllegalArgumentException("Uploaded file must be an image");
+            if (book.getId() != null && existingBook == null) {
+                throw new NotFoundException("Book not found");
             }
+            photoHash = spoolPhoto(book, photo);
+        }
 
-            // If updating, delete previous photo from ImageKit
-            if (book.getId() != null) {
-                Book existingBook = bookRepository.findById(book.getId())
-                        .orElseThrow(() -> new NotFoundException("Book not found"));
-                String oldPhotoPath = existingBook.getPhotoPath();
-                String oldFileId = extractImageKitFileIdFromUrl(oldPhotoPath);
-                if (oldFileId != null) {
-                    try {
-                        imageKitStorageService.deleteFile(oldFileId);
-                    } catch (Exception ignored) {
-                    }
-                }
-            }
-            // Add unique prefix to filename
-            String uniqueFileName = UUID.randomUUID() + "_" + photo.getOriginalFilename();
-            String photoUrl = imageKitStorageService.uploadFile(photo, uniqueFileName, imageKitFolder);
-            book.setPhotoPath(photoUrl);
+        Book savedBook = bookRepository.save(book);
+        if (existingBook != null && photoHash != null) {
+            bookRepository.startPhotoUpload(savedBook.getId(), savedBook.getPendingPhoto());
         }
+        refreshBookViews(savedBook);
+        submitPhoto(savedBook, photoHash);
+        return savedBook;
+    }
 
-        return bookRepository.save(book);
+    // Insert many new books in one transaction, their authors must already be loaded
+    public List<Book> saveBooks(@NotNull List<Book> books) {
+        List<Book> savedBooks = bookRepository.saveAll(books);
+        savedBooks.forEach(this::refreshBookViews);
+        return savedBooks;
     }
 
     public Book updateBook(Long id, Book updatedData, MultipartFile photo) throws Exception {
@@ -96,91 +131,150 @@ public class BookService {
             existingBook.setAuthor(author);
         }
 
-        // Handle photo
+        // Handle photo, the old one stays until the new one is uploaded
+        String photoHash = null;
         if (photo != null && !photo.isEmpty()) {
-            // Validate file is image
-            String contentType = photo.getContentType();
-            if (contentType == null || !contentType.startsWith("image/")) {
-                throw new IllegalArgumentException("Uploaded file must be an image");
-            }
+            photoHash = spoolPhoto(existingBook, photo);
+        }
 
-            // Delete old photo
-            String oldPhotoPath = existingBook.getPhotoPath();
-            String oldFileId = extractImageKitFileIdFromUrl(oldPhotoPath);
-            if (oldFileId != null) {
-                try {
-                    imageKitStorageService.deleteFile(oldFileId);
-                } catch (Exception ignored) {
-                }
-            }
+        Book savedBook = bookRepository.save(existingBook);
+        if (photoHash != null) {
+            bookRepository.startPhotoUpload(id, savedBook.getPendingPhoto());
+        }
+        refreshBookViews(savedBook);
+        submitPhoto(savedBook, photoHash);
+        return savedBook;
+    }
+
+    // The in-memory views only see committed books
+    private void refreshBookViews(Book book) {
+        AfterCommit.run(() -> {
+            bookSearchIndex.index(book);
+            newestBooksBuffer.put(book);
+            autocompleteIndex.putBook(book);
+        });
+    }
 
-            // Upload new photo
-            String uniqueFileName = UUID.randomUUID() + "_" + photo.getOriginalFilename();
-            String photoUrl = imageKitStorageService.uploadFile(photo, uniqueFileName, imageKitFolder);
-            existingBook.setPhotoPath(photoUrl);
+    // Validate the photo and spool it locally, the book is saved as PENDING and the upload happens afterwards.
+    // Returns the SHA-256 of the photo, computed while spooling.
+    private String spoolPhoto(Book book, MultipartFile photo) throws IOException {
+        // The format is read from the content, the declared type and name are the client's word
+        ImageType type;
+        try (InputStream in = photo.getInputStream()) {
+            type = ImageType.detect(in.readNBytes(ImageType.HEADER_LENGTH)).orElseThrow(
+                    () -> new ValidationException("Uploaded file must be a JPEG, PNG, GIF or WebP image"));
         }
+        String fileName = photoUploadService.newFileName(photo, type);
+        String photoHash = photoUploadService.spool(photo, fileName);
+        book.setPendingPhoto(fileName);
+        book.setPhotoStatus(PhotoStatus.PENDING);
+        return photoHash;
+    }
+
+    private void submitPhoto(Book savedBook, String photoHash) {
+        if (photoHash != null && savedBook.getPhotoStatus() == PhotoStatus.PENDING
+                && savedBook.getPendingPhoto() != null) {
+            photoUploadService.submit(savedBook.getId(), savedBook.getPendingPhoto(), photoHash);
+        }
+    }
 
-        return bookRepository.save(existingBook);
+    // Get all books with pagination, as list rows
+    @Transactional(readOnly = true)
+    public Page<BookListItem> getAllBooks(@NotNull Pageable pageable) {
+        return bookRepository.findListItems(pageable);
     }
 
-    // Get all books with pagination
-    public Page<Book> getAllBooks(@NotNull Pageable pageable) {
-        return bookRepository.findAll(pageable);
+    // Get books after a keyset position, without OFFSET
+    @Transactional(readOnly = true)
+    public Window<BookListItem> scrollBooks(@NotNull ScrollPosition position, @NotNull Sort sort, int size) {
+        return bookRepository.findAllBy(position, sort, Limit.of(size)).map(BookListItem::from);
     }
 
-    // Find book by id
+    // Get a slice of books without counting the whole table
+    @Transactional(readOnly = true)
+    public Slice<BookListItem> sliceBooks(@NotNull Pageable pageable) {
+        return bookRepository.findListItemSlice(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public long countBooks() {
+        return bookRepository.count();
+    }
+
+    // Find book by id. Not read-only: a cache miss is filled from the primary.
+    @Transactional
     public Book getBookById(Long id) {
         return bookRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Book with id " + id + " not found"));
     }
 
-    // Delete a book by id and its photo from ImageKit
+    // Delete a book by id and release its photo, which leaves the storage once no other book uses it.
+    // The photo is only released once the delete has committed, a book that still has loans keeps it.
+    // A pending upload is dropped by the upload worker.
+    @Transactional
     public void deleteBook(Long id) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Book with id " + id + " not found"));
-        String oldFileId = extractImageKitFileIdFromUrl(book.getPhotoPath());
-        if (oldFileId != null) {
-            try {
-                imageKitStorageService.deleteFile(oldFileId);
-            } catch (Exception ignored) {
-            }
-        }
         bookRepository.deleteById(id);
+        BookPhoto photo = BookPhoto.of(book);
+        AfterCommit.run(() -> {
+            photoUploadService.releasePhotos(photo);
+            bookSearchIndex.remove(id);
+            newestBooksBuffer.remove(id);
+            autocompleteIndex.removeBook(id);
+        });
     }
 
-    // Search books by title with pagination
+    // Search books by title with pagination, served from the in-memory index when possible
+    @Transactional(readOnly = true)
     public Page<Book> searchBooksByTitle(String title, Pageable pageable) {
-        return bookRepository.findByTitleContainingIgnoreCase(title, pageable);
+        return bookSearchIndex.searchByTitle(title, pageable)
+                .orElseGet(() -> bookRepository.findByTitleContainingIgnoreCase(title, pageable));
     }
 
-    // Search books by category with pagination
+    // Search books by category with pagination, served from the in-memory index when possible
+    @Transactional(readOnly = true)
     public Page<Book> searchBooksByCategory(String category, Pageable pageable) {
-        return bookRepository.findByCategoryContainingIgnoreCase(category, pageable);
+        return bookSearchIndex.searchByCategory(category, pageable)
+                .orElseGet(() -> bookRepository.findByCategoryContainingIgnoreCase(category, pageable));
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<Book> sliceBooksByTitle(String title, Pageable pageable) {
+        return bookSearchIndex.searchByTitle(title, pageable)
+                .<Slice<Book>>map(page -> new SliceImpl<>(page.getContent(), pageable, page.hasNext()))
+                .orElseGet(() -> bookRepository.findSliceByTitleContainingIgnoreCase(title, pageable));
     }
 
+    @Transactional(readOnly = true)
+    public Slice<Book> sliceBooksByCategory(String category, Pageable pageable) {
+        return bookSearchIndex.searchByCategory(category, pageable)
+                .<Slice<Book>>map(page -> new SliceImpl<>(page.getContent(), pageable, page.hasNext()))
+                .orElseGet(() -> bookRepository.findSliceByCategoryContainingIgnoreCase(category, pageable));
+    }
+
+    @Transactional(readOnly = true)
     public Page<Book> getTopBooksByBorrowedCount(int topN) {
-        Pageable pageable = PageRequest.of(0, topN);
-        return bookRepository.findTopBooksByBorrowedCount(pageable);
+        List<Book> books = bookRepository.findByOrderByBorrowCountDescIdAsc(Limit.of(topN));
+        return new PageImpl<>(books, PageRequest.of(0, topN), books.size());
     }
 
+    // Most borrowed books in a recent window, from the in-memory sketches and the entity cache
+    @Transactional
+    public List<TrendingItem<Book>> getTrendingBooks(TrendingWindow window, int topN) {
+        List<TrendingItem<Book>> trending = new ArrayList<>();
+        for (Map.Entry<Long, Long> entry : trendingTracker.topBooks(window, topN)) {
+            bookRepository.findById(entry.getKey())
+                    .ifPresent(book -> trending.add(new TrendingItem<>(book, entry.getValue())));
+        }
+        return trending;
+    }
+
+    // First pages come from the in-memory buffer, deeper pages from the database
+    @Transactional(readOnly = true)
     public Page<Book> getNewestAvailableBooks(int page, int size, BookStatus status) {
         Pageable pageable = PageRequest.of(page, size);
-        return bookRepository.findByStatusOrderByCreatedAtDesc(status, pageable);
-    }
-
-    // Helper to extract ImageKit fileId from URL
-    private String extractImageKitFileIdFromUrl(String url) {
-        if (url == null)
-            return null;
-        // Example: https://ik.imagekit.io/your_id/books/uuid_filename.jpg
-        try {
-            Pattern pattern = Pattern.compile("/([^/?#]+)$");
-            Matcher matcher = pattern.matcher(url);
-            if (matcher.find()) {
-                return matcher.group(1);
-            }
-        } catch (Exception ignored) {
-        }
-        return null;
+        return newestBooksBuffer.newest(status, pageable)
+                .orElseGet(() -> bookRepository.findByStatusOrderByCreatedAtDescIdDesc(status, pageable));
     }
-}
\ No newline at end of file
+}
@@ -2,37 +2,75 @@ package com.dona_samsung_web_project.samsung_web_be.service;
 
 import com.dona_samsung_web_project.samsung_web_be.exception.EntityExistException;
 import com.dona_samsung_web_project.samsung_web_be.exception.NotFoundException;
+import com.dona_samsung_web_project.samsung_web_be.exception.ValidationException;
+import com.dona_samsung_web_project.samsung_web_be.index.AutocompleteIndex;
+import com.dona_samsung_web_project.samsung_web_be.index.BookSearchIndex;
+import com.dona_samsung_web_project.samsung_web_be.index.NewestBooksBuffer;
+import com.dona_samsung_web_project.samsung_web_be.index.TrendingTracker;
 import com.dona_samsung_web_project.samsung_web_be.model.Book;
 import com.dona_samsung_web_project.samsung_web_be.model.BookStatus;
+import com.dona_samsung_web_project.samsung_web_be.model.BorrowBatchResult;
 import com.dona_samsung_web_project.samsung_web_be.model.BorrowedBook;
+import com.dona_samsung_web_project.samsung_web_be.model.BorrowedBookSearch;
 import com.dona_samsung_web_project.samsung_web_be.model.Member;
+import com.dona_samsung_web_project.samsung_web_be.model.projection.BorrowedBookListItem;
 import com.dona_samsung_web_project.samsung_web_be.repository.BookRepository;
+import com.dona_samsung_web_project.samsung_web_be.repository.BorrowBatchRepository;
 import com.dona_samsung_web_project.samsung_web_be.repository.BorrowedBookRepository;
+import com.dona_samsung_web_project.samsung_web_be.repository.BorrowedBookSpecifications;
 import com.dona_samsung_web_project.samsung_web_be.repository.MemberRepository;
 
-import jakarta.validation.ValidationException;
-
 import java.time.LocalDate;
-
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class BorrowedBookService {
 
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final BorrowedBookRepository borrowedBookRepository;
+    private final BorrowBatchRepository borrowBatchRepository;
     private final BookRepository bookRepository;
     private final MemberRepository memberRepository;
-
-    public BorrowedBookService(BorrowedBookRepository borrowedBookRepository, BookRepository bookRepository,
-            MemberRepository memberRepository) {
+    private final BookSearchIndex bookSearchIndex;
+    private final NewestBooksBuffer newestBooksBuffer;
+    private final AutocompleteIndex autocompleteIndex;
+    private final TrendingTracker trendingTracker;
+
+    public BorrowedBookService(BorrowedBookRepository borrowedBookRepository,
+            BorrowBatchRepository borrowBatchRepository, BookRepository bookRepository,
+            MemberRepository memberRepository, BookSearchIndex bookSearchIndex, NewestBooksBuffer newestBooksBuffer,
+            AutocompleteIndex autocompleteIndex, TrendingTracker trendingTracker) {
         this.borrowedBookRepository = borrowedBookRepository;
+        this.borrowBatchRepository = borrowBatchRepository;
         this.bookRepository = bookRepository;
         this.memberRepository = memberRepository;
+        this.bookSearchIndex = bookSearchIndex;
+        this.newestBooksBuffer = newestBooksBuffer;
+        this.autocompleteIndex = autocompleteIndex;
+        this.trendingTracker = trendingTracker;
     }
 
-    // Save or update a borrowed book
+    // Save or update a borrowed book. The book is claimed with a conditional UPDATE, so of two concurrent
+    // borrows of the same book exactly one wins and the other gets EntityExistException.
+    @Transactional
     public BorrowedBook saveBorrowedBook(BorrowedBook borrowedBook) {
         // Validate book
         if (borrowedBook.getBook() == null || borrowedBook.getBook().getId() == null) {
@@ -48,21 +86,20 @@ public class BorrowedBookService {
         Member member = memberRepository.findById(borrowedBook.getMember().getId())
                 .orElseThrow(() -> new NotFoundException("Member not found"));
 
-        Book oldBook = null;
+        BorrowedBook existing = null;
         if (borrowedBook.getId() != null) {
-            BorrowedBook existing = borrowedBookRepository.findById(borrowedBook.getId())
+            existing = borrowedBookRepository.findById(borrowedBook.getId())
                     .orElseThrow(() -> new NotFoundException("BorrowedBook not found"));
+        }
+        Long oldBookId = existing == null ? null : existing.getBook().getId();
+        Long oldMemberId = existing == null ? null : existing.getMember().getId();
 
+        if (!newBook.getId().equals(oldBookId)) {
             // If book id changes, revert old book status to AVAILABLE
-            if (!existing.getBook().getId().equals(newBook.getId())) {
-                oldBook = existing.getBook();
-                oldBook.setStatus(BookStatus.AVAILABLE);
+            if (existing != null && existing.getReturnDate() == null) {
+                flipStatus(existing.getBook(), BookStatus.BORROWED, BookStatus.AVAILABLE);
             }
-        }
-
-        // Check new book status
-        if (newBook.getStatus() != BookStatus.AVAILABLE) {
-            throw new EntityExistException("Book with id " + newBook.getId() + " is not available for borrowing");
+            claimBook(newBook);
         }
 
         // Set borrow date if new
@@ -70,54 +107,46 @@ public class BorrowedBookService {
             borrowedBook.setBorrowDate(LocalDate.now());
         }
 
-        // Set new book status to BORROWED
-        newBook.setStatus(BookStatus.BORROWED);
-
         borrowedBook.setBook(newBook);
         borrowedBook.setMember(member);
-        // Save oldBook if needed
-        if (oldBook != null) {
-            bookRepository.save(oldBook);
+        BorrowedBook savedBorrowedBook = borrowedBookRepository.save(borrowedBook);
+
+        moveBorrowCounts(oldBookId, newBook.getId(), oldMemberId, member.getId());
+        if (existing == null) {
+            trendingTracker.recordBorrow(newBook.getId(), member.getId());
         }
-        bookRepository.save(newBook);
-        return borrowedBookRepository.save(borrowedBook);
+        return savedBorrowedBook;
     }
 
+    @Transactional
     public BorrowedBook updateBorrowedBook(Long id, BorrowedBook updatedData) {
         BorrowedBook existing = borrowedBookRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("BorrowedBook not found"));
-
-        // Validate member
-        if (updatedData.getMember() != null && updatedData.getMember().getId() != null) {
-            Member member = memberRepository.findById(updatedData.getMember().getId())
-                    .orElseThrow(() -> new NotFoundException("Member not found"));
-            existing.setMember(member);
-        }
+        Long oldBookId = existing.getBook().getId();
+        Long oldMemberId = existing.getMember().getId();
 
         // Validate book
         if (updatedData.getBook() != null && updatedData.getBook().getId() != null) {
             Book newBook = bookRepository.findById(updatedData.getBook().getId())
                     .orElseThrow(() -> new NotFoundException("Book not found"));
 
-            if (!existing.getBook().getId().equals(newBook.getId())) {
-                // Revert old book status
-                Book oldBook = existing.getBook();
-                oldBook.setStatus(BookStatus.AVAILABLE);
-                bookRepository.save(oldBook);
-
-                // Check new book availability
-                if (newBook.getStatus() != BookStatus.AVAILABLE) {
-                    throw new EntityExistException(
-                            "Book with id " + newBook.getId() + " is not available for borrowing");
+            if (!oldBookId.equals(newBook.getId())) {
+                // Revert old book status, then claim the new one
+                if (existing.getReturnDate() == null) {
+                    flipStatus(existing.getBook(), BookStatus.BORROWED, BookStatus.AVAILABLE);
                 }
-
-                // Set new book status
-                newBook.setStatus(BookStatus.BORROWED);
+                claimBook(newBook);
                 existing.setBook(newBook);
-                bookRepository.save(newBook);
             }
         }
 
+        // Validate member
+        if (updatedData.getMember() != null && updatedData.getMember().getId() != null) {
+            Member member = memberRepository.findById(updatedData.getMember().getId())
+                    .orElseThrow(() -> new NotFoundException("Member not found"));
+            existing.setMember(member);
+        }
+
         // Update dates if provided
         if (updatedData.getBorrowDate() != null) {
             existing.setBorrowDate(updatedData.getBorrowDate());
@@ -127,66 +156,311 @@ public class BorrowedBookService {
         }
 
         // Save updated borrowed book (trigger @PreUpdate for updatedAt)
-        return borrowedBookRepository.save(existing);
+        BorrowedBook savedBorrowedBook = borrowedBookRepository.save(existing);
+        moveBorrowCounts(oldBookId, existing.getBook().getId(), oldMemberId, existing.getMember().getId());
+        return savedBorrowedBook;
     }
 
-    // Return a borrowed book (set return date and book status to AVAILABLE)
+    // Return a borrowed book (set return date and book status to AVAILABLE). The return date is set
+    // conditionally, so a book returned twice at the same time is only released once.
+    @Transactional
     public BorrowedBook returnBorrowedBook(Long borrowedBookId) {
         BorrowedBook borrowedBook = borrowedBookRepository.findById(borrowedBookId)
                 .orElseThrow(() -> new NotFoundException("BorrowedBook with id " + borrowedBookId + " not found"));
 
         // check if book is already returned
-        if (borrowedBook.getReturnDate() != null) {
+        LocalDate returnDate = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        if (borrowedBook.getReturnDate() != null
+                || borrowedBookRepository.markReturned(borrowedBookId, returnDate, now) == 0) {
             throw new ValidationException("Book with id " + borrowedBookId + " has already been returned");
         }
-        // Set return date
-        borrowedBook.setReturnDate(LocalDate.now());
+        borrowedBook.setReturnDate(returnDate);
+        borrowedBook.setUpdatedAt(now);
 
         // Set book status to AVAILABLE
-        Book book = borrowedBook.getBook();
-        book.setStatus(BookStatus.AVAILABLE);
-        bookRepository.save(book);
+        flipStatus(borrowedBook.getBook(), BookStatus.BORROWED, BookStatus.AVAILABLE);
+        return borrowedBook;
+    }
+
+    // Borrow many books at once: one IN query per table, batched claims and inserts, and a result per item.
+    // Items fail on their own (unknown book or member, book not available), the others are still borrowed.
+    public List<BorrowBatchResult> borrowBatch(List<BorrowedBook> borrowedBooks) {
+        checkBatchSize(borrowedBooks.size());
+        Set<Long> bookIds = new HashSet<>();
+        Set<Long> memberIds = new HashSet<>();
+        for (BorrowedBook borrowedBook : borrowedBooks) {
+            if (borrowedBook.getBook() != null && borrowedBook.getBook().getId() != null) {
+                bookIds.add(borrowedBook.getBook().getId());
+            }
+            if (borrowedBook.getMember() != null && borrowedBook.getMember().getId() != null) {
+                memberIds.add(borrowedBook.getMember().getId());
+            }
+        }
+        Map<Long, Book> books = new HashMap<>();
+        bookRepository.findAllWithAuthorByIdIn(bookIds).forEach(book -> books.put(book.getId(), book));
+        Map<Long, Member> members = new HashMap<>();
+        memberRepository.findAllById(memberIds).forEach(member -> members.put(member.getId(), member));
+
+        BorrowBatchResult[] results = new BorrowBatchResult[borrowedBooks.size()];
+        List<BorrowedBook> loans = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        Set<Long> requested = new HashSet<>();
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < borrowedBooks.size(); i++) {
+            BorrowedBook borrowedBook = borrowedBooks.get(i);
+            Long bookId = borrowedBook.getBook() == null ? null : borrowedBook.getBook().getId();
+            Long memberId = borrowedBook.getMember() == null ? null : borrowedBook.getMember().getId();
+            Book book = bookId == null ? null : books.get(bookId);
+            Member member = memberId == null ? null : members.get(memberId);
+            if (book == null) {
+                results[i] = new BorrowBatchResult(i, null, bookId, memberId, false, "Book not found");
+            } else if (member == null) {
+                results[i] = new BorrowBatchResult(i, null, bookId, memberId, false, "Member not found");
+            } else if (book.getStatus() != BookStatus.AVAILABLE || !requested.add(bookId)) {
+                results[i] = new BorrowBatchResult(i, null, bookId, memberId, false,
+                        "Book with id " + bookId + " is not available for borrowing");
+            } else {
+                BorrowedBook loan = new BorrowedBook();
+                loan.setBook(book);
+                loan.setMember(member);
+                loan.setBorrowDate(today);
+                loans.add(loan);
+                positions.add(i);
+            }
+        }
+        if (loans.isEmpty()) {
+            return Arrays.asList(results);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = borrowBatchRepository.borrowAll(loans, now);
+        for (int k = 0; k < loans.size(); k++) {
+            int i = positions.get(k);
+            Book book = loans.get(k).getBook();
+            Long memberId = loans.get(k).getMember().getId();
+            if (ids.get(k) == null) {
+                results[i] = new BorrowBatchResult(i, null, book.getId(), memberId, false,
+                        "Book with id " + book.getId() + " is not available for borrowing");
+                continue;
+            }
+            book.setStatus(BookStatus.BORROWED);
+            book.setUpdatedAt(now);
+            book.setBorrowCount(book.getBorrowCount() + 1);
+            refreshBookViews(book);
+            autocompleteIndex.addBookBorrows(book.getId(), 1);
+            autocompleteIndex.addMemberBorrows(memberId, 1);
+            trendingTracker.recordBorrow(book.getId(), memberId);
+            results[i] = new BorrowBatchResult(i, ids.get(k), book.getId(), memberId, true, "Borrowed");
+        }
+        return Arrays.asList(results);
+    }
+
+    // Return many loans at once with one IN query and batched updates, and a result per item
+    public List<BorrowBatchResult> returnBatch(List<Long> borrowedBookIds) {
+        checkBatchSize(borrowedBookIds.size());
+        Set<Long> ids = new HashSet<>(borrowedBookIds);
+        ids.remove(null);
+        Map<Long, BorrowedBook> found = new HashMap<>();
+        borrowedBookRepository.findAllWithBookAndMemberByIdIn(ids).forEach(loan -> found.put(loan.getId(), loan));
+
+        BorrowBatchResult[] results = new BorrowBatchResult[borrowedBookIds.size()];
+        List<BorrowedBook> loans = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        Set<Long> requested = new HashSet<>();
+        for (int i = 0; i < borrowedBookIds.size(); i++) {
+            Long id = borrowedBookIds.get(i);
+            BorrowedBook loan = id == null ? null : found.get(id);
+            if (loan == null) {
+                results[i] = new BorrowBatchResult(i, id, null, null, false,
+                        "BorrowedBook with id " + id + " not found");
+            } else if (loan.getReturnDate() != null || !requested.add(id)) {
+                results[i] = new BorrowBatchResult(i, id, loan.getBook().getId(), loan.getMember().getId(), false,
+                        "Book with id " + id + " has already been returned");
+            } else {
+                loans.add(loan);
+                positions.add(i);
+            }
+        }
+        if (loans.isEmpty()) {
+            return Arrays.asList(results);
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        boolean[] returned = borrowBatchRepository.returnAll(loans, today, now);
+        for (int k = 0; k < loans.size(); k++) {
+            int i = positions.get(k);
+            BorrowedBook loan = loans.get(k);
+            if (!returned[k]) {
+                results[i] = new BorrowBatchResult(i, loan.getId(), loan.getBook().getId(),
+                        loan.getMember().getId(), false, "Book with id " + loan.getId() + " has already been returned");
+                continue;
+            }
+            Book book = loan.getBook();
+            book.setStatus(BookStatus.AVAILABLE);
+            book.setUpdatedAt(now);
+            refreshBookViews(book);
+            results[i] = new BorrowBatchResult(i, loan.getId(), book.getId(), loan.getMember().getId(), true,
+                    "Returned");
+        }
+        return Arrays.asList(results);
+    }
+
+    // Get all borrowed books with pagination, as list rows
+    @Transactional(readOnly = true)
+    public Page<BorrowedBookListItem> getAllBorrowedBooks(Pageable pageable) {
+        return borrowedBookRepository.findListItems(pageable);
+    }
+
+    // Get borrowed books after a keyset position, without OFFSET
+    @Transactional(readOnly = true)
+    public Window<BorrowedBookListItem> scrollBorrowedBooks(ScrollPosition position, Sort sort, int size) {
+        return borrowedBookRepository.findAllBy(position, sort, Limit.of(size)).map(BorrowedBookListItem::from);
+    }
+
+    // Get a slice of borrowed books without counting the whole table
+    @Transactional(readOnly = true)
+    public Slice<BorrowedBookListItem> sliceBorrowedBooks(Pageable pageable) {
+        return borrowedBookRepository.findListItemSlice(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<BorrowedBookListItem> sliceBorrowedBooksByMemberId(Long memberId, Pageable pageable) {
+        return borrowedBookRepository.findListItemSliceByMemberId(memberId, pageable);
+    }
 
-        return borrowedBookRepository.save(borrowedBook);
+    @Transactional(readOnly = true)
+    public Slice<BorrowedBookListItem> sliceBorrowedBooksByBookId(Long bookId, Pageable pageable) {
+        return borrowedBookRepository.findListItemSliceByBookId(bookId, pageable);
     }
 
-    // Get all borrowed books with pagination
-    public Page<BorrowedBook> getAllBorrowedBooks(Pageable pageable) {
-        return borrowedBookRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public long countBorrowedBooks() {
+        return borrowedBookRepository.count();
     }
 
     // Find borrowed book by id
+    @Transactional(readOnly = true)
     public BorrowedBook getBorrowedBookById(Long id) {
         return borrowedBookRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("BorrowedBook with id " + id + " not found"));
     }
 
     // Delete a borrowed book by id
+    @Transactional
     public void deleteBorrowedBook(Long id) {
+        BorrowedBook borrowedBook = getBorrowedBookById(id);
         borrowedBookRepository.deleteById(id);
+        moveBorrowCounts(borrowedBook.getBook().getId(), null, borrowedBook.getMember().getId(), null);
     }
 
     // Get borrowed books by member id with pagination
-    public Page<BorrowedBook> getBorrowedBooksByMemberId(Long memberId, Pageable pageable) {
-        return borrowedBookRepository.findByMemberId(memberId, pageable);
+    @Transactional(readOnly = true)
+    public Page<BorrowedBookListItem> getBorrowedBooksByMemberId(Long memberId, Pageable pageable) {
+        return borrowedBookRepository.findListItemsByMemberId(memberId, pageable);
     }
 
     // Get borrowed books by book id with pagination
-    public Page<BorrowedBook> getBorrowedBooksByBookId(Long bookId, Pageable pageable) {
-        return borrowedBookRepository.findByBookId(bookId, pageable);
-    }
-
-    // Search borrowed books by book title or member name
-    public Page<BorrowedBook> searchBorrowedBooks(String bookTitle, String memberName, String borrowDate,
-            Pageable pageable) {
-        java.time.LocalDate date = null;
-        if (borrowDate != null && !borrowDate.isBlank()) {
-            date = java.time.LocalDate.parse(borrowDate);
-        }
-        return borrowedBookRepository.findByBookTitleContainingIgnoreCaseOrMemberNameContainingIgnoreCaseOrBorrowDate(
-                (bookTitle == null || bookTitle.isBlank()) ? null : bookTitle,
-                (memberName == null || memberName.isBlank()) ? null : memberName,
-                date,
-                pageable);
+    @Transactional(readOnly = true)
+    public Page<BorrowedBookListItem> getBorrowedBooksByBookId(Long bookId, Pageable pageable) {
+        return borrowedBookRepository.findListItemsByBookId(bookId, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Window<BorrowedBookListItem> scrollBorrowedBooksByMemberId(Long memberId, ScrollPosition position,
+            Sort sort, int size) {
+        return borrowedBookRepository.findByMemberId(memberId, position, sort, Limit.of(size))
+                .map(BorrowedBookListItem::from);
+    }
+
+    @Transactional(readOnly = true)
+    public Window<BorrowedBookListItem> scrollBorrowedBooksByBookId(Long bookId, ScrollPosition position,
+            Sort sort, int size) {
+        return borrowedBookRepository.findByBookId(bookId, position, sort, Limit.of(size))
+                .map(BorrowedBookListItem::from);
+    }
+
+    @Transactional(readOnly = true)
+    public long countBorrowedBooksByMemberId(Long memberId) {
+        return borrowedBookRepository.countByMemberId(memberId);
+    }
+
+    @Transactional(readOnly = true)
+    public long countBorrowedBooksByBookId(Long bookId) {
+        return borrowedBookRepository.countByBookId(bookId);
+    }
+
+    // Search borrowed books with only the given criteria, book and member are fetched in the same query
+    @Transactional(readOnly = true)
+    public Page<BorrowedBookListItem> searchBorrowedBooks(BorrowedBookSearch search, Pageable pageable) {
+        return borrowedBookRepository.findBy(BorrowedBookSpecifications.matching(search),
+                query -> query.project("book", "member").page(pageable))
+                .map(BorrowedBookListItem::from);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<BorrowedBookListItem> sliceSearchBorrowedBooks(BorrowedBookSearch search, Pageable pageable) {
+        return borrowedBookRepository.findBy(BorrowedBookSpecifications.matching(search),
+                query -> query.project("book", "member").slice(pageable))
+                .map(BorrowedBookListItem::from);
+    }
+
+    // Claim an available book in one round trip, the WHERE clause is the availability check
+    private void claimBook(Book book) {
+        if (!flipStatus(book, BookStatus.AVAILABLE, BookStatus.BORROWED)) {
+            throw new EntityExistException("Book with id " + book.getId() + " is not available for borrowing");
+        }
+    }
+
+    // Conditional status change, the in-memory book views follow once it commits. False when the status was not
+    // expected.
+    private boolean flipStatus(Book book, BookStatus expected, BookStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        if (bookRepository.updateStatusIf(book.getId(), expected, status, now) == 0) {
+            return false;
+        }
+        book.setStatus(status);
+        book.setUpdatedAt(now);
+        refreshBookViews(book);
+        return true;
+    }
+
+    private void refreshBookViews(Book book) {
+        AfterCommit.run(() -> {
+            bookSearchIndex.index(book);
+            newestBooksBuffer.put(book);
+            autocompleteIndex.putBook(book);
+        });
+    }
+
+    private static void checkBatchSize(int size) {
+        if (size > MAX_BATCH_SIZE) {
+            throw new ValidationException("A batch can hold at most " + MAX_BATCH_SIZE + " items");
+        }
+    }
+
+    // Keep the denormalized borrow counters in step with the ledger when a loan moves, appears or disappears
+    private void moveBorrowCounts(Long oldBookId, Long newBookId, Long oldMemberId, Long newMemberId) {
+        if (oldBookId == null || !oldBookId.equals(newBookId)) {
+            if (oldBookId != null) {
+                bookRepository.addBorrowCount(oldBookId, -1);
+                AfterCommit.run(() -> autocompleteIndex.addBookBorrows(oldBookId, -1));
+            }
+            if (newBookId != null) {
+                bookRepository.addBorrowCount(newBookId, 1);
+                AfterCommit.run(() -> autocompleteIndex.addBookBorrows(newBookId, 1));
+            }
+        }
+        if (oldMemberId == null || !oldMemberId.equals(newMemberId)) {
+            if (oldMemberId != null) {
+                memberRepository.addBorrowCount(oldMemberId, -1);
+                AfterCommit.run(() -> autocompleteIndex.addMemberBorrows(oldMemberId, -1));
+            }
+            if (newMemberId != null) {
+                memberRepository.addBorrowCount(newMemberId, 1);
+                AfterCommit.run(() -> autocompleteIndex.addMemberBorrows(newMemberId, 1));
+            }
+        }
     }
 }
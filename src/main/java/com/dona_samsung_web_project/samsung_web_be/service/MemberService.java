@@ -1,57 +1,126 @@
 package com.dona_samsung_web_project.samsung_web_be.service;
 
-import com.dona_samsung_web_project.samsung_web_be.exception.EntityExistException;
 import com.dona_samsung_web_project.samsung_web_be.exception.NotFoundException;
+import com.dona_samsung_web_project.samsung_web_be.exception.ValidationException;
+import com.dona_samsung_web_project.samsung_web_be.index.AutocompleteIndex;
+import com.dona_samsung_web_project.samsung_web_be.index.TrendingTracker;
+import com.dona_samsung_web_project.samsung_web_be.index.TrendingWindow;
 import com.dona_samsung_web_project.samsung_web_be.model.Member;
+import com.dona_samsung_web_project.samsung_web_be.model.TrendingItem;
+import com.dona_samsung_web_project.samsung_web_be.repository.MemberBulkRepository;
 import com.dona_samsung_web_project.samsung_web_be.repository.MemberRepository;
 
 import jakarta.validation.constraints.NotNull;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class MemberService {
 
+    private static final int UPSERT_REFRESH_CHUNK = 1000;
+
     private final MemberRepository memberRepository;
+    private final MemberBulkRepository memberBulkRepository;
+    private final TrendingTracker trendingTracker;
+    private final AutocompleteIndex autocompleteIndex;
 
-    public MemberService(MemberRepository memberRepository) {
+    public MemberService(MemberRepository memberRepository, MemberBulkRepository memberBulkRepository,
+            TrendingTracker trendingTracker, AutocompleteIndex autocompleteIndex) {
         this.memberRepository = memberRepository;
+        this.memberBulkRepository = memberBulkRepository;
+        this.trendingTracker = trendingTracker;
+        this.autocompleteIndex = autocompleteIndex;
     }
 
-    // Save an member
+    // Save an member with a single INSERT, a duplicate email fails on the unique constraint (see ErrorController)
     public Member saveMember(@NotNull Member member) {
-        // Jika ID null, berarti create, cukup cek existsByEmail
-        if (member.getId() == null) {
-            if (memberRepository.existsByEmail(member.getEmail())) {
-                throw new EntityExistException("Email already exists");
-            }
-        } else {
-            // Jika update, cek apakah ada member lain dengan email yang sama
-            Member existing = memberRepository.findByEmail(member.getEmail());
-            if (existing != null && !existing.getId().equals(member.getId())) {
-                throw new EntityExistException("Email already exists");
-            }
+        if (member.getId() != null) {
+            return updateMember(member.getId(), member);
         }
-        return memberRepository.save(member);
+        Member savedMember = memberRepository.save(member);
+        autocompleteIndex.putMember(savedMember);
+        return savedMember;
     }
 
+    // Single UPDATE statement, the current row usually comes from the cache
     public Member updateMember(@NotNull Long id, Member updatedData) {
-        Member existing = getMemberById(id); // Ini managed entity
+        Member existing = getMemberById(id);
+        LocalDateTime now = LocalDateTime.now();
+        int updated = memberRepository.updateDetails(id, updatedData.getName(), updatedData.getEmail(),
+                updatedData.getPhone(), now);
+        if (updated == 0) {
+            throw new NotFoundException("Member with id " + id + " not found");
+        }
         existing.setName(updatedData.getName());
         existing.setEmail(updatedData.getEmail());
         existing.setPhone(updatedData.getPhone());
-        return memberRepository.save(existing);
+        existing.setUpdatedAt(now);
+        autocompleteIndex.putMember(existing);
+        return existing;
+    }
+
+    // Insert or update members by email in batches, the last row wins when an email repeats
+    public int upsertMembers(@NotNull List<Member> members) {
+        Map<String, Member> byEmail = new LinkedHashMap<>();
+        for (Member member : members) {
+            if (member.getName() == null || member.getName().isBlank()
+                    || member.getEmail() == null || member.getEmail().isBlank()) {
+                throw new ValidationException("Name and email are required for every member");
+            }
+            byEmail.put(member.getEmail(), member);
+        }
+        int upserted = memberBulkRepository.upsertByEmail(new ArrayList<>(byEmail.values()));
+
+        // Ids of the new rows are only known after the write
+        List<String> emails = new ArrayList<>(byEmail.keySet());
+        for (int from = 0; from < emails.size(); from += UPSERT_REFRESH_CHUNK) {
+            List<String> chunk = emails.subList(from, Math.min(from + UPSERT_REFRESH_CHUNK, emails.size()));
+            memberRepository.findByEmailIn(chunk).forEach(autocompleteIndex::putMember);
+        }
+        return upserted;
     }
 
     // Get all members with pagination
+    @Transactional(readOnly = true)
     public Page<Member> getAllMembers(@NotNull Pageable pageable) {
         return memberRepository.findAll(pageable);
     }
 
-    // Find member by id
+    // Get members after a keyset position, without OFFSET
+    @Transactional(readOnly = true)
+    public Window<Member> scrollMembers(@NotNull ScrollPosition position, @NotNull Sort sort, int size) {
+        return memberRepository.findAllBy(position, sort, Limit.of(size));
+    }
+
+    // Get a slice of members without counting the whole table
+    @Transactional(readOnly = true)
+    public Slice<Member> sliceMembers(@NotNull Pageable pageable) {
+        return memberRepository.findSliceBy(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public long countMembers() {
+        return memberRepository.count();
+    }
+
+    // Find member by id. Not read-only: a cache miss is filled from the primary.
+    @Transactional
     public Member getMemberById(Long id) {
         return memberRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Member with id " + id + " not found"));
@@ -60,15 +129,34 @@ public class MemberService {
     // Delete an member by id
     public void deleteMember(Long id) {
         memberRepository.deleteById(id);
+        autocompleteIndex.removeMember(id);
     }
 
     // Search members by name with pagination
+    @Transactional(readOnly = true)
     public Page<Member> searchMembersByName(@NotNull String name, @NotNull Pageable pageable) {
         return memberRepository.findByNameContainingIgnoreCase(name, pageable);
     }
 
+    @Transactional(readOnly = true)
+    public Slice<Member> sliceMembersByName(@NotNull String name, @NotNull Pageable pageable) {
+        return memberRepository.findSliceByNameContainingIgnoreCase(name, pageable);
+    }
+
+    @Transactional(readOnly = true)
     public Page<Member> getTopMembersByBorrowedCount(int topN) {
-        Pageable pageable = PageRequest.of(0, topN);
-        return memberRepository.findTopMembersByBorrowedCount(pageable);
+        List<Member> members = memberRepository.findByOrderByBorrowCountDescIdAsc(Limit.of(topN));
+        return new PageImpl<>(members, PageRequest.of(0, topN), members.size());
+    }
+
+    // Most borrowed members in a recent window, from the in-memory sketches and the entity cache
+    @Transactional
+    public List<TrendingItem<Member>> getTrendingMembers(TrendingWindow window, int topN) {
+        List<TrendingItem<Member>> trending = new ArrayList<>();
+        for (Map.Entry<Long, Long> entry : trendingTracker.topMembers(window, topN)) {
+            memberRepository.findById(entry.getKey())
+                    .ifPresent(member -> trending.add(new TrendingItem<>(member, entry.getValue())));
+        }
+        return trending;
     }
 }
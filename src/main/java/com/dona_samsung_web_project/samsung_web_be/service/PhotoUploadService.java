@@ -0,0 +1,386 @@
+package com.dona_samsung_web_project.samsung_web_be.service;
+
+import com.dona_samsung_web_project.samsung_web_be.index.BookSearchIndex;
+import com.dona_samsung_web_project.samsung_web_be.index.NewestBooksBuffer;
+import com.dona_samsung_web_project.samsung_web_be.model.Book;
+import com.dona_samsung_web_project.samsung_web_be.model.PhotoStatus;
+import com.dona_samsung_web_project.samsung_web_be.model.PhotoVariants;
+import com.dona_samsung_web_project.samsung_web_be.model.StoredPhoto;
+import com.dona_samsung_web_project.samsung_web_be.model.projection.BookPhoto;
+import com.dona_samsung_web_project.samsung_web_be.repository.BookPhotoRepository;
+import com.dona_samsung_web_project.samsung_web_be.repository.BookRepository;
+import com.dona_samsung_web_project.samsung_web_be.repository.StoredPhotoRefRepository;
+import com.dona_samsung_web_project.samsung_web_be.repository.StoredPhotoRepository;
+import com.dona_samsung_web_project.samsung_web_be.storage.ImageType;
+import com.dona_samsung_web_project.samsung_web_be.storage.PhotoVariant;
+import com.dona_samsung_web_project.samsung_web_be.storage.PhotoVariantGenerator;
+import com.dona_samsung_web_project.samsung_web_be.storage.StorageService;
+import com.dona_samsung_web_project.samsung_web_be.storage.UploadedFile;
+
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+// Book photos are written to a local spool directory on the request thread and uploaded to the storage by a
+// small worker pool. Failed uploads are retried with exponential backoff; when one lands, the book's photoPath
+// is patched and the photo it replaces is deleted. The spool survives restarts, pending uploads are resumed.
+// Resized variants are then generated from the spool file by a separate pool of low-priority threads, so CPU
+// spent on images is capped whatever the number of uploads; a photo without variants keeps only photoPath.
+// Photos are stored once per content: the SHA-256 taken while spooling is looked up in stored_photos and a
+// known photo is shared, with its variants, instead of uploaded again. The storage objects are deleted when
+// the last book referencing them releases the photo.
+@Service
+public class PhotoUploadService {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoUploadService.class);
+
+    private static final Pattern UNSAFE_FILE_NAME_CHARS = Pattern.compile("[^A-Za-z0-9._-]");
+    private static final Pattern URL_FILE_NAME = Pattern.compile("/([^/?#]+)$");
+
+    private final BookRepository bookRepository;
+    private final BookPhotoRepository bookPhotoRepository;
+    private final StoredPhotoRepository storedPhotoRepository;
+    private final StoredPhotoRefRepository storedPhotoRefRepository;
+    private final StorageService storageService;
+    private final PhotoVariantGenerator photoVariantGenerator;
+    private final BookSearchIndex bookSearchIndex;
+    private final NewestBooksBuffer newestBooksBuffer;
+    private final Path spoolDirectory;
+    private final String folder;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final ScheduledExecutorService executor;
+    private final ExecutorService variantExecutor;
+    private final FileTime startedAt = FileTime.fromMillis(System.currentTimeMillis());
+
+    public PhotoUploadService(BookRepository bookRepository,
+            BookPhotoRepository bookPhotoRepository,
+            StoredPhotoRepository storedPhotoRepository,
+            StoredPhotoRefRepository storedPhotoRefRepository,
+            StorageService storageService,
+            PhotoVariantGenerator photoVariantGenerator,
+            BookSearchIndex bookSearchIndex,
+            NewestBooksBuffer newestBooksBuffer,
+            @Value("${photo-upload.spool-dir}") Path spoolDirectory,
+            @Value("${photo-upload.folder}") String folder,
+            @Value("${photo-upload.concurrency}") int concurrency,
+            @Value("${photo-upload.max-attempts}") int maxAttempts,
+            @Value("${photo-upload.initial-backoff}") Duration initialBackoff,
+            @Value("${photo-variants.concurrency}") int variantConcurrency) throws IOException {
+        this.bookRepository = bookRepository;
+        this.bookPhotoRepository = bookPhotoRepository;
+        this.storedPhotoRepository = storedPhotoRepository;
+        this.storedPhotoRefRepository = storedPhotoRefRepository;
+        this.storageService = storageService;
+        this.photoVariantGenerator = photoVariantGenerator;
+        this.bookSearchIndex = bookSearchIndex;
+        this.newestBooksBuffer = newestBooksBuffer;
+        this.spoolDirectory = Files.createDirectories(spoolDirectory);
+        this.folder = folder;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        // At most `concurrency` uploads at a time, the rest wait in the queue as spool file names
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(concurrency,
+                Thread.ofPlatform().name("photo-upload-", 1).factory());
+        executor.setRemoveOnCancelPolicy(true);
+        this.executor = executor;
+        this.variantExecutor = Executors.newFixedThreadPool(variantConcurrency,
+                Thread.ofPlatform().name("photo-variants-", 1).priority(Thread.MIN_PRIORITY).factory());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Unfinished uploads stay in the spool and are resumed on the next start
+        executor.shutdownNow();
+        variantExecutor.shutdownNow();
+    }
+
+    // Unique name for an uploaded photo, also its spool file name. The extension is the one of the detected
+    // format, whatever the client named the file.
+    public String newFileName(MultipartFile photo, ImageType type) {
+        String original = photo.getOriginalFilename() == null ? "photo" : photo.getOriginalFilename();
+        String baseName = original.contains(".") ? original.substring(0, original.lastIndexOf('.')) : original;
+        return UUID.randomUUID() + "_" + UNSAFE_FILE_NAME_CHARS.matcher(baseName).replaceAll("_") + "."
+                + type.getExtension();
+    }
+
+    // Copy the photo into the spool, before the book that references it is saved, and return its SHA-256.
+    // The hash is taken on the way, the photo is read only once.
+    public String spool(MultipartFile photo, String fileName) throws IOException {
+        try (InputStream in = photo.getInputStream()) {
+            return copyAndHash(in, spoolDirectory.resolve(fileName));
+        }
+    }
+
+    // Queue the upload of a spooled photo, the book must already be saved as PENDING with this file name
+    public void submit(Long bookId, String fileName, String photoHash) {
+        executor.execute(() -> upload(bookId, fileName, photoHash, 1));
+    }
+
+    // Drop the book's reference on its photo, the storage objects go once nothing references them.
+    // Books uploaded before dedup own their photo and delete it directly.
+    public void releasePhotos(BookPhoto photo) {
+        if (photo.photoHash() == null) {
+            deletePhotos(photo);
+        } else {
+            release(photo.photoHash());
+        }
+    }
+
+    // Whoever drops the last reference gets the deleted row and deletes the objects
+    private void release(String photoHash) {
+        storedPhotoRefRepository.release(photoHash).ifPresent(this::deleteStoredPhoto);
+    }
+
+    private void deleteStoredPhoto(StoredPhoto storedPhoto) {
+        deleteFile(storedPhoto.getPhotoFileId(), storedPhoto.getPhotoPath());
+        PhotoVariants urls = storedPhoto.getVariants();
+        if (urls != null) {
+            PhotoVariants fileIds = storedPhoto.getVariantFileIds();
+            deleteFile(fileIds == null ? null : fileIds.getThumbnail(), urls.getThumbnail());
+            deleteFile(fileIds == null ? null : fileIds.getCard(), urls.getCard());
+            deleteFile(fileIds == null ? null : fileIds.getFull(), urls.getFull());
+        }
+    }
+
+    // Delete the stored photo of a book and its variants
+    private void deletePhotos(BookPhoto photo) {
+        deletePhoto(photo.photoPath());
+        if (photo.variants() != null) {
+            photo.variants().urls().forEach(this::deletePhoto);
+        }
+    }
+
+    // Delete a photo stored without its id, the last segment of its URL is the id for the local storages
+    private void deletePhoto(String photoUrl) {
+        deleteFile(null, photoUrl);
+    }
+
+    // Delete a stored file by its id, or its URL if the id was not kept. Storage errors only leave an orphan
+    // behind.
+    private void deleteFile(String fileId, String url) {
+        if (fileId == null && url != null) {
+            Matcher matcher = URL_FILE_NAME.matcher(url);
+            fileId = matcher.find() ? matcher.group(1) : null;
+        }
+        if (fileId == null) {
+            return;
+        }
+        try {
+            storageService.deleteFile(fileId);
+        } catch (Exception e) {
+            log.debug("Could not delete photo {}", url == null ? fileId : url, e);
+        }
+    }
+
+    // Resume uploads that were pending when the application stopped and clear spool files nothing waits for
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() throws IOException {
+        Set<String> pending = new HashSet<>();
+        for (Book book : bookRepository.findByPhotoStatus(PhotoStatus.PENDING)) {
+            Path file = spoolDirectory.resolve(book.getPendingPhoto());
+            if (Files.exists(file)) {
+                pending.add(book.getPendingPhoto());
+                try (InputStream in = Files.newInputStream(file)) {
+                    submit(book.getId(), book.getPendingPhoto(), copyAndHash(in, null));
+                }
+            } else {
+                log.warn("Spooled photo {} of book {} is missing", book.getPendingPhoto(), book.getId());
+                bookRepository.failPhotoUpload(book.getId(), book.getPendingPhoto());
+            }
+        }
+        // Files spooled since the start belong to requests still in progress
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDirectory)) {
+            for (Path file : files) {
+                if (!pending.contains(file.getFileName().toString())
+                        && Files.getLastModifiedTime(file).compareTo(startedAt) < 0) {
+                    deleteSpoolFile(file);
+                }
+            }
+        }
+        if (!pending.isEmpty()) {
+            log.info("Resumed {} pending photo uploads", pending.size());
+        }
+    }
+
+    private void upload(Long bookId, String fileName, String photoHash, int attempt) {
+        Path file = spoolDirectory.resolve(fileName);
+        // A newer photo was submitted meanwhile or the book was deleted
+        if (!isPending(bookId, fileName)) {
+            deleteSpoolFile(file);
+            return;
+        }
+        // Same content already stored: share it, no upload and no new variants
+        if (storedPhotoRepository.acquire(photoHash) == 1) {
+            share(bookId, fileName, storedPhotoRepository.findById(photoHash).orElseThrow(), photoHash);
+            deleteSpoolFile(file);
+            return;
+        }
+        UploadedFile uploaded;
+        try {
+            uploaded = storageService.uploadFile(file, fileName, folder);
+        } catch (Exception e) {
+            if (attempt >= maxAttempts) {
+                log.error("Giving up on photo {} of book {} after {} attempts", fileName, bookId, attempt, e);
+                bookRepository.failPhotoUpload(bookId, fileName);
+                deleteSpoolFile(file);
+                return;
+            }
+            Duration backoff = initialBackoff.multipliedBy(1L << (attempt - 1));
+            log.warn("Upload of photo {} of book {} failed (attempt {}), retrying in {}", fileName, bookId, attempt,
+                    backoff, e);
+            executor.schedule(() -> upload(bookId, fileName, photoHash, attempt + 1), backoff.toMillis(),
+                    TimeUnit.MILLISECONDS);
+            return;
+        }
+        StoredPhoto storedPhoto = storedPhotoRefRepository.register(photoHash, uploaded.url(), uploaded.fileId());
+        if (!uploaded.url().equals(storedPhoto.getPhotoPath())) {
+            // The same content was stored concurrently: share that copy, the reference is already taken
+            deleteFile(uploaded.fileId(), uploaded.url());
+            share(bookId, fileName, storedPhoto, photoHash);
+            deleteSpoolFile(file);
+            return;
+        }
+        if (complete(bookId, fileName, uploaded.url(), photoHash)) {
+            // The variants task deletes the spool file when it is done with it
+            variantExecutor.execute(() -> createVariants(bookId, fileName, photoHash));
+        } else {
+            deleteSpoolFile(file);
+        }
+    }
+
+    // Point the book at a stored photo it holds a reference on, with the variants it has so far
+    private void share(Long bookId, String fileName, StoredPhoto storedPhoto, String photoHash) {
+        if (complete(bookId, fileName, storedPhoto.getPhotoPath(), photoHash)) {
+            PhotoVariants variants = storedPhoto.getVariants();
+            if (variants != null) {
+                bookRepository.updatePhotoVariants(bookId, storedPhoto.getPhotoPath(), variants.getThumbnail(),
+                        variants.getCard(), variants.getFull());
+                reindex(bookId);
+            }
+        }
+    }
+
+    private boolean complete(Long bookId, String fileName, String photoUrl, String photoHash) {
+        Optional<BookPhoto> previous = bookPhotoRepository.completePhotoUpload(bookId, fileName, photoUrl, photoHash);
+        if (previous.isEmpty()) {
+            release(photoHash);
+            return false;
+        }
+        releasePhotos(previous.get());
+        reindex(bookId);
+        return true;
+    }
+
+    // Not retried: without variants clients fall back to photoPath. The variants belong to the stored photo,
+    // every book sharing it gets them.
+    private void createVariants(Long bookId, String fileName, String photoHash) {
+        Path file = spoolDirectory.resolve(fileName);
+        Map<PhotoVariant, Path> files = Map.of();
+        Map<PhotoVariant, UploadedFile> uploads = new EnumMap<>(PhotoVariant.class);
+        try {
+            String baseName = fileName.contains(".") ? fileName.substring(0, fileName.lastIndexOf('.')) : fileName;
+            files = photoVariantGenerator.generate(file, spoolDirectory, baseName);
+            if (files.isEmpty()) {
+                log.info("No variants for photo {} of book {}, unreadable or too large", fileName, bookId);
+                return;
+            }
+            for (Map.Entry<PhotoVariant, Path> variant : files.entrySet()) {
+                Path variantFile = variant.getValue();
+                uploads.put(variant.getKey(),
+                        storageService.uploadFile(variantFile, variantFile.getFileName().toString(), folder));
+            }
+            PhotoVariants variants = variants(uploads, UploadedFile::url);
+            if (storedPhotoRepository.updateVariants(photoHash, variants, variants(uploads, UploadedFile::fileId))
+                    == 0) {
+                uploads.values().forEach(upload -> deleteFile(upload.fileId(), upload.url()));
+                return;
+            }
+            bookRepository.updatePhotoVariantsByHash(photoHash, variants.getThumbnail(), variants.getCard(),
+                    variants.getFull());
+            bookRepository.findIdsByPhotoHash(photoHash).forEach(this::reindex);
+        } catch (Exception e) {
+            log.warn("Could not create the variants of photo {} of book {}", fileName, bookId, e);
+            uploads.values().forEach(upload -> deleteFile(upload.fileId(), upload.url()));
+        } finally {
+            deleteSpoolFile(file);
+            files.values().forEach(this::deleteSpoolFile);
+        }
+    }
+
+    private static PhotoVariants variants(Map<PhotoVariant, UploadedFile> uploads,
+            Function<UploadedFile, String> value) {
+        return new PhotoVariants(value.apply(uploads.get(PhotoVariant.THUMBNAIL)),
+                value.apply(uploads.get(PhotoVariant.CARD)), value.apply(uploads.get(PhotoVariant.FULL)));
+    }
+
+    private void reindex(Long bookId) {
+        bookRepository.findById(bookId).ifPresent(book -> {
+            bookSearchIndex.index(book);
+            newestBooksBuffer.put(book);
+        });
+    }
+
+    private boolean isPending(Long bookId, String fileName) {
+        return bookRepository.existsByIdAndPendingPhoto(bookId, fileName);
+    }
+
+    // Copy to target, if any, and return the hex SHA-256 of what was read
+    private static String copyAndHash(InputStream in, Path target) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (DigestInputStream hashing = new DigestInputStream(in, digest)) {
+            if (target == null) {
+                hashing.transferTo(OutputStream.nullOutputStream());
+            } else {
+                Files.copy(hashing, target);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private void deleteSpoolFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled photo {}", file, e);
+        }
+    }
+}
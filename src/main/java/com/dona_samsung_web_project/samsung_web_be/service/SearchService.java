@@ -0,0 +1,73 @@
+package com.dona_samsung_web_project.samsung_web_be.service;
+
+import com.dona_samsung_web_project.samsung_web_be.exception.ValidationException;
+import com.dona_samsung_web_project.samsung_web_be.index.AutocompleteIndex;
+import com.dona_samsung_web_project.samsung_web_be.model.SearchResult;
+import com.dona_samsung_web_project.samsung_web_be.repository.AuthorRepository;
+import com.dona_samsung_web_project.samsung_web_be.repository.BookRepository;
+import com.dona_samsung_web_project.samsung_web_be.repository.MemberRepository;
+import com.dona_samsung_web_project.samsung_web_be.repository.SearchRepository;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class SearchService {
+
+    private final SearchRepository searchRepository;
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final MemberRepository memberRepository;
+    private final AutocompleteIndex autocompleteIndex;
+
+    public SearchService(SearchRepository searchRepository, BookRepository bookRepository,
+            AuthorRepository authorRepository, MemberRepository memberRepository,
+            AutocompleteIndex autocompleteIndex) {
+        this.searchRepository = searchRepository;
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.memberRepository = memberRepository;
+        this.autocompleteIndex = autocompleteIndex;
+    }
+
+    // Search books, authors and members at once, ranked by relevance
+    @Transactional(readOnly = true)
+    public List<SearchResult> search(@NotNull String query, int limit) {
+        if (searchRepository.isFullTextSupported()) {
+            return searchRepository.search(query, limit);
+        }
+
+        // Without PostgreSQL full-text search fall back to the unranked substring queries
+        Pageable pageable = PageRequest.of(0, limit);
+        List<SearchResult> results = new ArrayList<>();
+        bookRepository.findByTitleContainingIgnoreCase(query, pageable).forEach(book -> results.add(
+                new SearchResult(SearchResult.Type.BOOK, book.getId(), book.getTitle(), book.getCategory(), 0)));
+        authorRepository.findByNameContainingIgnoreCase(query, pageable).forEach(author -> results.add(
+                new SearchResult(SearchResult.Type.AUTHOR, author.getId(), author.getName(),
+                        author.getDescription(), 0)));
+        memberRepository.findByNameContainingIgnoreCase(query, pageable).forEach(member -> results.add(
+                new SearchResult(SearchResult.Type.MEMBER, member.getId(), member.getName(), member.getEmail(), 0)));
+        return results.size() > limit ? results.subList(0, limit) : results;
+    }
+
+    // Prefix suggestions for search-as-you-type, most borrowed first. type is book, author or member, null for all
+    public List<SearchResult> autocomplete(@NotNull String query, String type, int limit) {
+        SearchResult.Type resultType = null;
+        if (type != null && !type.isBlank()) {
+            try {
+                resultType = SearchResult.Type.valueOf(type.strip().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Type must be one of book, author or member");
+            }
+        }
+        return autocompleteIndex.suggest(query, resultType, limit);
+    }
+}
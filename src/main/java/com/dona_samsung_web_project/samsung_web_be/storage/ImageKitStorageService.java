@@ -1,22 +1,59 @@
 package com.dona_samsung_web_project.samsung_web_be.storage;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import io.imagekit.sdk.ImageKit;
 import io.imagekit.sdk.config.Configuration;
-import io.imagekit.sdk.models.FileCreateRequest;
-import io.imagekit.sdk.models.results.Result;
 import io.imagekit.sdk.utils.Utils;
 import jakarta.annotation.PostConstruct;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.util.StreamUtils;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Base64;
+import java.util.UUID;
 
 @Service
-public class ImageKitStorageService {
+@ConditionalOnProperty(name = "storage.type", havingValue = "imagekit", matchIfMissing = true)
+public class ImageKitStorageService implements StorageService {
+
+    private static final int BUFFER_SIZE = 8192;
 
+    private final URI uploadUrl;
+    private final ObjectMapper objectMapper;
+    // HttpURLConnection in fixed-length streaming mode, the body goes straight to the socket
+    private final SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
     private ImageKit imageKit;
 
+    public ImageKitStorageService(@Value("${imagekit.upload-url}") URI uploadUrl, ObjectMapper objectMapper,
+            @Value("${imagekit.connect-timeout}") Duration connectTimeout,
+            @Value("${imagekit.read-timeout}") Duration readTimeout) {
+        this.uploadUrl = uploadUrl;
+        this.objectMapper = objectMapper;
+        // A stalled upload fails and is retried instead of holding an upload thread forever
+        requestFactory.setConnectTimeout(connectTimeout);
+        requestFactory.setReadTimeout(readTimeout);
+    }
+
     @PostConstruct
     public void init() {
         imageKit = ImageKit.getInstance();
@@ -29,26 +66,98 @@ public class ImageKitStorageService {
         }
     }
 
-    public String uploadFile(MultipartFile file, String fileName, String folder) throws Exception {
-        // Convert file to Base64 string
-        String base64 = Base64.getEncoder().encodeToString(file.getBytes());
-
-        // Create upload request
-        FileCreateRequest request = new FileCreateRequest(base64, fileName);
-        request.setFolder(folder); // e.g. "/books"
-        request.setUseUniqueFileName(true);
+    // Upload API called directly rather than through the SDK, which needs the whole file as one Base64 String.
+    // The file is Base64-encoded on the fly into the request body, so an upload holds a few buffers in memory
+    // whatever the file size.
+    @Override
+    public UploadedFile uploadFile(Path file, String fileName, String folder) throws Exception {
+        Base64FileMultipartBody body = new Base64FileMultipartBody(file, fileName, folder);
+        // Set as a streaming body, whatever is written to getBody() is buffered in full before sending
+        ClientHttpRequest request = requestFactory.createRequest(uploadUrl, HttpMethod.POST);
+        request.getHeaders().set(HttpHeaders.AUTHORIZATION, authorization());
+        request.getHeaders().setContentType(body.contentType());
+        request.getHeaders().setContentLength(body.contentLength());
+        ((StreamingHttpOutputMessage) request).setBody(body);
 
-        // Upload file
-        Result result = imageKit.upload(request);
-        if (result.getUrl() == null || result.getUrl().isEmpty()) {
-            throw new RuntimeException("ImageKit upload failed: ");
+        UploadResult result;
+        try (ClientHttpResponse response = request.execute()) {
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                throw new RuntimeException("ImageKit upload failed: " + response.getStatusCode() + " "
+                        + StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8));
+            }
+            result = objectMapper.readValue(response.getBody(), UploadResult.class);
         }
-
-        // Return public URL
-        return result.getUrl();
+        if (result.url() == null || result.url().isEmpty() || result.fileId() == null) {
+            throw new RuntimeException("ImageKit upload failed: " + fileName);
+        }
+        return new UploadedFile(result.fileId(), result.url());
     }
 
+    @Override
     public void deleteFile(String fileId) throws Exception {
         imageKit.deleteFile(fileId);
     }
+
+    // Basic auth with the private key as user name and no password
+    private String authorization() {
+        Configuration config = imageKit.getConfig();
+        String privateKey = config == null || config.getPrivateKey() == null ? "" : config.getPrivateKey();
+        return "Basic " + Base64.getEncoder().encodeToString((privateKey + ":").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record UploadResult(String fileId, String url) {
+    }
+
+    // multipart/form-data with fileName, folder, useUniqueFileName and the file as a Base64 field, the form
+    // the upload API accepts from the SDK. The length is known up front so no chunked encoding is needed.
+    static class Base64FileMultipartBody implements StreamingHttpOutputMessage.Body {
+
+        private final Path file;
+        private final String boundary = UUID.randomUUID().toString();
+        private final byte[] head;
+        private final byte[] tail;
+        private final long encodedLength;
+
+        Base64FileMultipartBody(Path file, String fileName, String folder) throws IOException {
+            this.file = file;
+            ByteArrayOutputStream fields = new ByteArrayOutputStream();
+            writeField(fields, "fileName", fileName);
+            writeField(fields, "folder", folder);
+            writeField(fields, "useUniqueFileName", "true");
+            fields.writeBytes(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"file\"\r\n\r\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            this.head = fields.toByteArray();
+            this.tail = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+            this.encodedLength = 4 * ((Files.size(file) + 2) / 3);
+        }
+
+        MediaType contentType() {
+            return MediaType.parseMediaType("multipart/form-data; boundary=" + boundary);
+        }
+
+        long contentLength() {
+            return head.length + encodedLength + tail.length;
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            outputStream.write(head);
+            // Closing the encoder writes the padding, the request stream stays open for the tail
+            try (InputStream in = Files.newInputStream(file);
+                    OutputStream base64 = Base64.getEncoder().wrap(StreamUtils.nonClosing(outputStream))) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    base64.write(buffer, 0, read);
+                }
+            }
+            outputStream.write(tail);
+        }
+
+        private void writeField(ByteArrayOutputStream out, String name, String value) {
+            out.writeBytes(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                    + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+        }
+    }
 }
@@ -0,0 +1,69 @@
+package com.dona_samsung_web_project.samsung_web_be.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.springframework.http.MediaType;
+
+// Image formats accepted as book photos, told apart by their leading bytes rather than by what the client
+// declares. Stored files get the extension of their format, which is all the local storage serves them by.
+public enum ImageType {
+    JPEG("jpg", MediaType.IMAGE_JPEG),
+    PNG("png", MediaType.IMAGE_PNG),
+    GIF("gif", MediaType.IMAGE_GIF),
+    WEBP("webp", MediaType.parseMediaType("image/webp"));
+
+    // Enough leading bytes to recognize every format
+    public static final int HEADER_LENGTH = 12;
+
+    private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+
+    private final String extension;
+    private final MediaType mediaType;
+
+    ImageType(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public static Optional<ImageType> detect(byte[] header) {
+        if (header.length >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8
+                && (header[2] & 0xFF) == 0xFF) {
+            return Optional.of(JPEG);
+        }
+        if (header.length >= PNG_SIGNATURE.length
+                && Arrays.equals(header, 0, PNG_SIGNATURE.length, PNG_SIGNATURE, 0, PNG_SIGNATURE.length)) {
+            return Optional.of(PNG);
+        }
+        String ascii = new String(header, StandardCharsets.ISO_8859_1);
+        if (ascii.startsWith("GIF87a") || ascii.startsWith("GIF89a")) {
+            return Optional.of(GIF);
+        }
+        if (ascii.length() >= HEADER_LENGTH && ascii.startsWith("RIFF") && ascii.startsWith("WEBP", 8)) {
+            return Optional.of(WEBP);
+        }
+        return Optional.empty();
+    }
+
+    // Format of a stored file from its extension, empty for anything that is not one of ours.
+    // .jpeg is still found on photos stored under their original name.
+    public static Optional<ImageType> fromFileName(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        if (dot < 0) {
+            return Optional.empty();
+        }
+        String extension = fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+        String normalized = extension.equals("jpeg") ? JPEG.extension : extension;
+        return Arrays.stream(values()).filter(type -> type.extension.equals(normalized)).findFirst();
+    }
+}
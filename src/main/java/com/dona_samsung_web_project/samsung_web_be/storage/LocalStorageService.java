@@ -0,0 +1,87 @@
+package com.dona_samsung_web_project.samsung_web_be.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+// Photos kept in a local directory and served by this application from /files/{id} (see FileController),
+// for nodes without access to the CDN. The id is the unique file name, so a stored file never changes.
+@Service
+@ConditionalOnProperty(name = "storage.type", havingValue = "local")
+public class LocalStorageService implements StorageService {
+
+    // No separators and no leading dot: ids cannot leave the directory or name the in-progress copies
+    private static final Pattern FILE_ID = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9._-]*");
+
+    private final Path directory;
+    private final String baseUrl;
+
+    public LocalStorageService(@Value("${storage.local.dir}") Path directory,
+            @Value("${storage.local.base-url}") String baseUrl) throws IOException {
+        this.directory = Files.createDirectories(directory).toAbsolutePath();
+        this.baseUrl = baseUrl;
+    }
+
+    // The folder is not used, file names are unique on their own and serve as ids
+    @Override
+    public UploadedFile uploadFile(Path file, String fileName, String folder) throws IOException {
+        Path target = resolve(fileName).filter(path -> ImageType.fromFileName(fileName).isPresent())
+                .orElseThrow(() -> new IllegalArgumentException("Invalid file name " + fileName));
+        // Copied under a temporary name first so /files never serves a partial file
+        Path copy = Files.createTempFile(directory, ".upload-", ".tmp");
+        try {
+            Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(copy, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+        return new UploadedFile(fileName, baseUrl + "/" + fileName);
+    }
+
+    @Override
+    public void deleteFile(String fileId) throws IOException {
+        Optional<Path> file = resolve(fileId);
+        if (file.isPresent()) {
+            Files.deleteIfExists(file.get());
+        }
+    }
+
+    // A stored file and what the HTTP caching headers are built from, empty if there is none. Only images are
+    // served, with the type of their extension, which the storage chose and not the client.
+    public Optional<StoredFile> find(String fileId) throws IOException {
+        Optional<Path> file = resolve(fileId);
+        Optional<ImageType> type = ImageType.fromFileName(fileId);
+        if (file.isEmpty() || type.isEmpty()) {
+            return Optional.empty();
+        }
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file.get(), BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+        if (!attributes.isRegularFile()) {
+            return Optional.empty();
+        }
+        String etag = "\"" + Long.toHexString(attributes.size()) + "-"
+                + Long.toHexString(attributes.lastModifiedTime().toMillis()) + "\"";
+        return Optional.of(new StoredFile(file.get(), attributes.size(), etag, type.get().getMediaType()));
+    }
+
+    private Optional<Path> resolve(String fileId) {
+        return FILE_ID.matcher(fileId).matches() ? Optional.of(directory.resolve(fileId)) : Optional.empty();
+    }
+
+    public record StoredFile(Path path, long size, String etag, MediaType mediaType) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.dona_samsung_web_project.samsung_web_be.storage;
+
+// Sizes a book photo is resized to, largest first so each one can be scaled down from the previous
+public enum PhotoVariant {
+    FULL("full", 1600),
+    CARD("card", 480),
+    THUMBNAIL("thumbnail", 160);
+
+    private final String label;
+    private final int maxWidth;
+
+    PhotoVariant(String label, int maxWidth) {
+        this.label = label;
+        this.maxWidth = maxWidth;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+}
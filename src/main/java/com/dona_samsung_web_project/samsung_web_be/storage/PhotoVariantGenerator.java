@@ -0,0 +1,126 @@
+package com.dona_samsung_web_project.samsung_web_be.storage;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Resized, recompressed JPEG copies of a photo, one per PhotoVariant, never wider than the original.
+// Memory per photo is bounded: the dimensions are checked before decoding and large photos are decoded
+// subsampled to less than twice the largest variant's width.
+@Component
+public class PhotoVariantGenerator {
+
+    private final float quality;
+    private final long maxPixels;
+
+    public PhotoVariantGenerator(@Value("${photo-variants.quality}") float quality,
+            @Value("${photo-variants.max-pixels}") long maxPixels) {
+        this.quality = quality;
+        this.maxPixels = maxPixels;
+    }
+
+    // Write <baseName>_<label>.jpg per variant into the directory. Empty when the format is not readable or
+    // the photo has more than max-pixels, such photos are only kept in their original form.
+    public Map<PhotoVariant, Path> generate(Path source, Path directory, String baseName) throws IOException {
+        Map<PhotoVariant, Path> files = new EnumMap<>(PhotoVariant.class);
+        BufferedImage image = decode(source, PhotoVariant.FULL.getMaxWidth());
+        if (image == null) {
+            return files;
+        }
+        try {
+            for (PhotoVariant variant : PhotoVariant.values()) {
+                image = scaleDown(image, variant.getMaxWidth());
+                Path file = directory.resolve(baseName + "_" + variant.getLabel() + ".jpg");
+                files.put(variant, file);
+                writeJpeg(image, file);
+            }
+        } catch (IOException | RuntimeException e) {
+            for (Path file : files.values()) {
+                Files.deleteIfExists(file);
+            }
+            throw e;
+        }
+        return files;
+    }
+
+    private BufferedImage decode(Path source, int minDecodedWidth) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                if ((long) width * reader.getHeight(0) > maxPixels) {
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                // Every n-th pixel with n such that the width stays at or above minDecodedWidth
+                int subsampling = Math.max(1, width / minDecodedWidth);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Halve until close to the width, then one bicubic step; always returns an opaque RGB image for the JPEG
+    private static BufferedImage scaleDown(BufferedImage image, int maxWidth) {
+        do {
+            int width = image.getWidth() / 2 >= maxWidth ? image.getWidth() / 2
+                    : Math.min(image.getWidth(), maxWidth);
+            int height = Math.max(1, (int) Math.round((double) image.getHeight() * width / image.getWidth()));
+            BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = scaled.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                        width == maxWidth ? RenderingHints.VALUE_INTERPOLATION_BICUBIC
+                                : RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                // Transparent areas become white instead of black
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+                graphics.drawImage(image, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            image = scaled;
+        } while (image.getWidth() > maxWidth);
+        return image;
+    }
+
+    private void writeJpeg(BufferedImage image, Path file) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(file.toFile())) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.dona_samsung_web_project.samsung_web_be.storage;
+
+import java.nio.file.Path;
+
+// Where book photos are stored, chosen with storage.type (imagekit or local)
+public interface StorageService {
+
+    // Store a local file under a unique name, returns its id and public URL
+    UploadedFile uploadFile(Path file, String fileName, String folder) throws Exception;
+
+    // Delete a stored file by the id its upload returned
+    void deleteFile(String fileId) throws Exception;
+}
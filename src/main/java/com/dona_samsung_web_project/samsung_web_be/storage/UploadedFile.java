@@ -0,0 +1,5 @@
+package com.dona_samsung_web_project.samsung_web_be.storage;
+
+// A stored file: the id the storage deletes it by and its public URL
+public record UploadedFile(String fileId, String url) {
+}
@@ -0,0 +1,46 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+// Databases created by ddl-auto=update carry the unique constraint on members.email under a generated name,
+// which V1 (CREATE TABLE IF NOT EXISTS) left as it was. Rename it to the name the error handling looks for.
+// A Java migration because the name has to be looked up first.
+public class V6__Rename_members_email_constraint extends BaseJavaMigration {
+
+    private static final String CONSTRAINT = "uk_members_email";
+
+    private static final String FIND_SQL = """
+            SELECT tc.constraint_name FROM information_schema.table_constraints tc
+            JOIN information_schema.key_column_usage kcu
+                ON kcu.constraint_schema = tc.constraint_schema AND kcu.constraint_name = tc.constraint_name
+            WHERE tc.table_schema = CURRENT_SCHEMA AND LOWER(tc.table_name) = 'members'
+                AND tc.constraint_type = 'UNIQUE' AND LOWER(kcu.column_name) = 'email'
+            """;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        List<String> names = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(FIND_SQL);
+                ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                names.add(resultSet.getString(1));
+            }
+        }
+        if (names.size() != 1 || names.get(0).equalsIgnoreCase(CONSTRAINT)) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE members RENAME CONSTRAINT \"" + names.get(0).replace("\"", "\"\"")
+                    + "\" TO " + CONSTRAINT);
+        }
+    }
+}
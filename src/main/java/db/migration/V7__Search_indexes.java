@@ -0,0 +1,55 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+// Generated tsvector columns with their GIN indexes and the pg_trgm indexes behind upper(...) LIKE.
+// PostgreSQL only, other databases keep the plain schema and search without them.
+public class V7__Search_indexes extends BaseJavaMigration {
+
+    private static final List<String> STATEMENTS = List.of(
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+
+            """
+            ALTER TABLE books ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+                setweight(to_tsvector('simple', coalesce(title, '')), 'A')
+                || setweight(to_tsvector('simple', coalesce(category, '')), 'B')
+                || setweight(to_tsvector('simple', coalesce(description, '')), 'C')) STORED
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_books_search_vector ON books USING gin (search_vector)",
+            "CREATE INDEX IF NOT EXISTS idx_books_title_trgm ON books USING gin (upper(title) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_books_category_trgm ON books USING gin (upper(category) gin_trgm_ops)",
+
+            """
+            ALTER TABLE authors ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+                setweight(to_tsvector('simple', coalesce(name, '')), 'A')
+                || setweight(to_tsvector('simple', coalesce(description, '')), 'C')) STORED
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_authors_search_vector ON authors USING gin (search_vector)",
+            "CREATE INDEX IF NOT EXISTS idx_authors_name_trgm ON authors USING gin (upper(name) gin_trgm_ops)",
+
+            """
+            ALTER TABLE members ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+                setweight(to_tsvector('simple', coalesce(name, '')), 'A')
+                || setweight(to_tsvector('simple', coalesce(email, '')), 'B')) STORED
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_members_search_vector ON members USING gin (search_vector)",
+            "CREATE INDEX IF NOT EXISTS idx_members_name_trgm ON members USING gin (upper(name) gin_trgm_ops)");
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        if (!connection.getMetaData().getDatabaseProductName().equals("PostgreSQL")) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : STATEMENTS) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+-- Schema as Hibernate generated it before migrations were introduced. Every statement is guarded so the
+-- script also applies to databases created by spring.jpa.hibernate.ddl-auto=update.
+
+CREATE SEQUENCE IF NOT EXISTS authors_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS books_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS members_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS borrowed_books_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS authors (
+    id          BIGINT       NOT NULL,
+    name        VARCHAR(250) NOT NULL,
+    description VARCHAR(500),
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    deleted_at  TIMESTAMP(6),
+    CONSTRAINT authors_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS books (
+    id              BIGINT       NOT NULL,
+    title           VARCHAR(250) NOT NULL,
+    description     VARCHAR(500),
+    category        VARCHAR(100) NOT NULL,
+    publishing_year INTEGER,
+    photo_path      VARCHAR(500),
+    author_id       BIGINT       NOT NULL,
+    status          VARCHAR(255) NOT NULL CHECK (status IN ('AVAILABLE', 'BORROWED')),
+    borrow_count    BIGINT       DEFAULT 0 NOT NULL,
+    created_at      TIMESTAMP(6),
+    updated_at      TIMESTAMP(6),
+    deleted_at      TIMESTAMP(6),
+    CONSTRAINT books_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_books_author FOREIGN KEY (author_id) REFERENCES authors (id)
+);
+
+CREATE TABLE IF NOT EXISTS members (
+    id           BIGINT       NOT NULL,
+    name         VARCHAR(250) NOT NULL,
+    email        VARCHAR(250) NOT NULL,
+    phone        VARCHAR(20),
+    borrow_count BIGINT       DEFAULT 0 NOT NULL,
+    created_at   TIMESTAMP(6),
+    updated_at   TIMESTAMP(6),
+    deleted_at   TIMESTAMP(6),
+    CONSTRAINT members_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_members_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS borrowed_books (
+    id          BIGINT NOT NULL,
+    book_id     BIGINT NOT NULL,
+    member_id   BIGINT NOT NULL,
+    borrow_date DATE   NOT NULL,
+    return_date DATE,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    deleted_at  TIMESTAMP(6),
+    CONSTRAINT borrowed_books_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_borrowed_books_book FOREIGN KEY (book_id) REFERENCES books (id),
+    CONSTRAINT fk_borrowed_books_member FOREIGN KEY (member_id) REFERENCES members (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_books_borrow_count ON books (borrow_count DESC, id);
+CREATE INDEX IF NOT EXISTS idx_members_borrow_count ON members (borrow_count DESC, id);
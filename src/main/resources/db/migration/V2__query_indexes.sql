@@ -0,0 +1,20 @@
+-- Indexes behind the repository queries and the sortBy values the controllers accept
+-- (see pagination.SortableFields). Foreign keys are not indexed automatically by PostgreSQL.
+
+-- Loans of a member / of a book, loans in a borrow date range, default list order
+CREATE INDEX IF NOT EXISTS idx_borrowed_books_member_id ON borrowed_books (member_id);
+CREATE INDEX IF NOT EXISTS idx_borrowed_books_book_id ON borrowed_books (book_id);
+CREATE INDEX IF NOT EXISTS idx_borrowed_books_borrow_date ON borrowed_books (borrow_date);
+CREATE INDEX IF NOT EXISTS idx_borrowed_books_created_at ON borrowed_books (created_at);
+
+-- Newest books per status (/books/newest), books of an author, list orders
+CREATE INDEX IF NOT EXISTS idx_books_status_created_at ON books (status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_books_author_id ON books (author_id);
+CREATE INDEX IF NOT EXISTS idx_books_title ON books (title);
+CREATE INDEX IF NOT EXISTS idx_books_created_at ON books (created_at);
+
+CREATE INDEX IF NOT EXISTS idx_authors_name ON authors (name);
+CREATE INDEX IF NOT EXISTS idx_authors_created_at ON authors (created_at);
+
+CREATE INDEX IF NOT EXISTS idx_members_name ON members (name);
+CREATE INDEX IF NOT EXISTS idx_members_created_at ON members (created_at);
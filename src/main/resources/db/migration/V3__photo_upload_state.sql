@@ -0,0 +1,7 @@
+-- Photos are uploaded in the background (see service.PhotoUploadService): the state of the last submitted
+-- photo and the spool file of the upload in flight
+ALTER TABLE books ADD COLUMN IF NOT EXISTS photo_status VARCHAR(20)
+    CHECK (photo_status IN ('PENDING', 'UPLOADED', 'FAILED'));
+ALTER TABLE books ADD COLUMN IF NOT EXISTS pending_photo VARCHAR(300);
+
+UPDATE books SET photo_status = 'UPLOADED' WHERE photo_path IS NOT NULL AND photo_status IS NULL;
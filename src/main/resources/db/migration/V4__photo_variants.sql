@@ -0,0 +1,4 @@
+-- Resized copies of the book photo (thumbnail, card, full), generated after the upload
+ALTER TABLE books ADD COLUMN IF NOT EXISTS photo_thumbnail_path VARCHAR(500);
+ALTER TABLE books ADD COLUMN IF NOT EXISTS photo_card_path VARCHAR(500);
+ALTER TABLE books ADD COLUMN IF NOT EXISTS photo_full_path VARCHAR(500);
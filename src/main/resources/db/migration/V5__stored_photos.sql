@@ -0,0 +1,15 @@
+-- Content-addressed photo objects shared by books with identical photos (see model.StoredPhoto).
+-- Books uploaded before keep photo_hash NULL and own their photo alone.
+CREATE TABLE IF NOT EXISTS stored_photos (
+    content_hash         VARCHAR(64)  NOT NULL,
+    photo_path           VARCHAR(500) NOT NULL,
+    photo_thumbnail_path VARCHAR(500),
+    photo_card_path      VARCHAR(500),
+    photo_full_path      VARCHAR(500),
+    ref_count            BIGINT       NOT NULL,
+    created_at           TIMESTAMP(6),
+    CONSTRAINT stored_photos_pkey PRIMARY KEY (content_hash)
+);
+
+ALTER TABLE books ADD COLUMN IF NOT EXISTS photo_hash VARCHAR(64);
+CREATE INDEX IF NOT EXISTS idx_books_photo_hash ON books (photo_hash);
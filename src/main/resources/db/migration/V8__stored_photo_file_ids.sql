@@ -0,0 +1,6 @@
+-- Storage ids of the stored objects and their variants, what the storage deletes them by.
+-- Rows stored before have NULL ids and are deleted by the last segment of their URL.
+ALTER TABLE stored_photos ADD COLUMN IF NOT EXISTS photo_file_id VARCHAR(300);
+ALTER TABLE stored_photos ADD COLUMN IF NOT EXISTS thumbnail_file_id VARCHAR(300);
+ALTER TABLE stored_photos ADD COLUMN IF NOT EXISTS card_file_id VARCHAR(300);
+ALTER TABLE stored_photos ADD COLUMN IF NOT EXISTS full_file_id VARCHAR(300);
@@ -0,0 +1,70 @@
+package com.dona_samsung_web_project.samsung_web_be.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.dona_samsung_web_project.samsung_web_be.model.Author;
+import com.dona_samsung_web_project.samsung_web_be.repository.AuthorRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import java.util.UUID;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// The test context has no replicas, a second manager stands in for an application that has some
+@SpringBootTest
+class ReplicaAwareTransactionManagerTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    private Cache cache;
+    private Statistics statistics;
+    private Author author;
+
+    @BeforeEach
+    void setUp() {
+        cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        author = authorRepository.save(new Author("Cached " + UUID.randomUUID(), null));
+        cache.evictAll();
+    }
+
+    @Test
+    void readOnlyReadsDoNotFillTheCacheWhenTheyMayRunOnAReplica() {
+        long queryPuts = statistics.getQueryCachePutCount();
+        readOnly(new ReplicaAwareTransactionManager(entityManagerFactory, true));
+
+        assertFalse(cache.containsEntity(Author.class, author.getId()));
+        assertEquals(queryPuts, statistics.getQueryCachePutCount());
+    }
+
+    @Test
+    void readOnlyReadsFillTheCacheWithoutReplicas() {
+        long queryPuts = statistics.getQueryCachePutCount();
+        readOnly(new ReplicaAwareTransactionManager(entityManagerFactory, false));
+
+        assertTrue(cache.containsEntity(Author.class, author.getId()));
+        assertTrue(statistics.getQueryCachePutCount() > queryPuts);
+    }
+
+    private void readOnly(PlatformTransactionManager transactionManager) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status ->
+                authorRepository.findByNameContainingIgnoreCase(author.getName(), PageRequest.of(0, 10)));
+    }
+}
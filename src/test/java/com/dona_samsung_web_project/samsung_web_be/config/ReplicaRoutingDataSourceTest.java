@@ -0,0 +1,60 @@
+package com.dona_samsung_web_project.samsung_web_be.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Two H2 databases standing in for a primary and its replica, each knows which one it is
+class ReplicaRoutingDataSourceTest {
+
+    @Test
+    void readOnlyTransactionsGoToReplicaOnceItPassedTheCheck() {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(database("primary"),
+                Map.of("replica-1", database("replica")), Duration.ofSeconds(5));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        assertEquals("primary", whoAmI(dataSource, true));
+
+        routing.checkReplicas();
+        assertEquals("replica", whoAmI(dataSource, true));
+        assertEquals("primary", whoAmI(dataSource, false));
+    }
+
+    @Test
+    void unreachableReplicaLeavesReadsOnPrimary() {
+        DataSource missing = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";IFEXISTS=TRUE");
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(database("primary"),
+                Map.of("replica-1", missing), Duration.ofSeconds(5));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        routing.checkReplicas();
+        assertEquals("primary", whoAmI(dataSource, true));
+    }
+
+    private static DataSource database(String role) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + role + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (role VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", role);
+        return dataSource;
+    }
+
+    private static String whoAmI(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT role FROM node", String.class));
+    }
+}
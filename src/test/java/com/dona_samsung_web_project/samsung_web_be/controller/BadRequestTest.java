@@ -0,0 +1,62 @@
+package com.dona_samsung_web_project.samsung_web_be.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+// Request values the endpoints reject are a 400 with the reason
+@SpringBootTest
+@AutoConfigureMockMvc
+class BadRequestTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void unknownSortFieldIsRejected() throws Exception {
+        mockMvc.perform(get("/authors").param("sortBy", "description"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("X07"))
+                .andExpect(jsonPath("$.message").value("sortBy must be one of [id, name, createdAt]"));
+    }
+
+    @Test
+    void malformedCursorIsRejected() throws Exception {
+        mockMvc.perform(get("/authors").param("after", "not a cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("X07"))
+                .andExpect(jsonPath("$.message").value("Invalid cursor"));
+    }
+
+    @Test
+    void autocompleteLimitIsBounded() throws Exception {
+        mockMvc.perform(get("/autocomplete").param("q", "a").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("X02"));
+        mockMvc.perform(get("/autocomplete").param("q", "a").param("limit", "101"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("X02"));
+    }
+
+    @Test
+    void bulkMembersAreValidatedAndCapped() throws Exception {
+        mockMvc.perform(post("/members/bulk").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\": \"Ann\", \"email\": \"ann@example.com\"}, {\"name\": \" \"}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("X02"))
+                .andExpect(jsonPath("$.message").value(containsString("members[1].email")));
+        mockMvc.perform(post("/members/bulk").contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + "{}, ".repeat(1000) + "{}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("members size must be between 0 and 1000")));
+    }
+}
@@ -0,0 +1,106 @@
+package com.dona_samsung_web_project.samsung_web_be.controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.dona_samsung_web_project.samsung_web_be.storage.LocalStorageService;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+// Served by the embedded Tomcat, so full responses and ranges go through its sendfile
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = { "storage.type=local", "storage.local.dir=target/test-storage" })
+class FileControllerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private LocalStorageService localStorageService;
+
+    private byte[] content;
+    private String url;
+
+    @BeforeEach
+    void storeFile() throws Exception {
+        content = new byte[300_000];
+        new Random(7).nextBytes(content);
+        Path file = Files.write(Files.createTempFile("cover-", ".jpg"), content);
+        String fileName = UUID.randomUUID() + "_cover.jpg";
+        url = "http://localhost:" + port + localStorageService.uploadFile(file, fileName, "samsung-web").url();
+        Files.delete(file);
+    }
+
+    @Test
+    void servesWholeFileWithCachingHeaders() throws Exception {
+        HttpResponse<byte[]> response = get(HttpRequest.newBuilder(URI.create(url)));
+
+        assertEquals(200, response.statusCode());
+        assertArrayEquals(content, response.body());
+        assertEquals("image/jpeg", response.headers().firstValue("Content-Type").orElseThrow());
+        assertEquals("max-age=31536000, public, immutable",
+                response.headers().firstValue("Cache-Control").orElseThrow());
+        assertEquals("nosniff", response.headers().firstValue("X-Content-Type-Options").orElseThrow());
+        assertEquals("default-src 'none'", response.headers().firstValue("Content-Security-Policy").orElseThrow());
+
+        String etag = response.headers().firstValue("ETag").orElseThrow();
+        HttpResponse<byte[]> revalidated = get(HttpRequest.newBuilder(URI.create(url)).header("If-None-Match", etag));
+        assertEquals(304, revalidated.statusCode());
+        assertEquals(0, revalidated.body().length);
+    }
+
+    @Test
+    void servesRequestedRange() throws Exception {
+        HttpResponse<byte[]> response = get(HttpRequest.newBuilder(URI.create(url)).header("Range", "bytes=1000-1999"));
+
+        assertEquals(206, response.statusCode());
+        assertEquals("bytes 1000-1999/300000", response.headers().firstValue("Content-Range").orElseThrow());
+        assertArrayEquals(Arrays.copyOfRange(content, 1000, 2000), response.body());
+
+        HttpResponse<byte[]> suffix = get(HttpRequest.newBuilder(URI.create(url)).header("Range", "bytes=-10"));
+        assertArrayEquals(Arrays.copyOfRange(content, content.length - 10, content.length), suffix.body());
+    }
+
+    @Test
+    void rejectsRangeBeyondTheEnd() throws Exception {
+        HttpResponse<byte[]> response = get(HttpRequest.newBuilder(URI.create(url)).header("Range", "bytes=300000-"));
+
+        assertEquals(416, response.statusCode());
+        assertEquals("bytes */300000", response.headers().firstValue("Content-Range").orElseThrow());
+    }
+
+    @Test
+    void unknownOrInvalidIdsAreNotFound() throws Exception {
+        String files = "http://localhost:" + port + "/files/";
+        assertEquals(404, get(HttpRequest.newBuilder(URI.create(files + "missing.jpg"))).statusCode());
+        assertEquals(404, get(HttpRequest.newBuilder(URI.create(files + ".upload-1.tmp"))).statusCode());
+    }
+
+    @Test
+    void onlyImagesAreServed() throws Exception {
+        Path page = Files.writeString(Path.of("target/test-storage").resolve(UUID.randomUUID() + "_x.html"),
+                "<script>alert(1)</script>");
+        String pageUrl = "http://localhost:" + port + "/files/" + page.getFileName();
+
+        assertEquals(404, get(HttpRequest.newBuilder(URI.create(pageUrl))).statusCode());
+    }
+
+    private HttpResponse<byte[]> get(HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
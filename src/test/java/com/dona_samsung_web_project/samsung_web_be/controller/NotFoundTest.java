@@ -0,0 +1,41 @@
+package com.dona_samsung_web_project.samsung_web_be.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+// Lookups of missing ids go through the entity caches, which must not try to cache the empty result
+@SpringBootTest
+@AutoConfigureMockMvc
+class NotFoundTest {
+
+    private static final long MISSING_ID = Long.MAX_VALUE;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void missingBookIsNotFound() throws Exception {
+        mockMvc.perform(get("/books/{id}", MISSING_ID))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("X01"));
+        mockMvc.perform(delete("/books/{id}", MISSING_ID))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void missingMemberIsNotFound() throws Exception {
+        mockMvc.perform(get("/members/{id}", MISSING_ID))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("X01"));
+        mockMvc.perform(delete("/members/{id}", MISSING_ID))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,94 @@
+package com.dona_samsung_web_project.samsung_web_be.exporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.dona_samsung_web_project.samsung_web_be.model.Author;
+import com.dona_samsung_web_project.samsung_web_be.model.Book;
+import com.dona_samsung_web_project.samsung_web_be.repository.AuthorRepository;
+import com.dona_samsung_web_project.samsung_web_be.repository.BookRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+// The tables are shared with the other tests, so only the rows written here are checked
+@SpringBootTest
+class ExportServiceTest {
+
+    @Autowired
+    private ExportService exportService;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Author author;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        author = authorRepository.save(new Author("Exporter " + UUID.randomUUID(), "Says \"hi\", twice\nand more"));
+        book = bookRepository.save(new Book("Export " + UUID.randomUUID(), null, "Fantasy", 1937, null, author));
+    }
+
+    @Test
+    void csvRoundTripsQuotedValues() throws Exception {
+        String output = write(exportService.exportAuthors(ExportFormat.CSV));
+
+        assertTrue(output.startsWith("id,name,description,createdAt,updatedAt\n"));
+        List<Map<String, String>> rows;
+        try (MappingIterator<Map<String, String>> values = new CsvMapper().readerForMapOf(String.class)
+                .with(CsvSchema.emptySchema().withHeader()).readValues(output)) {
+            rows = values.readAll();
+        }
+        Map<String, String> exported = rows.stream()
+                .filter(row -> row.get("id").equals(author.getId().toString())).findFirst().orElseThrow();
+        assertEquals(author.getName(), exported.get("name"));
+        assertEquals(author.getDescription(), exported.get("description"));
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLine() throws Exception {
+        String output = write(exportService.exportBooks(ExportFormat.NDJSON));
+
+        assertTrue(output.endsWith("\n"));
+        JsonNode exported = null;
+        for (String line : output.split("\n")) {
+            JsonNode node = objectMapper.readTree(line);
+            if (node.get("id").asLong() == book.getId()) {
+                exported = node;
+            }
+        }
+        assertEquals(book.getTitle(), exported.get("title").asText());
+        assertTrue(exported.get("description").isNull());
+        assertEquals(1937, exported.get("publishingYear").asInt());
+        assertEquals("AVAILABLE", exported.get("status").asText());
+        assertEquals(author.getId(), exported.get("authorId").asLong());
+        assertEquals(author.getName(), exported.get("authorName").asText());
+        assertEquals(book.getCreatedAt().withNano(0),
+                LocalDateTime.parse(exported.get("createdAt").asText()).withNano(0));
+    }
+
+    private static String write(StreamingResponseBody body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,102 @@
+package com.dona_samsung_web_project.samsung_web_be.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.dona_samsung_web_project.samsung_web_be.model.Author;
+import com.dona_samsung_web_project.samsung_web_be.repository.AuthorRepository;
+import com.dona_samsung_web_project.samsung_web_be.service.AuthorService;
+import com.dona_samsung_web_project.samsung_web_be.service.BookService;
+import com.dona_samsung_web_project.samsung_web_be.service.MemberService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+
+// Rows are written in chunks of two; a chunk holding an author named "bad" is rejected by the database
+class ImportServiceTest {
+
+    private final AuthorService authorService = mock(AuthorService.class);
+    private ImportService importService;
+
+    @TempDir
+    private Path dir;
+
+    @BeforeEach
+    void setUp() {
+        importService = new ImportService(authorService, mock(BookService.class), mock(MemberService.class),
+                mock(AuthorRepository.class), new ObjectMapper(), 2, 1);
+        when(authorService.saveAuthors(anyList())).thenAnswer(invocation -> {
+            List<Author> authors = invocation.getArgument(0);
+            if (authors.stream().anyMatch(author -> author.getName().equals("bad"))) {
+                throw new DataIntegrityViolationException("rejected " + authors.size());
+            }
+            return authors;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+    }
+
+    @Test
+    void failedChunkIsRetriedRowByRow() throws Exception {
+        ImportJob job = run(ImportFormat.NDJSON, """
+                {"name": "Tolkien"}
+                {"name": "bad"}
+                {"name": "Herbert"}
+                """);
+
+        assertEquals(ImportJob.Status.COMPLETED, job.getStatus());
+        assertEquals(3, job.getProcessed());
+        assertEquals(2, job.getImported());
+        assertEquals(List.of(new ImportJob.RowError(2, "rejected 1")), job.getErrors());
+    }
+
+    @Test
+    void csvErrorsReportFileLines() throws Exception {
+        ImportJob job = run(ImportFormat.CSV, """
+                name,description
+                Tolkien,Fantasy
+                ,No name
+                Herbert,Dune,1965
+                Asimov,Foundation
+                """);
+
+        assertEquals(4, job.getProcessed());
+        assertEquals(2, job.getImported());
+        assertEquals(List.of(3L, 4L), job.getErrors().stream().map(ImportJob.RowError::row).toList());
+        assertEquals("Name is required", job.getErrors().get(0).message());
+    }
+
+    @Test
+    void ndjsonErrorsReportFileLines() throws Exception {
+        ImportJob job = run(ImportFormat.NDJSON, """
+                {"name": "Tolkien"}
+
+                {"description": "No name"}
+                {"name": oops}
+                {"name": "Herbert"}
+                """);
+
+        assertEquals(4, job.getProcessed());
+        assertEquals(2, job.getImported());
+        assertEquals(List.of(3L, 4L), job.getErrors().stream().map(ImportJob.RowError::row).toList());
+        assertEquals("Name is required", job.getErrors().get(0).message());
+    }
+
+    private ImportJob run(ImportFormat format, String content) throws Exception {
+        Path file = Files.writeString(dir.resolve("authors." + format.getLabel()), content);
+        return importService.run(ImportType.AUTHORS, format, file);
+    }
+}
@@ -0,0 +1,85 @@
+package com.dona_samsung_web_project.samsung_web_be.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.dona_samsung_web_project.samsung_web_be.model.Author;
+import com.dona_samsung_web_project.samsung_web_be.model.Book;
+import com.dona_samsung_web_project.samsung_web_be.repository.BookRepository;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+class BookSearchIndexTest {
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final BookSearchIndex index = new BookSearchIndex(bookRepository);
+    private final Author author = author(1L, "Tolkien");
+
+    @BeforeEach
+    void build() {
+        when(bookRepository.findAll()).thenReturn(List.of(
+                book(1L, "The Hobbit", "Fantasy", 1937),
+                book(2L, "Hobbit Companion", "Reference", 1990),
+                book(3L, "Dune", "Science Fiction", 1965)));
+        index.rebuild();
+    }
+
+    @Test
+    void pagesSortedMatches() {
+        Page<Book> page = index.searchByTitle("hobbit",
+                PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "publishingYear"))).orElseThrow();
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals(List.of(2L), page.map(Book::getId).getContent());
+        assertEquals(List.of(1L), index.searchByTitle("hobbit",
+                PageRequest.of(1, 1, Sort.by(Sort.Direction.DESC, "publishingYear"))).orElseThrow()
+                .map(Book::getId).getContent());
+    }
+
+    @Test
+    void unsupportedSortFallsBackToTheDatabase() {
+        assertTrue(index.searchByCategory("fantasy", PageRequest.of(0, 10, Sort.by("description"))).isEmpty());
+    }
+
+    @Test
+    void indexedBooksAreNotChangedByTheirCaller() {
+        Book book = book(4L, "Lord of the Rings", "Fantasy", 1954);
+        index.index(book);
+        book.setTitle("Changed after indexing");
+        book.setPublishingYear(2100);
+
+        Book indexed = index.searchByTitle("lord of", PageRequest.of(0, 10)).orElseThrow().getContent().get(0);
+        assertEquals("Lord of the Rings", indexed.getTitle());
+        assertEquals(1954, indexed.getPublishingYear());
+    }
+
+    @Test
+    void authorUpdatesReplaceTheIndexedCopies() {
+        Book before = index.searchByTitle("dune", PageRequest.of(0, 10)).orElseThrow().getContent().get(0);
+        index.updateAuthor(author(1L, "J.R.R. Tolkien"));
+
+        Book after = index.searchByTitle("dune", PageRequest.of(0, 10)).orElseThrow().getContent().get(0);
+        assertEquals("Tolkien", before.getAuthor().getName());
+        assertEquals("J.R.R. Tolkien", after.getAuthor().getName());
+    }
+
+    private Book book(Long id, String title, String category, int year) {
+        Book book = new Book(title, null, category, year, null, author);
+        book.setId(id);
+        return book;
+    }
+
+    private static Author author(Long id, String name) {
+        Author author = new Author(name, null);
+        author.setId(id);
+        return author;
+    }
+}
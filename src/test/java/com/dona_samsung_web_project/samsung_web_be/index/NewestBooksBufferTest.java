@@ -0,0 +1,54 @@
+package com.dona_samsung_web_project.samsung_web_be.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.dona_samsung_web_project.samsung_web_be.model.Author;
+import com.dona_samsung_web_project.samsung_web_be.model.Book;
+import com.dona_samsung_web_project.samsung_web_be.model.BookStatus;
+import com.dona_samsung_web_project.samsung_web_be.repository.BookRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+class NewestBooksBufferTest {
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final NewestBooksBuffer buffer = new NewestBooksBuffer(bookRepository, 10);
+
+    @BeforeEach
+    void build() {
+        when(bookRepository.findByStatusOrderByCreatedAtDescIdDesc(any(), any())).thenReturn(Page.empty());
+        buffer.rebuild();
+    }
+
+    @Test
+    void bufferedBooksAreNotChangedByTheirCallers() {
+        Book book = new Book("Dune", null, "Science Fiction", 1965, null, author("Herbert"));
+        book.setId(1L);
+        buffer.put(book);
+        book.setTitle("Changed after saving");
+
+        Book first = newest();
+        first.setTitle("Changed by a reader");
+        first.setAuthor(author("Someone else"));
+
+        Book second = newest();
+        assertEquals("Dune", second.getTitle());
+        assertEquals("Herbert", second.getAuthor().getName());
+    }
+
+    private Book newest() {
+        return buffer.newest(BookStatus.AVAILABLE, PageRequest.of(0, 5)).orElseThrow().getContent().get(0);
+    }
+
+    private static Author author(String name) {
+        Author author = new Author(name, null);
+        author.setId(1L);
+        return author;
+    }
+}
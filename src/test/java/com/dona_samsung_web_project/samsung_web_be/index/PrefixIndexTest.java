@@ -0,0 +1,76 @@
+package com.dona_samsung_web_project.samsung_web_be.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class PrefixIndexTest {
+
+    private static final String[] WORDS = { "alpha", "almanac", "beta", "bravo", "alchemy", "amber", "bat" };
+
+    @Test
+    void ranksWordStartsByPopularity() {
+        PrefixIndex index = new PrefixIndex(3);
+        index.put(1, "The Alchemist", 5);
+        index.put(2, "Alpha Centauri", 9);
+        index.put(3, "Dune", 100);
+        index.put(4, "Beyond the Almanac", 1);
+
+        assertEquals(List.of(2L, 1L, 4L), ids(index.top("al", 10)));
+        assertEquals(List.of(2L), ids(index.top("alpha c", 10)));
+        assertEquals(List.of(2L, 1L), ids(index.top("al", 2)));
+    }
+
+    // The lists kept for short prefixes must match a ranking computed from scratch after any sequence of writes,
+    // including entries of a full list losing popularity or disappearing
+    @Test
+    void shortPrefixListsFollowEveryWrite() {
+        Random random = new Random(11);
+        PrefixIndex index = new PrefixIndex(3);
+        Map<Long, String> texts = new HashMap<>();
+        Map<Long, Long> popularity = new HashMap<>();
+        for (int i = 0; i < 2_000; i++) {
+            long id = random.nextInt(25);
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    String text = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+                    long value = random.nextInt(10);
+                    index.put(id, text, value);
+                    texts.put(id, text);
+                    popularity.put(id, value);
+                }
+                case 1 -> {
+                    index.remove(id);
+                    texts.remove(id);
+                    popularity.remove(id);
+                }
+                default -> {
+                    long delta = random.nextInt(7) - 3;
+                    index.addPopularity(id, delta);
+                    popularity.computeIfPresent(id, (key, value) -> value + delta);
+                }
+            }
+        }
+
+        for (String prefix : List.of("a", "al", "am", "b", "ba", "br", "be")) {
+            List<Long> expected = texts.keySet().stream()
+                    .filter(id -> Arrays.stream(texts.get(id).split(" ")).anyMatch(word -> word.startsWith(prefix)))
+                    .sorted(Comparator.comparing((Long id) -> -popularity.get(id))
+                            .thenComparing(texts::get).thenComparing(id -> id))
+                    .limit(3)
+                    .toList();
+            assertEquals(expected, ids(index.top(prefix, 3)), prefix);
+        }
+    }
+
+    private static List<Long> ids(List<PrefixIndex.Entry> entries) {
+        return entries.stream().map(PrefixIndex.Entry::id).toList();
+    }
+}
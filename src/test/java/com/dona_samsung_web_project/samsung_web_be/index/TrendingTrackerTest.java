@@ -0,0 +1,46 @@
+package com.dona_samsung_web_project.samsung_web_be.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.dona_samsung_web_project.samsung_web_be.repository.BorrowedBookRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class TrendingTrackerTest {
+
+    private final BorrowedBookRepository borrowedBookRepository = mock(BorrowedBookRepository.class);
+
+    @Test
+    void borrowsDuringARebuildAreKept() {
+        TrendingTracker tracker = new TrendingTracker(borrowedBookRepository, 10);
+        when(borrowedBookRepository.findBorrowEventsSince(any())).thenAnswer(invocation -> {
+            tracker.recordBorrow(1L, 2L);
+            return List.of();
+        });
+
+        tracker.rebuild();
+
+        assertEquals(List.of(Map.entry(1L, 1L)), tracker.topBooks(TrendingWindow.LAST_24_HOURS, 10));
+        assertEquals(List.of(Map.entry(2L, 1L)), tracker.topMembers(TrendingWindow.LAST_30_DAYS, 10));
+    }
+
+    @Test
+    void fullSummaryReplacesTheSmallestCounter() {
+        SpaceSaving summary = new SpaceSaving(2);
+        summary.offer(1L, 5);
+        summary.offer(2L, 2);
+        summary.offer(3L, 1);
+        summary.offer(1L, 1);
+
+        Map<Long, Long> counts = new HashMap<>();
+        summary.addTo(counts);
+        assertEquals(Map.of(1L, 6L, 3L, 3L), counts);
+    }
+}
@@ -0,0 +1,44 @@
+package com.dona_samsung_web_project.samsung_web_be.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Same answers as a case-insensitive LIKE %query%
+class TrigramIndexTest {
+
+    private final TrigramIndex index = new TrigramIndex();
+
+    @BeforeEach
+    void fill() {
+        index.put(1L, "The Hobbit");
+        index.put(2L, "Hobbit Tales");
+        index.put(3L, "Dune");
+        index.put(4L, null);
+    }
+
+    @Test
+    void findsSubstringsIgnoringCase() {
+        assertEquals(Set.of(1L, 2L), index.search("HOBBIT"));
+        assertEquals(Set.of(1L), index.search("e hob"));
+        assertEquals(Set.of(), index.search("hobbits"));
+    }
+
+    @Test
+    void shortQueriesScanTheTexts() {
+        assertEquals(Set.of(3L), index.search("du"));
+        assertEquals(Set.of(1L, 2L, 3L), index.search(""));
+    }
+
+    @Test
+    void replacedAndRemovedTextsAreNoLongerFound() {
+        index.put(1L, "Silmarillion");
+        index.remove(2L);
+
+        assertEquals(Set.of(), index.search("hobbit"));
+        assertEquals(Set.of(1L), index.search("marill"));
+    }
+}
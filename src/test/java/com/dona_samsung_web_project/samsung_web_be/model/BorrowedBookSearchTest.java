@@ -0,0 +1,46 @@
+package com.dona_samsung_web_project.samsung_web_be.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.dona_samsung_web_project.samsung_web_be.exception.ValidationException;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+class BorrowedBookSearchTest {
+
+    @Test
+    void blankParametersAreLeftOut() {
+        BorrowedBookSearch search = BorrowedBookSearch.of(" ", "  Ann ", null, 7L, "", " 2024-01-01 ", null,
+                true, null);
+
+        assertEquals(new BorrowedBookSearch(null, "Ann", null, 7L, null, LocalDate.of(2024, 1, 1), null,
+                true, false), search);
+    }
+
+    @Test
+    void matchIsAllOrAny() {
+        assertTrue(of("ALL").matchAll());
+        assertFalse(of("any").matchAll());
+        assertEquals("Match must be all or any",
+                assertThrows(ValidationException.class, () -> of("some")).getMessage());
+    }
+
+    @Test
+    void datesAreValidated() {
+        assertEquals("borrowDate must be a date like 2024-01-31",
+                assertThrows(ValidationException.class, () -> BorrowedBookSearch.of(null, null, null, null,
+                        "31/01/2024", null, null, null, null)).getMessage());
+        assertEquals("borrowedFrom must not be after borrowedTo",
+                assertThrows(ValidationException.class, () -> BorrowedBookSearch.of(null, null, null, null,
+                        null, "2024-02-01", "2024-01-31", null, null)).getMessage());
+    }
+
+    private static BorrowedBookSearch of(String match) {
+        return BorrowedBookSearch.of("title", null, null, null, null, null, null, null, match);
+    }
+}
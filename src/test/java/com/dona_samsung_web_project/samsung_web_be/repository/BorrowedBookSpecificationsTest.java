@@ -0,0 +1,93 @@
+package com.dona_samsung_web_project.samsung_web_be.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.dona_samsung_web_project.samsung_web_be.model.Author;
+import com.dona_samsung_web_project.samsung_web_be.model.Book;
+import com.dona_samsung_web_project.samsung_web_be.model.BorrowedBook;
+import com.dona_samsung_web_project.samsung_web_be.model.BorrowedBookSearch;
+import com.dona_samsung_web_project.samsung_web_be.model.Member;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+// The tables are shared with the other tests, so only the loans of this test's member are compared
+@SpringBootTest
+class BorrowedBookSpecificationsTest {
+
+    private static final LocalDate JANUARY = LocalDate.of(2024, 1, 10);
+    private static final LocalDate MARCH = LocalDate.of(2024, 3, 10);
+
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private MemberRepository memberRepository;
+    @Autowired
+    private BorrowedBookRepository borrowedBookRepository;
+
+    private String tag;
+    private Member member;
+    private BorrowedBook percent;
+    private BorrowedBook digits;
+    private BorrowedBook underscore;
+
+    @BeforeEach
+    void setUp() {
+        tag = UUID.randomUUID().toString();
+        Author author = authorRepository.save(new Author("Specs " + tag, null));
+        member = memberRepository.save(new Member("Reader " + tag, tag + "@example.com", null));
+        percent = loan(author, "100% " + tag, JANUARY, null);
+        digits = loan(author, "1000 " + tag, MARCH, MARCH.plusDays(3));
+        underscore = loan(author, "a_b " + tag, MARCH, null);
+    }
+
+    @Test
+    void likeWildcardsAreMatchedLiterally() {
+        assertEquals(Set.of(percent.getId()), find(search("100% " + tag, null, null, null, null, true)));
+        assertEquals(Set.of(underscore.getId()), find(search("A_B " + tag, null, null, null, null, true)));
+        assertEquals(Set.of(percent.getId(), digits.getId()), find(search("100", null, null, null, null, true)));
+    }
+
+    @Test
+    void matchAllCombinesCriteriaWithAnd() {
+        assertEquals(Set.of(digits.getId()), find(search(null, MARCH, null, true, null, true)));
+        assertEquals(Set.of(underscore.getId()), find(search(null, null, MARCH.minusDays(1), false, null, true)));
+        assertEquals(Set.of(), find(search("100% " + tag, MARCH, null, null, null, true)));
+    }
+
+    @Test
+    void matchAnyCombinesCriteriaWithOr() {
+        assertEquals(Set.of(percent.getId(), digits.getId()),
+                find(search("100% " + tag, null, null, null, digits.getBook().getId(), false)));
+    }
+
+    private static BorrowedBookSearch search(String title, LocalDate borrowDate, LocalDate from, Boolean returned,
+            Long bookId, boolean matchAll) {
+        return new BorrowedBookSearch(title, null, bookId, null, borrowDate, from, null, returned, matchAll);
+    }
+
+    private Set<Long> find(BorrowedBookSearch search) {
+        List<BorrowedBook> loans = borrowedBookRepository.findAll(BorrowedBookSpecifications.matching(search));
+        return loans.stream()
+                .filter(loan -> loan.getMember().getId().equals(member.getId()))
+                .map(BorrowedBook::getId)
+                .collect(Collectors.toSet());
+    }
+
+    private BorrowedBook loan(Author author, String title, LocalDate borrowDate, LocalDate returnDate) {
+        Book book = bookRepository.save(new Book(title, null, "Specs", 2024, null, author));
+        BorrowedBook loan = new BorrowedBook(book, member, borrowDate, borrowDate.plusDays(14));
+        loan.setReturnDate(returnDate);
+        return borrowedBookRepository.save(loan);
+    }
+}
@@ -0,0 +1,94 @@
+package com.dona_samsung_web_project.samsung_web_be.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.dona_samsung_web_project.samsung_web_be.model.Author;
+import com.dona_samsung_web_project.samsung_web_be.model.Book;
+import com.dona_samsung_web_project.samsung_web_be.model.BorrowedBook;
+import com.dona_samsung_web_project.samsung_web_be.model.Member;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Insert throughput for 100k loans: one INSERT round trip per row (what IDENTITY ids forced) against
+// JDBC batches of 50. Run with -Dbenchmark=true, preferably against PostgreSQL.
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LoanInsertBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LoanInsertBenchmarkTest.class);
+
+    private static final int LOANS = 100_000;
+    private static final int CHUNK = 1_000;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private MemberRepository memberRepository;
+    @Autowired
+    private BorrowedBookRepository borrowedBookRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void insertThroughputUnbatchedVsBatched() {
+        String run = UUID.randomUUID().toString();
+        Author author = authorRepository.save(new Author("Benchmark " + run, "benchmark"));
+        List<Long> bookIds = new ArrayList<>();
+        List<Long> memberIds = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            bookIds.add(bookRepository.save(new Book("Benchmark " + i, null, "Benchmark", 2024, null, author)).getId());
+            memberIds.add(memberRepository.save(new Member("Benchmark " + i, run + "-" + i + "@example.com", null))
+                    .getId());
+        }
+        long before = borrowedBookRepository.count();
+
+        double unbatched = insertLoans(1, bookIds, memberIds);
+        double batched = insertLoans(50, bookIds, memberIds);
+        log.info("Inserted {} loans: {} rows/s one by one, {} rows/s in batches of 50 (x{})", LOANS,
+                String.format("%.0f", unbatched), String.format("%.0f", batched),
+                String.format("%.1f", batched / unbatched));
+
+        assertEquals(before + 2L * LOANS, borrowedBookRepository.count());
+    }
+
+    // Rows per second, in transactions of CHUNK loans
+    private double insertLoans(int batchSize, List<Long> bookIds, List<Long> memberIds) {
+        long started = System.nanoTime();
+        for (int done = 0; done < LOANS; done += CHUNK) {
+            int offset = done;
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                for (int i = offset; i < offset + CHUNK; i++) {
+                    BorrowedBook loan = new BorrowedBook();
+                    loan.setBook(entityManager.getReference(Book.class, bookIds.get(i % bookIds.size())));
+                    loan.setMember(entityManager.getReference(Member.class, memberIds.get(i % memberIds.size())));
+                    loan.setBorrowDate(LocalDate.now());
+                    entityManager.persist(loan);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+        return LOANS / ((System.nanoTime() - started) / 1e9);
+    }
+}
@@ -0,0 +1,375 @@
+package com.dona_samsung_web_project.samsung_web_be.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.dona_samsung_web_project.samsung_web_be.config.DatabasePlatform;
+import com.dona_samsung_web_project.samsung_web_be.model.BookStatus;
+import com.dona_samsung_web_project.samsung_web_be.model.BorrowedBookSearch;
+import com.dona_samsung_web_project.samsung_web_be.service.BorrowedBookService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+// EXPLAIN of the statements the hot repository calls actually send, with the parameters Hibernate bound,
+// for every sortBy the controllers accept and for the search paths. A full table scan in any of the plans
+// means an index from db/migration is missing or unusable.
+@SpringBootTest
+class QueryPlanTest {
+
+    private static final int AUTHORS = 200;
+    private static final int BOOKS = 20_000;
+    private static final int MEMBERS = 5_000;
+    private static final int LOANS = 50_000;
+    // Share of the books that are borrowed, so the newest borrowed books are a selective lookup
+    private static final int BORROWED_EVERY = 50;
+    private static final Pattern FROM_TABLE = Pattern.compile("\\bfrom (\\w+) ");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DatabasePlatform databasePlatform;
+    @Autowired
+    private StatementRecorder recorder;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private MemberRepository memberRepository;
+    @Autowired
+    private BorrowedBookRepository borrowedBookRepository;
+    @Autowired
+    private BorrowedBookService borrowedBookService;
+    @Autowired
+    private SearchRepository searchRepository;
+
+    @Test
+    void hotPathQueriesUseIndexes() {
+        Seed seed = seed();
+        Pageable newestFirst = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+        Map<String, Runnable> calls = new LinkedHashMap<>();
+        calls.put("findListItemsByMemberId",
+                () -> borrowedBookRepository.findListItemsByMemberId(seed.memberId(), newestFirst));
+        calls.put("findListItemsByBookId",
+                () -> borrowedBookRepository.findListItemsByBookId(seed.bookId(), newestFirst));
+        calls.put("findByStatusOrderByCreatedAtDescIdDesc", () -> bookRepository
+                .findByStatusOrderByCreatedAtDescIdDesc(BookStatus.BORROWED, PageRequest.of(0, 10)));
+        calls.put("books findByOrderByBorrowCountDescIdAsc",
+                () -> bookRepository.findByOrderByBorrowCountDescIdAsc(Limit.of(3)));
+        calls.put("findByEmailIn", () -> memberRepository.findByEmailIn(List.of(seed.email(), "nobody@example.com")));
+        calls.put("members findByOrderByBorrowCountDescIdAsc",
+                () -> memberRepository.findByOrderByBorrowCountDescIdAsc(Limit.of(3)));
+
+        // Borrowed book search (GET /borrowed-books/search)
+        calls.put("search by borrow date range", () -> borrowedBookService.searchBorrowedBooks(
+                search(null, null, seed.borrowedFrom(), seed.borrowedTo(), true), newestFirst));
+        calls.put("search by member and title", () -> borrowedBookService.searchBorrowedBooks(
+                search(seed.bookTitle(), seed.memberId(), null, null, true), newestFirst));
+
+        // First list page for every accepted sortBy (SortableFields), read as a slice like the list endpoints
+        for (String field : List.of("id", "title", "createdAt", "borrowCount")) {
+            calls.put("GET /books?sortBy=" + field, () -> bookRepository.findListItemSlice(sortedBy(field)));
+        }
+        for (String field : List.of("id", "name", "createdAt")) {
+            calls.put("GET /authors?sortBy=" + field, () -> authorRepository.findSliceBy(sortedBy(field)));
+        }
+        for (String field : List.of("id", "name", "createdAt", "borrowCount")) {
+            calls.put("GET /members?sortBy=" + field, () -> memberRepository.findSliceBy(sortedBy(field)));
+        }
+        for (String field : List.of("id", "createdAt", "borrowDate")) {
+            calls.put("GET /borrowed-books?sortBy=" + field,
+                    () -> borrowedBookRepository.findListItemSlice(sortedBy(field)));
+        }
+
+        // Substring and full-text search only have indexes on PostgreSQL (pg_trgm, tsvector)
+        if (databasePlatform.isPostgreSql()) {
+            calls.put("findByTitleContainingIgnoreCase",
+                    () -> bookRepository.findByTitleContainingIgnoreCase(seed.bookTitle(), PageRequest.of(0, 10)));
+            calls.put("findSliceByNameContainingIgnoreCase", () -> memberRepository
+                    .findSliceByNameContainingIgnoreCase(seed.memberName(), PageRequest.of(0, 10)));
+            calls.put("search by title", () -> borrowedBookService.searchBorrowedBooks(
+                    search(seed.bookTitle(), null, null, null, false), newestFirst));
+            calls.put("SearchRepository.search", () -> searchRepository.search(seed.bookTitle(), 10));
+        }
+
+        List<String> scans = new ArrayList<>();
+        calls.forEach((name, call) -> {
+            List<RecordedStatement> statements = record(call);
+            assertFalse(statements.isEmpty(), name + " sent no query");
+            for (RecordedStatement statement : statements) {
+                String plan = explain(statement);
+                if (isFullScan(statement, plan)) {
+                    scans.add(name + ":\n" + statement.sql() + "\n" + plan);
+                }
+            }
+        });
+
+        assertTrue(scans.isEmpty(), "Full table scans on hot paths:\n" + String.join("\n\n", scans));
+    }
+
+    private List<RecordedStatement> record(Runnable call) {
+        // The author queries are cacheable, only a miss reaches the database
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        recorder.start();
+        try {
+            call.run();
+        } finally {
+            recorder.stop();
+        }
+        return recorder.statements().stream()
+                .filter(statement -> statement.sql().strip().toLowerCase(Locale.ROOT).startsWith("select"))
+                .toList();
+    }
+
+    private String explain(RecordedStatement statement) {
+        return jdbcTemplate.query("EXPLAIN " + statement.sql(), statement::bind, (rs, rowNum) -> rs.getString(1))
+                .stream()
+                .collect(Collectors.joining("\n"));
+    }
+
+    // H2 drives a join from the smaller table whatever the ORDER BY ... LIMIT, so there only a scan of the
+    // table the query selects from counts
+    private boolean isFullScan(RecordedStatement statement, String plan) {
+        if (databasePlatform.isPostgreSql()) {
+            return plan.contains("Seq Scan");
+        }
+        Matcher from = FROM_TABLE.matcher(statement.sql());
+        return from.find() && plan.contains("PUBLIC." + from.group(1).toUpperCase(Locale.ROOT) + ".tableScan");
+    }
+
+    private static Pageable sortedBy(String field) {
+        return PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, field));
+    }
+
+    private static BorrowedBookSearch search(String bookTitle, Long memberId, LocalDate from, LocalDate to,
+            boolean matchAll) {
+        return new BorrowedBookSearch(bookTitle, null, null, memberId, null, from, to, null, matchAll);
+    }
+
+    // Enough rows that the planner only picks a sequential scan when no index fits. Written with plain JDBC
+    // batches, ids far above the sequences so they never meet an id Hibernate hands out later.
+    private Seed seed() {
+        String run = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        long authorBase = nextFreeId("authors");
+        long bookBase = nextFreeId("books");
+        long memberBase = nextFreeId("members");
+        long loanBase = nextFreeId("borrowed_books");
+
+        batch("INSERT INTO authors (id, name, description, created_at, updated_at) VALUES (?, ?, ?, ?, ?)",
+                AUTHORS, (ps, i) -> {
+                    ps.setLong(1, authorBase + i);
+                    ps.setString(2, "Plan " + run + " author " + i);
+                    ps.setString(3, "plan");
+                    timestamps(ps, 4, now.minusMinutes(i));
+                });
+        batch("INSERT INTO books (id, title, description, category, publishing_year, author_id, status, "
+                + "borrow_count, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", BOOKS, (ps, i) -> {
+                    ps.setLong(1, bookBase + i);
+                    ps.setString(2, title(run, i));
+                    ps.setString(3, "plan");
+                    ps.setString(4, "Plan " + (i % 10));
+                    ps.setInt(5, 2000 + i % 25);
+                    ps.setLong(6, authorBase + i % AUTHORS);
+                    ps.setString(7, (i % BORROWED_EVERY == 0 ? BookStatus.BORROWED : BookStatus.AVAILABLE).name());
+                    ps.setLong(8, i % 97);
+                    timestamps(ps, 9, now.minusMinutes(i));
+                });
+        batch("INSERT INTO members (id, name, email, borrow_count, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)",
+                MEMBERS, (ps, i) -> {
+                    ps.setLong(1, memberBase + i);
+                    ps.setString(2, memberName(run, i));
+                    ps.setString(3, run + "-" + i + "@example.com");
+                    ps.setLong(4, i % 89);
+                    timestamps(ps, 5, now.minusMinutes(i));
+                });
+        LocalDate today = now.toLocalDate();
+        batch("INSERT INTO borrowed_books (id, book_id, member_id, borrow_date, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", LOANS, (ps, i) -> {
+                    ps.setLong(1, loanBase + i);
+                    ps.setLong(2, bookBase + i % BOOKS);
+                    ps.setLong(3, memberBase + i % MEMBERS);
+                    ps.setDate(4, Date.valueOf(today.minusDays(i % 1000)));
+                    timestamps(ps, 5, now.minusMinutes(i));
+                });
+
+        if (databasePlatform.isPostgreSql()) {
+            jdbcTemplate.execute("ANALYZE");
+        }
+        return new Seed(bookBase, title(run, 0), memberBase, memberName(run, 0), run + "-0@example.com",
+                today.minusDays(3), today.minusDays(1));
+    }
+
+    private long nextFreeId(String table) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class) + 1_000_000;
+    }
+
+    private void batch(String sql, int rows, RowWriter writer) {
+        jdbcTemplate.batchUpdate(sql, IntStream.range(0, rows).boxed().toList(),
+                1000, writer::write);
+    }
+
+    private static String title(String run, int i) {
+        return "Plan " + run + " book " + String.format("%05d", i);
+    }
+
+    private static String memberName(String run, int i) {
+        return "Plan " + run + " member " + String.format("%05d", i);
+    }
+
+    private static void timestamps(PreparedStatement ps, int index, LocalDateTime time) throws SQLException {
+        ps.setTimestamp(index, Timestamp.valueOf(time));
+        ps.setTimestamp(index + 1, Timestamp.valueOf(time));
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(PreparedStatement ps, Integer row) throws SQLException;
+    }
+
+    private record Seed(Long bookId, String bookTitle, Long memberId, String memberName, String email,
+            LocalDate borrowedFrom, LocalDate borrowedTo) {
+    }
+
+    // A prepared statement and the setter calls made on it, replayed on the EXPLAIN statement
+    record RecordedStatement(String sql, List<Object[]> binds) {
+
+        void bind(PreparedStatement ps) throws SQLException {
+            for (Object[] bind : binds) {
+                invoke((Method) bind[0], ps, (Object[]) bind[1]);
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class RecorderConfig {
+
+        @Bean
+        static StatementRecorder statementRecorder() {
+            return new StatementRecorder();
+        }
+    }
+
+    // Wraps the application DataSource and keeps the statements prepared between start() and stop()
+    static class StatementRecorder implements BeanPostProcessor {
+
+        private final List<RecordedStatement> statements = new CopyOnWriteArrayList<>();
+        private volatile boolean recording;
+
+        void start() {
+            statements.clear();
+            recording = true;
+        }
+
+        void stop() {
+            recording = false;
+        }
+
+        List<RecordedStatement> statements() {
+            return List.copyOf(statements);
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!beanName.equals("dataSource") || !(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return wrap(super.getConnection());
+                }
+
+                @Override
+                public Connection getConnection(String username, String password) throws SQLException {
+                    return wrap(super.getConnection(username, password));
+                }
+            };
+        }
+
+        private Connection wrap(Connection connection) {
+            return proxy(Connection.class, (proxy, method, args) -> {
+                Object result = invoke(method, connection, args);
+                if (recording && method.getName().equals("prepareStatement")) {
+                    RecordedStatement statement = new RecordedStatement((String) args[0], new ArrayList<>());
+                    statements.add(statement);
+                    return record((PreparedStatement) result, statement);
+                }
+                return result;
+            });
+        }
+
+        private static PreparedStatement record(PreparedStatement ps, RecordedStatement statement) {
+            return proxy(PreparedStatement.class, (proxy, method, args) -> {
+                if (method.getName().startsWith("set") && args != null && args.length >= 2
+                        && args[0] instanceof Integer) {
+                    statement.binds().add(new Object[] { method, args });
+                }
+                return invoke(method, ps, args);
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler);
+        }
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws SQLException {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.dona_samsung_web_project.samsung_web_be.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.dona_samsung_web_project.samsung_web_be.model.Author;
+import com.dona_samsung_web_project.samsung_web_be.model.Book;
+import com.dona_samsung_web_project.samsung_web_be.model.BookStatus;
+import com.dona_samsung_web_project.samsung_web_be.model.BorrowedBook;
+import com.dona_samsung_web_project.samsung_web_be.model.Member;
+import com.dona_samsung_web_project.samsung_web_be.repository.AuthorRepository;
+import com.dona_samsung_web_project.samsung_web_be.repository.BookRepository;
+import com.dona_samsung_web_project.samsung_web_be.repository.BorrowedBookRepository;
+import com.dona_samsung_web_project.samsung_web_be.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+// Many members racing for the same books: every book must be lent exactly once. Runs against its own
+// in-memory database, migrated by Flyway, and empties it afterwards.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:borrow-concurrency;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=validate" })
+class BorrowConcurrencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BorrowConcurrencyTest.class);
+
+    private static final int THREADS = 16;
+    private static final int BOOKS = 50;
+
+    @Autowired
+    private BorrowedBookService borrowedBookService;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private MemberRepository memberRepository;
+    @Autowired
+    private BorrowedBookRepository borrowedBookRepository;
+
+    @AfterEach
+    void cleanUp() {
+        borrowedBookRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        memberRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void contendedBorrowsHaveExactlyOneWinnerPerBook() throws Exception {
+        String run = UUID.randomUUID().toString();
+        Author author = authorRepository.save(new Author("Contention " + run, "benchmark"));
+        List<Long> bookIds = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            bookIds.add(bookRepository.save(new Book("Contended " + i, "benchmark", "Benchmark", 2024, null, author))
+                    .getId());
+        }
+        List<Long> memberIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            memberIds.add(memberRepository.save(new Member("Contender " + i, run + "-" + i + "@example.com", null))
+                    .getId());
+        }
+
+        AtomicInteger wins = new AtomicInteger();
+        AtomicInteger losses = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long memberId : memberIds) {
+            futures.add(executor.submit(() -> {
+                List<Long> order = new ArrayList<>(bookIds);
+                Collections.shuffle(order);
+                start.await();
+                for (Long bookId : order) {
+                    try {
+                        borrowedBookService.saveBorrowedBook(loan(bookId, memberId));
+                        wins.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        losses.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        executor.shutdown();
+
+        int attempts = wins.get() + losses.get();
+        log.info("Contended borrows: {} attempts by {} threads on {} books in {} s ({} attempts/s), {} won, "
+                + "{} rejected", attempts, THREADS, BOOKS, String.format("%.3f", seconds),
+                String.format("%.0f", attempts / seconds), wins.get(), losses.get());
+
+        assertEquals(BOOKS, wins.get());
+        assertEquals(BOOKS * THREADS, attempts);
+        for (Long bookId : bookIds) {
+            assertEquals(BookStatus.BORROWED, bookRepository.findById(bookId).orElseThrow().getStatus());
+            assertEquals(1, borrowedBookRepository.countByBookId(bookId));
+            assertEquals(1, bookRepository.findById(bookId).orElseThrow().getBorrowCount());
+        }
+    }
+
+    private static BorrowedBook loan(Long bookId, Long memberId) {
+        Book book = new Book();
+        book.setId(bookId);
+        Member member = new Member();
+        member.setId(memberId);
+        BorrowedBook borrowedBook = new BorrowedBook();
+        borrowedBook.setBook(book);
+        borrowedBook.setMember(member);
+        return borrowedBook;
+    }
+}
@@ -0,0 +1,130 @@
+package com.dona_samsung_web_project.samsung_web_be.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.dona_samsung_web_project.samsung_web_be.model.Author;
+import com.dona_samsung_web_project.samsung_web_be.model.Book;
+import com.dona_samsung_web_project.samsung_web_be.model.BorrowedBook;
+import com.dona_samsung_web_project.samsung_web_be.model.Member;
+import com.dona_samsung_web_project.samsung_web_be.repository.AuthorRepository;
+import com.dona_samsung_web_project.samsung_web_be.repository.BookRepository;
+import com.dona_samsung_web_project.samsung_web_be.repository.BorrowedBookRepository;
+import com.dona_samsung_web_project.samsung_web_be.repository.MemberRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+// SQL statements per list call: the list rows must come from one query (plus the count for pages),
+// whatever the number of distinct books, authors and members on the page
+@SpringBootTest
+class ListQueryStatementCountTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ListQueryStatementCountTest.class);
+
+    private static final int ROWS = 20;
+
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private BorrowedBookService borrowedBookService;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private MemberRepository memberRepository;
+    @Autowired
+    private BorrowedBookRepository borrowedBookRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void listQueriesDoNotLoadAssociationsPerRow() {
+        String run = UUID.randomUUID().toString();
+        Book firstBook = null;
+        Member firstMember = null;
+        for (int i = 0; i < ROWS; i++) {
+            Author author = authorRepository.save(new Author("Projection " + run + " " + i, "benchmark"));
+            Book book = bookRepository.save(new Book("Projection " + i, "benchmark", "Benchmark", 2024, null, author));
+            Member member = memberRepository.save(new Member("Projection " + i, run + "-" + i + "@example.com", null));
+            BorrowedBook loan = new BorrowedBook();
+            loan.setBook(book);
+            loan.setMember(member);
+            loan.setBorrowDate(LocalDate.now());
+            borrowedBookRepository.save(loan);
+            if (firstBook == null) {
+                firstBook = book;
+                firstMember = member;
+            }
+        }
+        Long bookId = firstBook.getId();
+        Long memberId = firstMember.getId();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        boolean enabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        try {
+            Pageable newestFirst = PageRequest.of(0, ROWS, Sort.by("id").descending());
+
+            // Entity pages as the list endpoints used to load them
+            long bookEntities = statements(statistics, () -> bookRepository.findAll(newestFirst));
+            long loanEntities = statements(statistics, () -> borrowedBookRepository.findAll(newestFirst));
+
+            long books = report(statistics, "GET /books", () -> bookService.getAllBooks(newestFirst), bookEntities);
+            long bookSlice = report(statistics, "GET /books?withCount=false",
+                    () -> bookService.sliceBooks(newestFirst), bookEntities);
+            long bookWindow = report(statistics, "GET /books?after=",
+                    () -> bookService.scrollBooks(ScrollPosition.keyset(), Sort.by("id"), ROWS), bookEntities);
+            long loans = report(statistics, "GET /borrowed-books",
+                    () -> borrowedBookService.getAllBorrowedBooks(newestFirst), loanEntities);
+            long loanSlice = report(statistics, "GET /borrowed-books?withCount=false",
+                    () -> borrowedBookService.sliceBorrowedBooks(newestFirst), loanEntities);
+            long loanWindow = report(statistics, "GET /borrowed-books?after=",
+                    () -> borrowedBookService.scrollBorrowedBooks(ScrollPosition.keyset(), Sort.by("id"), ROWS),
+                    loanEntities);
+            long byMember = report(statistics, "GET /borrowed-books/member/{id}",
+                    () -> borrowedBookService.getBorrowedBooksByMemberId(memberId, newestFirst), loanEntities);
+            long byBook = report(statistics, "GET /borrowed-books/book/{id}",
+                    () -> borrowedBookService.getBorrowedBooksByBookId(bookId, newestFirst), loanEntities);
+
+            assertTrue(books <= 2);
+            assertEquals(1, bookSlice);
+            assertEquals(1, bookWindow);
+            assertTrue(loans <= 2);
+            assertEquals(1, loanSlice);
+            assertEquals(1, loanWindow);
+            assertTrue(byMember <= 2);
+            assertTrue(byBook <= 2);
+            assertTrue(loans < loanEntities);
+        } finally {
+            statistics.setStatisticsEnabled(enabled);
+        }
+    }
+
+    private static long report(Statistics statistics, String endpoint, Runnable call, long before) {
+        long after = statements(statistics, call);
+        log.info("{}: {} statements with entities, {} with projections", endpoint, before, after);
+        return after;
+    }
+
+    private static long statements(Statistics statistics, Runnable call) {
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,241 @@
+package com.dona_samsung_web_project.samsung_web_be.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.dona_samsung_web_project.samsung_web_be.exception.ValidationException;
+import com.dona_samsung_web_project.samsung_web_be.model.Author;
+import com.dona_samsung_web_project.samsung_web_be.model.Book;
+import com.dona_samsung_web_project.samsung_web_be.model.BorrowedBook;
+import com.dona_samsung_web_project.samsung_web_be.model.Member;
+import com.dona_samsung_web_project.samsung_web_be.model.PhotoStatus;
+import com.dona_samsung_web_project.samsung_web_be.model.PhotoVariants;
+import com.dona_samsung_web_project.samsung_web_be.repository.AuthorRepository;
+import com.dona_samsung_web_project.samsung_web_be.repository.BookRepository;
+import com.dona_samsung_web_project.samsung_web_be.repository.BorrowedBookRepository;
+import com.dona_samsung_web_project.samsung_web_be.repository.MemberRepository;
+import com.dona_samsung_web_project.samsung_web_be.repository.StoredPhotoRepository;
+import com.dona_samsung_web_project.samsung_web_be.storage.LocalFakeStorageService;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+// Books are saved before their photo is stored; the upload lands later, after retries if the storage fails,
+// and the resized variants after it. Identical photos share one stored copy.
+@SpringBootTest(properties = "photo-upload.initial-backoff=10ms")
+@Import(LocalFakeStorageService.class)
+class PhotoUploadServiceTest {
+
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private StoredPhotoRepository storedPhotoRepository;
+    @Autowired
+    private MemberRepository memberRepository;
+    @Autowired
+    private BorrowedBookRepository borrowedBookRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private LocalFakeStorageService storage;
+
+    private Author author;
+
+    @BeforeEach
+    void setUp() {
+        author = authorRepository.save(new Author("Photographer " + UUID.randomUUID(), "photo upload test"));
+    }
+
+    @Test
+    void photoIsUploadedAfterTheBookIsSaved() throws Exception {
+        Book saved = bookService.saveBook(book(), photo("cover.png"));
+
+        assertEquals(PhotoStatus.PENDING, saved.getPhotoStatus());
+        Book uploaded = awaitPhoto(saved.getId());
+        assertEquals(PhotoStatus.UPLOADED, uploaded.getPhotoStatus());
+        assertTrue(uploaded.getPhotoPath().endsWith("_cover.png"));
+        assertNull(uploaded.getPendingPhoto());
+        assertArrayEquals(png("cover"), Files.readAllBytes(Path.of(URI.create(uploaded.getPhotoPath()))));
+    }
+
+    @Test
+    void contentDecidesTheTypeAndExtension() throws Exception {
+        MockMultipartFile html = new MockMultipartFile("photo", "x.html", "image/png",
+                "<script>alert(1)</script>".getBytes(StandardCharsets.US_ASCII));
+        assertThrows(ValidationException.class, () -> bookService.saveBook(book(), html));
+
+        MockMultipartFile renamed = new MockMultipartFile("photo", "x.svg", "image/svg+xml", png("renamed"));
+        Book uploaded = awaitPhoto(bookService.saveBook(book(), renamed).getId());
+        assertTrue(uploaded.getPhotoPath().endsWith("_x.png"));
+    }
+
+    @Test
+    void failedUploadsAreRetried() throws Exception {
+        int uploadsBefore = storage.getUploads();
+        storage.failNextUploads(2);
+        Book saved = bookService.saveBook(book(), photo("retried.png"));
+
+        Book uploaded = awaitPhoto(saved.getId());
+        assertEquals(PhotoStatus.UPLOADED, uploaded.getPhotoStatus());
+        assertEquals(3, storage.getUploads() - uploadsBefore);
+    }
+
+    @Test
+    void newPhotoReplacesTheUploadedOne() throws Exception {
+        Book saved = bookService.saveBook(book(), photo("first.png"));
+        String first = awaitPhoto(saved.getId()).getPhotoPath();
+
+        bookService.updateBook(saved.getId(), book(), photo("second.png"));
+        Book updated = awaitPhoto(saved.getId());
+
+        assertTrue(updated.getPhotoPath().endsWith("_second.png"));
+        // Released right after the new photo lands
+        String firstName = first.substring(first.lastIndexOf('/') + 1);
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!storage.getDeleted().contains(firstName) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(storage.getDeleted().contains(firstName));
+    }
+
+    @Test
+    void staleSaveKeepsTheUploadedPhoto() throws Exception {
+        Book stale = bookService.saveBook(book(), photo("kept.png"));
+        Book uploaded = awaitPhoto(stale.getId());
+
+        stale.setTitle("Renamed " + UUID.randomUUID());
+        bookRepository.save(stale);
+
+        Book saved = bookRepository.findById(stale.getId()).orElseThrow();
+        assertEquals(stale.getTitle(), saved.getTitle());
+        assertEquals(PhotoStatus.UPLOADED, saved.getPhotoStatus());
+        assertEquals(uploaded.getPhotoPath(), saved.getPhotoPath());
+        assertEquals(uploaded.getPhotoHash(), saved.getPhotoHash());
+    }
+
+    @Test
+    void identicalPhotosAreStoredOnce() throws Exception {
+        MockMultipartFile photo = new MockMultipartFile("photo", "edition.png", "image/png", png("same cover"));
+        int uploadsBefore = storage.getUploads();
+        Book first = awaitPhoto(bookService.saveBook(book(), photo).getId());
+        Book second = awaitPhoto(bookService.saveBook(book(), photo).getId());
+
+        assertEquals(1, storage.getUploads() - uploadsBefore);
+        assertEquals(first.getPhotoPath(), second.getPhotoPath());
+        assertEquals(first.getPhotoHash(), second.getPhotoHash());
+        String fileName = first.getPhotoPath().substring(first.getPhotoPath().lastIndexOf('/') + 1);
+
+        bookService.deleteBook(first.getId());
+        assertFalse(storage.getDeleted().contains(fileName));
+        bookService.deleteBook(second.getId());
+        assertTrue(storage.getDeleted().contains(fileName));
+    }
+
+    @Test
+    void photoIsKeptWhenTheDeleteFails() throws Exception {
+        Book book = awaitPhoto(bookService.saveBook(book(), photo("borrowed.png")).getId());
+        Member member = memberRepository.save(new Member("Reader", UUID.randomUUID() + "@example.com", null));
+        borrowedBookRepository.save(new BorrowedBook(book, member, LocalDate.now(), LocalDate.now().plusDays(14)));
+
+        assertThrows(DataIntegrityViolationException.class, () -> bookService.deleteBook(book.getId()));
+        assertEquals(1, storedPhotoRepository.findById(book.getPhotoHash()).orElseThrow().getRefCount());
+    }
+
+    @Test
+    void unreferencedRowIsTakenOver() throws Exception {
+        MockMultipartFile photo = photo("leftover.png");
+        Book first = awaitPhoto(bookService.saveBook(book(), photo).getId());
+        // Left at 0 by a release that did not get to delete it
+        jdbcTemplate.update("UPDATE stored_photos SET ref_count = 0 WHERE content_hash = ?", first.getPhotoHash());
+        int uploadsBefore = storage.getUploads();
+
+        Book second = awaitPhoto(bookService.saveBook(book(), photo).getId());
+
+        assertEquals(PhotoStatus.UPLOADED, second.getPhotoStatus());
+        assertEquals(first.getPhotoPath(), second.getPhotoPath());
+        assertEquals(1, storage.getUploads() - uploadsBefore);
+        assertEquals(1, storedPhotoRepository.findById(first.getPhotoHash()).orElseThrow().getRefCount());
+    }
+
+    @Test
+    void imagesGetResizedVariants() throws Exception {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(4000, 2000, BufferedImage.TYPE_INT_ARGB), "png", png);
+        Book saved = bookService.saveBook(book(), new MockMultipartFile("photo", "wide.png", "image/png",
+                png.toByteArray()));
+
+        PhotoVariants variants = await(saved.getId(), book -> book.getPhotoVariants() != null).getPhotoVariants();
+        assertNotNull(variants.getThumbnail());
+        assertEquals(160, width(variants.getThumbnail()));
+        assertEquals(480, width(variants.getCard()));
+        assertEquals(1600, width(variants.getFull()));
+        assertEquals(800, ImageIO.read(Path.of(URI.create(variants.getFull())).toFile()).getHeight());
+    }
+
+    private Book awaitPhoto(Long bookId) throws InterruptedException {
+        return await(bookId, book -> book.getPhotoStatus() != PhotoStatus.PENDING);
+    }
+
+    private Book await(Long bookId, Predicate<Book> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (System.nanoTime() < deadline) {
+            Book book = bookRepository.findById(bookId).orElseThrow();
+            if (condition.test(book)) {
+                return book;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Photo of book " + bookId + " was not processed");
+    }
+
+    private static int width(String url) throws Exception {
+        return ImageIO.read(Path.of(URI.create(url)).toFile()).getWidth();
+    }
+
+    private Book book() {
+        Book book = new Book("Cover " + UUID.randomUUID(), "photo upload test", "Test", 2024, null, null);
+        book.setAuthor(author);
+        return book;
+    }
+
+    private static MockMultipartFile photo(String name) {
+        return new MockMultipartFile("photo", name, "image/png", png(name.replace(".png", "")));
+    }
+
+    // A PNG signature followed by the text, enough to be taken for a PNG (it has no variants)
+    private static byte[] png(String text) {
+        byte[] signature = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+        byte[] bytes = Arrays.copyOf(signature, signature.length + text.length());
+        System.arraycopy(text.getBytes(StandardCharsets.US_ASCII), 0, bytes, signature.length, text.length());
+        return bytes;
+    }
+}
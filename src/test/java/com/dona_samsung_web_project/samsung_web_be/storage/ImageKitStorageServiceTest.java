@@ -0,0 +1,153 @@
+package com.dona_samsung_web_project.samsung_web_be.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Uploads against a local server standing in for the ImageKit upload API
+class ImageKitStorageServiceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageKitStorageServiceTest.class);
+
+    private static final String RESPONSE = "{\"fileId\":\"f1\",\"url\":\"https://ik.example/samsung-web/cover.png\"}";
+
+    @TempDir
+    Path directory;
+
+    private HttpServer server;
+    private final AtomicReference<byte[]> received = new AtomicReference<>();
+    private volatile boolean keepBody = true;
+    private ImageKitStorageService storage;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/upload", exchange -> {
+            if (keepBody) {
+                received.set(exchange.getRequestBody().readAllBytes());
+            } else {
+                exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+            }
+            byte[] response = RESPONSE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.createContext("/stalled", exchange -> {
+            exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.start();
+        storage = storage("/upload", Duration.ofSeconds(10));
+    }
+
+    private ImageKitStorageService storage(String path, Duration readTimeout) {
+        ImageKitStorageService storage = new ImageKitStorageService(
+                URI.create("http://localhost:" + server.getAddress().getPort() + path), new ObjectMapper(),
+                Duration.ofSeconds(1), readTimeout);
+        storage.init();
+        return storage;
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void fileIsSentAsBase64FormField() throws Exception {
+        byte[] content = randomBytes(100_001);
+        Path file = Files.write(directory.resolve("cover.png"), content);
+
+        UploadedFile uploaded = storage.uploadFile(file, "cover.png", "samsung-web");
+
+        assertEquals("f1", uploaded.fileId());
+        assertEquals("https://ik.example/samsung-web/cover.png", uploaded.url());
+        String body = new String(received.get(), StandardCharsets.US_ASCII);
+        assertTrue(body.contains("name=\"fileName\"\r\n\r\ncover.png\r\n"));
+        assertTrue(body.contains("name=\"folder\"\r\n\r\nsamsung-web\r\n"));
+        Matcher matcher = Pattern.compile("name=\"file\"\r\n\r\n([A-Za-z0-9+/=]*)\r\n--").matcher(body);
+        assertTrue(matcher.find());
+        assertArrayEquals(content, Base64.getDecoder().decode(matcher.group(1)));
+    }
+
+    @Test
+    void stalledUploadTimesOut() throws Exception {
+        Path file = Files.write(directory.resolve("stalled.png"), randomBytes(1000));
+
+        assertThrows(SocketTimeoutException.class,
+                () -> storage("/stalled", Duration.ofMillis(200)).uploadFile(file, "stalled.png", "samsung-web"));
+    }
+
+    // Bytes allocated per 10 MB upload, against what encoding the whole file into a String alone costs.
+    // Run with -Dbenchmark=true.
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void allocationPerUpload() throws Exception {
+        keepBody = false;
+        Path file = Files.write(directory.resolve("large.jpg"), randomBytes(10 * 1024 * 1024));
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        int runs = 10;
+        for (int i = 0; i < 3; i++) {
+            storage.uploadFile(file, "large.jpg", "samsung-web");
+            Base64.getEncoder().encodeToString(Files.readAllBytes(file));
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < runs; i++) {
+            Base64.getEncoder().encodeToString(Files.readAllBytes(file));
+        }
+        long inMemory = (threads.getCurrentThreadAllocatedBytes() - before) / runs;
+
+        before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < runs; i++) {
+            storage.uploadFile(file, "large.jpg", "samsung-web");
+        }
+        long streamed = (threads.getCurrentThreadAllocatedBytes() - before) / runs;
+
+        log.info("10 MB upload: {} bytes allocated streaming, {} bytes for getBytes + encodeToString", streamed,
+                inMemory);
+        assertTrue(streamed < 1024 * 1024, "streamed upload allocated " + streamed + " bytes");
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,70 @@
+package com.dona_samsung_web_project.samsung_web_be.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.context.annotation.Primary;
+
+// Stands in for the real storage in tests (@Import it): files are copied into a temporary directory and served as
+// file: URLs. Uploads can be made to fail a number of times to exercise the retries. File ids are random, like on
+// ImageKit, so only a delete by the id the upload returned removes anything.
+@Primary
+public class LocalFakeStorageService implements StorageService {
+
+    private final Path directory;
+    private final Map<String, Path> files = new ConcurrentHashMap<>();
+    private final AtomicInteger uploads = new AtomicInteger();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private final List<String> deleted = new CopyOnWriteArrayList<>();
+
+    public LocalFakeStorageService() {
+        try {
+            directory = Files.createTempDirectory("fake-storage-");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public UploadedFile uploadFile(Path file, String fileName, String folder) throws Exception {
+        uploads.incrementAndGet();
+        if (failuresLeft.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+            throw new IOException("Simulated storage failure");
+        }
+        Path target = directory.resolve(fileName);
+        Files.copy(file, target);
+        String fileId = UUID.randomUUID().toString();
+        files.put(fileId, target);
+        return new UploadedFile(fileId, target.toUri().toString());
+    }
+
+    @Override
+    public void deleteFile(String fileId) throws Exception {
+        Path file = files.remove(fileId);
+        if (file != null) {
+            deleted.add(file.getFileName().toString());
+            Files.delete(file);
+        }
+    }
+
+    public void failNextUploads(int count) {
+        failuresLeft.set(count);
+    }
+
+    public int getUploads() {
+        return uploads.get();
+    }
+
+    // Names of the deleted files
+    public List<String> getDeleted() {
+        return deleted;
+    }
+}